@@ -22,7 +22,9 @@
 package gov.nasa.arc.mct.csvexport.actions;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
@@ -41,6 +43,7 @@ import javax.swing.SwingWorker;
  */
 public class CSVExportWorker extends SwingWorker<Boolean, Void> {
 	private Collection<AbstractComponent> components;
+	private CSVExportCapability capability;
 	private File file;
 	private IOException ioe;
 	
@@ -53,19 +56,31 @@ public class CSVExportWorker extends SwingWorker<Boolean, Void> {
 			throw new IllegalArgumentException();
 		}
 	}
+	
+	public CSVExportWorker(CSVExportCapability capability, File file) {
+		super();
+		this.capability = capability;
+		this.file = file;
+		
+		if (capability == null || file == null) {
+			throw new IllegalArgumentException();
+		}
+	}
 
 	@Override
 	protected Boolean doInBackground() throws Exception {
 		setProgress(0);
 		
-		CSVRenderer r = new CSVRenderer(components);
+		CSVRenderer r = capability != null ? 
+				new CSVRenderer(capability) : new CSVRenderer(components);
 		
 		int rowCount = r.getRowCount();
 		
 		Writer w = null;
 		boolean success = true;
 		try {
-			w = new FileWriter(file);
+			// Rows are rendered one at a time, so only buffer the writes
+			w = new BufferedWriter(new FileWriter(file));
 			w.write(r.renderHeaders());
 			for (int i = 0; i < rowCount && !isCancelled(); i++) {
 				setProgress((i * 100) / rowCount);
@@ -22,6 +22,7 @@
 package gov.nasa.arc.mct.csvexport.actions;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
 
 import java.awt.Component;
 import java.beans.PropertyChangeEvent;
@@ -45,6 +46,7 @@ import javax.swing.ProgressMonitor;
 public class CSVExporter {
 	private Component component;
 	private Collection<AbstractComponent> components;
+	private CSVExportCapability capability;
 	private File file;
 	
 	/**
@@ -61,6 +63,20 @@ public class CSVExporter {
 		this.file = file;
 	}
 	
+	/**
+	 * Create a new CSV exporter for a specific export format.
+	 * @param component an AWT component (for progress monitor)
+	 * @param capability the format and content to export
+	 * @param file the file to which the CSV should be written
+	 */
+	public CSVExporter(Component component,
+			CSVExportCapability capability, File file) {
+		super();
+		this.component = component;
+		this.capability = capability;
+		this.file = file;
+	}
+	
 	/**
 	 * Perform the export of items defined in the constructor. 
 	 * The preparation of the CSV data and writing to disk 
@@ -68,7 +84,9 @@ public class CSVExporter {
 	 * is provided if necessary.
 	 */
 	public void export() {
-		final CSVExportWorker worker = new CSVExportWorker(components, file);
+		final CSVExportWorker worker = capability != null ?
+				new CSVExportWorker(capability, file) :
+				new CSVExportWorker(components, file);
 		final ProgressMonitor monitor = new ProgressMonitor(component,
 				BundleAccess.BUNDLE.getString("csv_progress_message"), 
 				"", 0, 100);
@@ -79,6 +79,20 @@ public class CSVRenderer {
 	public CSVRenderer(AbstractComponent ac) {
 		this(Collections.singleton(ac));
 	}
+
+	/**
+	 * Create a renderer which will express CSV in the format 
+	 * given by a specific CSVExportCapability. This is used when 
+	 * a component offers more than one format for export.
+	 * 
+	 * @param capability the format and content to render
+	 */
+	public CSVRenderer(CSVExportCapability capability) {
+		if (capability == null) {
+			throw new IllegalArgumentException();
+		}
+		this.capability = capability;
+	}
 	
 	/**
 	 * Return a full CSV representation of all 
@@ -22,6 +22,7 @@
 package gov.nasa.arc.mct.csvexport.actions;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
 import gov.nasa.arc.mct.gui.ActionContext;
 import gov.nasa.arc.mct.gui.ContextAwareAction;
 import gov.nasa.arc.mct.gui.FileChooser;
@@ -36,6 +37,7 @@ import java.util.Collections;
 import java.util.List;
 
 import javax.swing.JFileChooser;
+import javax.swing.JOptionPane;
 
 /**
  * Represents the "Export > CSV" action, used to output 
@@ -84,11 +86,41 @@ public abstract class ExportCSVAction extends ContextAwareAction {
 		if (targets != null) {
 			Object src = e.getSource();
 			Component c = (src instanceof Component) ? (Component) src : null;
-			File file = selectFile(c);
-			if (file != null) {
-				new CSVExporter(c, targets, file).export();
+			List<CSVExportCapability> formats = getFormats();
+			if (formats.size() > 1) {
+				// Component offers several formats; let the user pick one
+				CSVExportCapability format = selectFormat(c, formats);
+				File file = format != null ? selectFile(c) : null;
+				if (file != null) {
+					new CSVExporter(c, format, file).export();
+				}
+			} else {
+				File file = selectFile(c);
+				if (file != null) {
+					new CSVExporter(c, targets, file).export();
+				}
+			}
+		}
+	}
+	
+	private List<CSVExportCapability> getFormats() {
+		if (targets.size() == 1) {
+			List<CSVExportCapability> formats = targets.iterator().next()
+					.getCapabilities(CSVExportCapability.class);
+			if (formats != null) {
+				return formats;
 			}
 		}
+		return Collections.emptyList();
+	}
+	
+	private CSVExportCapability selectFormat(Component source, List<CSVExportCapability> formats) {
+		Object[] options = formats.toArray();
+		Object selection = JOptionPane.showInputDialog(source, 
+				BundleAccess.BUNDLE.getString("csv_format_message"), 
+				BundleAccess.BUNDLE.getString("csv_chooser_title"), 
+				JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+		return (CSVExportCapability) selection;
 	}
 	
 	private File selectFile(Component source) {
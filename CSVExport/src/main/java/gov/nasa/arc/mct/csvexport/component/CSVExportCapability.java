@@ -25,6 +25,10 @@ package gov.nasa.arc.mct.csvexport.component;
 /**
  * Represents csvExport format and content associated with components.  
  * This can be exposed via the getCapability method of a component.
+ * A component which offers several formats may instead expose one 
+ * instance per format via getCapabilities; in this case, the user 
+ * chooses among them (each is labelled using its toString method), 
+ * so instances should defer any expensive work until first used.
  * 
  * @author jdong
  *
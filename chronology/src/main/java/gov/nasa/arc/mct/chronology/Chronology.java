@@ -28,7 +28,9 @@ public interface Chronology<T extends ChronologicalInstant> {
 	public ChronologyDomain<T>         getDomain();
 	
 	/**
-	 * Get all events contained within this chronology. 
+	 * Get all events contained within this chronology. Events should be 
+	 * ordered by start, as views search them fastest that way; events in 
+	 * another order are still permitted.
 	 * 
 	 * @return a list of all events in the chronology
 	 */
@@ -0,0 +1,300 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ChronologySummary describes how events are distributed over time, at several
+ * levels of detail, so that views may show dense chronologies without visiting
+ * every event.
+ *
+ * A reference interval is divided into buckets at power-of-two scales: level 0
+ * has a single bucket spanning the whole interval, level 1 has two, and so on,
+ * down to the finest level. Each bucket records the number of events starting
+ * within it, as well as the first and last of those events. Events starting
+ * outside of the reference interval are not summarized.
+ *
+ * Summaries are maintained incrementally; adding or removing an event updates
+ * one bucket at each level.
+ *
+ * @param <T> the type of object which would describe a point within the summarized domain
+ */
+public class ChronologySummary<T extends ChronologicalInstant> {
+	/**
+	 * The default number of levels below the coarsest; the finest level
+	 * then has 65536 buckets.
+	 */
+	public static final int DEFAULT_DEPTH = 16;
+
+	private final ChronologyDomain<T>      domain;
+	private final ChronologicalInterval<T> reference;
+	private final int                      depth;
+
+	private final int[][]                     counts; // By level, then bucket
+	private final ChronologicalEvent<?>[][]   firsts;
+	private final ChronologicalEvent<?>[][]   lasts;
+	private final List<List<ChronologicalEvent<T>>> leaves; // Events in each finest bucket, by start
+	private final List<ChronologicalEvent<T>> outside = new ArrayList<ChronologicalEvent<T>>(); // Added, but not summarized
+
+	/**
+	 * Create an empty summary.
+	 * @param domain the domain in which events reside
+	 * @param reference the interval to summarize
+	 * @param depth the number of levels below the coarsest
+	 */
+	public ChronologySummary(ChronologyDomain<T> domain, ChronologicalInterval<T> reference, int depth) {
+		if (depth < 0 || depth > 24) {
+			throw new IllegalArgumentException("Summary depth must be between 0 and 24");
+		}
+		this.domain    = domain;
+		this.reference = reference;
+		this.depth     = depth;
+
+		counts = new int[depth + 1][];
+		firsts = new ChronologicalEvent<?>[depth + 1][];
+		lasts  = new ChronologicalEvent<?>[depth + 1][];
+		for (int level = 0; level <= depth; level++) {
+			counts[level] = new int[1 << level];
+			firsts[level] = new ChronologicalEvent<?>[1 << level];
+			lasts [level] = new ChronologicalEvent<?>[1 << level];
+		}
+		leaves = new ArrayList<List<ChronologicalEvent<T>>>(1 << depth);
+		for (int i = 0; i < 1 << depth; i++) {
+			leaves.add(null);
+		}
+	}
+
+	/**
+	 * Create a summary of a chronology's events.
+	 * @param chronology the chronology to summarize
+	 * @param reference the interval to summarize
+	 */
+	public ChronologySummary(Chronology<T> chronology, ChronologicalInterval<T> reference) {
+		this(chronology.getDomain(), reference, DEFAULT_DEPTH);
+		for (ChronologicalEvent<T> event : chronology.getEvents()) {
+			add(event);
+		}
+	}
+
+	/**
+	 * Add an event to this summary.
+	 * @param event the event to add
+	 */
+	public void add(ChronologicalEvent<T> event) {
+		int leaf = getLeaf(event);
+		if (leaf < 0) {
+			outside.add(event);
+			return;
+		}
+		List<ChronologicalEvent<T>> events = leaves.get(leaf);
+		if (events == null) {
+			events = new ArrayList<ChronologicalEvent<T>>(4);
+			leaves.set(leaf, events);
+		}
+
+		// Keep events in order of start; insert after any which start at the same time
+		int low = 0;
+		int high = events.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (domain.getComparator().compare(events.get(mid).getStart(), event.getStart()) <= 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		events.add(low, event);
+		update(leaf);
+	}
+
+	/**
+	 * Remove an event from this summary.
+	 * @param event the event to remove
+	 * @return true if the event was found and removed; otherwise false
+	 */
+	public boolean remove(ChronologicalEvent<T> event) {
+		int leaf = getLeaf(event);
+		if (leaf < 0) {
+			return removeSame(outside, event);
+		}
+		List<ChronologicalEvent<T>> events = leaves.get(leaf);
+		if (events == null || !removeSame(events, event)) {
+			return false;
+		}
+		if (events.isEmpty()) {
+			leaves.set(leaf, null);
+		}
+		update(leaf);
+		return true;
+	}
+
+	/**
+	 * Get the number of levels below the coarsest.
+	 * @return the index of the finest level
+	 */
+	public int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Get the interval which this summary describes.
+	 * @return the reference interval
+	 */
+	public ChronologicalInterval<T> getReference() {
+		return reference;
+	}
+
+	/**
+	 * Get the number of buckets at a given level.
+	 * @param level the level of detail, from 0 (coarsest) to {@link #getDepth()} (finest)
+	 * @return the number of buckets at that level
+	 */
+	public int getBucketCount(int level) {
+		return 1 << level;
+	}
+
+	/**
+	 * Get the number of events summarized (those starting within the reference interval).
+	 * @return the number of events
+	 */
+	public int size() {
+		return counts[0][0];
+	}
+
+	/**
+	 * Get the number of events starting outside of the reference interval, which
+	 * have been added but are not summarized.
+	 * @return the number of events outside of the reference interval
+	 */
+	public int getOutsideCount() {
+		return outside.size();
+	}
+
+	/**
+	 * Get the number of events starting in a bucket.
+	 * @param level the level of detail
+	 * @param bucket the index of the bucket within that level
+	 * @return the number of events
+	 */
+	public int getCount(int level, int bucket) {
+		return counts[level][bucket];
+	}
+
+	/**
+	 * Get the earliest event starting in a bucket.
+	 * @param level the level of detail
+	 * @param bucket the index of the bucket within that level
+	 * @return the first event, or null if the bucket is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public ChronologicalEvent<T> getFirst(int level, int bucket) {
+		return (ChronologicalEvent<T>) firsts[level][bucket];
+	}
+
+	/**
+	 * Get the latest event starting in a bucket.
+	 * @param level the level of detail
+	 * @param bucket the index of the bucket within that level
+	 * @return the last event, or null if the bucket is empty
+	 */
+	@SuppressWarnings("unchecked")
+	public ChronologicalEvent<T> getLast(int level, int bucket) {
+		return (ChronologicalEvent<T>) lasts[level][bucket];
+	}
+
+	/**
+	 * Get the bucket containing a position.
+	 * @param level the level of detail
+	 * @param position the position, as a proportion of the reference interval
+	 * @return the index of the bucket, clamped to those at that level
+	 */
+	public int getBucket(int level, double position) {
+		int bucket = (int) Math.floor(position * (1 << level));
+		return Math.max(0, Math.min((1 << level) - 1, bucket));
+	}
+
+	/**
+	 * Choose the finest level at which buckets are at least a given size, when
+	 * some part of the reference interval is shown across some number of pixels.
+	 * @param span the part of the reference interval shown (as a proportion)
+	 * @param pixels the number of pixels across which that part is shown
+	 * @param minimumWidth the narrowest that a bucket should appear, in pixels
+	 * @return the finest level with buckets at least that wide
+	 */
+	public int getLevel(double span, int pixels, double minimumWidth) {
+		double buckets = pixels / (span * minimumWidth);
+		int level = 0;
+		while (level < depth && (1 << (level + 1)) <= buckets) {
+			level++;
+		}
+		return level;
+	}
+
+	/**
+	 * Count the events starting between two positions, to the precision
+	 * of the finest level (that is, counting all events in every finest
+	 * bucket which overlaps the given span).
+	 * @param low the start of the span, as a proportion of the reference interval
+	 * @param high the end of the span, as a proportion of the reference interval
+	 * @return the number of events starting in buckets overlapping the span
+	 */
+	public int getCount(double low, double high) {
+		if (high < 0.0 || low > 1.0 || high < low) {
+			return 0;
+		}
+		return count(0, 0, getBucket(depth, low), getBucket(depth, high));
+	}
+
+	private int count(int level, int bucket, int first, int last) {
+		int shift = depth - level;
+		int start = bucket << shift;
+		int end   = ((bucket + 1) << shift) - 1;
+		if (end < first || start > last || counts[level][bucket] == 0) {
+			return 0;
+		}
+		if (start >= first && end <= last) {
+			return counts[level][bucket];
+		}
+		return count(level + 1, 2 * bucket, first, last) +
+		       count(level + 1, 2 * bucket + 1, first, last);
+	}
+
+	private boolean removeSame(List<ChronologicalEvent<T>> events, ChronologicalEvent<T> event) {
+		for (int i = 0; i < events.size(); i++) {
+			if (events.get(i) == event) {
+				events.remove(i);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int getLeaf(ChronologicalEvent<T> event) {
+		double position = domain.locateBetween(event.getStart(), reference.getStart(), reference.getEnd());
+		if (!(position >= 0.0 && position <= 1.0)) {
+			return -1;
+		}
+		return getBucket(depth, position);
+	}
+
+	private void update(int leaf) {
+		List<ChronologicalEvent<T>> events = leaves.get(leaf);
+		counts[depth][leaf] = (events == null) ? 0 : events.size();
+		firsts[depth][leaf] = (events == null) ? null : events.get(0);
+		lasts [depth][leaf] = (events == null) ? null : events.get(events.size() - 1);
+
+		int bucket = leaf;
+		for (int level = depth - 1; level >= 0; level--) {
+			bucket >>>= 1;
+			int a = 2 * bucket;
+			int b = a + 1;
+			counts[level][bucket] = counts[level + 1][a] + counts[level + 1][b];
+			firsts[level][bucket] = (firsts[level + 1][a] != null) ? firsts[level + 1][a] : firsts[level + 1][b];
+			lasts [level][bucket] = (lasts [level + 1][b] != null) ? lasts [level + 1][b] : lasts [level + 1][a];
+		}
+	}
+}
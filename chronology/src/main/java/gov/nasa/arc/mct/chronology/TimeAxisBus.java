@@ -0,0 +1,180 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import javax.swing.Timer;
+
+/**
+ * A TimeAxisBus links the time axes of chronological views, so that moving one
+ * moves the others. Views publish changes to the visible span or to a cursor;
+ * changes are collected and delivered to subscribed views together, at most
+ * once per frame, so linked views each update (and repaint) once however
+ * many changes were published.
+ *
+ * Buses are intended for use from the Swing event dispatch thread. Listeners
+ * are held weakly, so views which are closed without unsubscribing are not
+ * retained; a subscriber must therefore keep its own reference to its listener.
+ *
+ * @param <T> the type of object which would describe a point within this bus's domain
+ */
+public class TimeAxisBus<T extends ChronologicalInstant> {
+	private static final int FRAME_DELAY = 1000 / 60;
+	private static final Map<ChronologyDomain<?>, TimeAxisBus<?>> BUSES =
+		new HashMap<ChronologyDomain<?>, TimeAxisBus<?>>();
+
+	private final ChronologyDomain<T> domain;
+	private final Set<TimeAxisListener<T>> listeners =
+		Collections.newSetFromMap(new WeakHashMap<TimeAxisListener<T>, Boolean>());
+	private final Timer frameTimer;
+
+	private ChronologicalInterval<T> span   = null;
+	private T                        cursor = null;
+	private Object  spanSource   = null; // Not notified of the span it published
+	private Object  cursorSource = null;
+	private boolean spanPending   = false;
+	private boolean cursorPending = false;
+
+	/**
+	 * Create a new, unshared bus. Most views should instead use the
+	 * bus shared by their domain; see {@link #getBus(ChronologyDomain)}.
+	 * @param domain the domain of the time axis
+	 */
+	public TimeAxisBus(ChronologyDomain<T> domain) {
+		this.domain = domain;
+		frameTimer = new Timer(FRAME_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				flush();
+			}
+		});
+		frameTimer.setRepeats(false);
+	}
+
+	/**
+	 * Get the bus shared by all views in the given domain.
+	 * @param domain the domain of the time axis
+	 * @return the bus for that domain
+	 */
+	@SuppressWarnings("unchecked")
+	public static synchronized <T extends ChronologicalInstant> TimeAxisBus<T> getBus(ChronologyDomain<T> domain) {
+		TimeAxisBus<T> bus = (TimeAxisBus<T>) BUSES.get(domain);
+		if (bus == null) {
+			bus = new TimeAxisBus<T>(domain);
+			BUSES.put(domain, bus);
+		}
+		return bus;
+	}
+
+	/**
+	 * Get the domain of the time axis shared on this bus.
+	 * @return the domain of this bus
+	 */
+	public ChronologyDomain<T> getDomain() {
+		return domain;
+	}
+
+	/**
+	 * Begin notifying a listener of changes.
+	 * @param listener the listener to notify
+	 */
+	public void subscribe(TimeAxisListener<T> listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * Stop notifying a listener of changes.
+	 * @param listener the listener to stop notifying
+	 */
+	public void unsubscribe(TimeAxisListener<T> listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Get the most recently published span.
+	 * @return the latest span, or null if none has been published
+	 */
+	public ChronologicalInterval<T> getSpan() {
+		return span;
+	}
+
+	/**
+	 * Get the most recently published cursor position.
+	 * @return the latest cursor, or null if none has been published
+	 */
+	public T getCursor() {
+		return cursor;
+	}
+
+	/**
+	 * Publish a change to the visible span of the time axis.
+	 * @param source the publisher, which will not itself be notified
+	 * @param span the new span
+	 */
+	public void publishSpan(Object source, ChronologicalInterval<T> span) {
+		if (!spanPending && this.span != null &&
+				domain.getComparator().compare(this.span.getStart(), span.getStart()) == 0 &&
+				domain.getComparator().compare(this.span.getEnd(), span.getEnd()) == 0) {
+			return; // Nothing has changed
+		}
+		this.span = span;
+		this.spanSource = source;
+		this.spanPending = true;
+		scheduleFrame();
+	}
+
+	/**
+	 * Publish a change to the cursor along the time axis.
+	 * @param source the publisher, which will not itself be notified
+	 * @param cursor the new cursor position
+	 */
+	public void publishCursor(Object source, T cursor) {
+		if (!cursorPending && this.cursor != null &&
+				domain.getComparator().compare(this.cursor, cursor) == 0) {
+			return; // Nothing has changed
+		}
+		this.cursor = cursor;
+		this.cursorSource = source;
+		this.cursorPending = true;
+		scheduleFrame();
+	}
+
+	/**
+	 * Deliver all pending changes to listeners now, rather than
+	 * waiting for the next frame.
+	 */
+	public void flush() {
+		frameTimer.stop();
+
+		// Listeners may publish in response, so take a snapshot first
+		List<TimeAxisListener<T>> targets = new ArrayList<TimeAxisListener<T>>(listeners);
+		boolean notifySpan   = spanPending;
+		boolean notifyCursor = cursorPending;
+		spanPending = cursorPending = false;
+
+		for (TimeAxisListener<T> listener : targets) {
+			if (notifySpan && listener != spanSource) {
+				listener.spanChanged(span);
+			}
+			if (notifyCursor && listener != cursorSource) {
+				listener.cursorChanged(cursor);
+			}
+		}
+	}
+
+	private void scheduleFrame() {
+		if (!frameTimer.isRunning()) {
+			frameTimer.start();
+		}
+	}
+}
@@ -0,0 +1,25 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+
+/**
+ * A TimeAxisListener is notified of changes published to a {@link TimeAxisBus}.
+ * Notifications are coalesced, so a listener sees only the latest span or cursor
+ * published within a frame, and is not notified of changes it published itself.
+ *
+ * @param <T> the type of object which would describe a point within the bus's domain
+ */
+public interface TimeAxisListener<T extends ChronologicalInstant> {
+	/**
+	 * Called when the visible span of the time axis has changed.
+	 * @param span the new span
+	 */
+	public void spanChanged(ChronologicalInterval<T> span);
+
+	/**
+	 * Called when the cursor along the time axis has moved.
+	 * @param cursor the new cursor position
+	 */
+	public void cursorChanged(T cursor);
+}
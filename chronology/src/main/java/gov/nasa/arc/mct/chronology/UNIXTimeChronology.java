@@ -0,0 +1,291 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+
+import javax.swing.JComponent;
+
+/**
+ * A chronology of UNIX time events which stores its events compactly: start and
+ * end times are kept in arrays of longs, and each event's payload (its event info)
+ * in a parallel array, ordered by start time. No event or instant objects are
+ * retained; ChronologicalEvents are created only as they are retrieved from the
+ * lists returned by {@link #getEvents()}, so that very large chronologies cost
+ * little more than their payloads.
+ *
+ * Events are most cheaply appended in order of start time; appending out of order
+ * is permitted but requires later events to be shifted. Lookups by interval are
+ * binary searches upon start time.
+ *
+ * Subclasses describe how payloads are represented. Events retrieved from this
+ * chronology are snapshots; they are not changed if this chronology changes.
+ *
+ * @param <P> the type of payload carried by each event
+ */
+public abstract class UNIXTimeChronology<P> implements Chronology<UNIXTimeInstant> {
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final Class<P> payloadClass;
+
+	private long[]   starts   = new long[INITIAL_CAPACITY];
+	private long[]   ends     = new long[INITIAL_CAPACITY];
+	private Object[] payloads = new Object[INITIAL_CAPACITY];
+	private int      size     = 0;
+	private int      shifts   = 0; // Changes which move existing events
+
+	/**
+	 * Create an empty chronology.
+	 * @param payloadClass the type of payload carried by events; only events whose
+	 *        event info is of this type may be added through {@link #add(ChronologicalEvent, UNIXTimeInstant)}
+	 */
+	public UNIXTimeChronology(Class<P> payloadClass) {
+		this.payloadClass = payloadClass;
+	}
+
+	/**
+	 * Get a user interface representation of an event.
+	 * @param payload the event's payload
+	 * @param start the start of the event, in milliseconds since UNIX epoch
+	 * @param end the end of the event, in milliseconds since UNIX epoch
+	 * @param preferredSize the preferred size for this representation (null if it is the event's choice)
+	 * @return a component representing the event
+	 */
+	protected abstract JComponent getRepresentation(P payload, long start, long end, Dimension preferredSize);
+
+	/**
+	 * Add an event, keeping events ordered by start time. Events which start at
+	 * the same time as others are placed after them. Appending events in order
+	 * of start time takes amortized constant time.
+	 * @param start the start of the event, in milliseconds since UNIX epoch
+	 * @param end the end of the event, in milliseconds since UNIX epoch
+	 * @param payload the event's payload
+	 */
+	public void append(long start, long end, P payload) {
+		if (end < start) {
+			throw new IllegalArgumentException("Event must not end before it starts");
+		}
+		if (size == starts.length) {
+			int capacity = starts.length + (starts.length >> 1) + 1;
+			starts   = Arrays.copyOf(starts,   capacity);
+			ends     = Arrays.copyOf(ends,     capacity);
+			payloads = Arrays.copyOf(payloads, capacity);
+		}
+
+		int index = size;
+		if (size > 0 && starts[size - 1] > start) {
+			index = indexAfter(start);
+			shifts++;
+			System.arraycopy(starts,   index, starts,   index + 1, size - index);
+			System.arraycopy(ends,     index, ends,     index + 1, size - index);
+			System.arraycopy(payloads, index, payloads, index + 1, size - index);
+		}
+		starts[index]   = start;
+		ends[index]     = end;
+		payloads[index] = payload;
+		size++;
+	}
+
+	/**
+	 * Get the number of events in this chronology.
+	 * @return the number of events
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the start of an event.
+	 * @param index the index of the event, in order of start time
+	 * @return the start of the event, in milliseconds since UNIX epoch
+	 */
+	public long getStart(int index) {
+		checkIndex(index);
+		return starts[index];
+	}
+
+	/**
+	 * Get the end of an event.
+	 * @param index the index of the event, in order of start time
+	 * @return the end of the event, in milliseconds since UNIX epoch
+	 */
+	public long getEnd(int index) {
+		checkIndex(index);
+		return ends[index];
+	}
+
+	/**
+	 * Get the payload of an event.
+	 * @param index the index of the event, in order of start time
+	 * @return the payload of the event
+	 */
+	public P getPayload(int index) {
+		checkIndex(index);
+		return payloadClass.cast(payloads[index]);
+	}
+
+	/**
+	 * Find the first event starting at or after a given time.
+	 * @param time the time, in milliseconds since UNIX epoch
+	 * @return the index of the first such event, or {@link #size()} if there is none
+	 */
+	public int indexOf(long time) {
+		int low  = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] < time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	@Override
+	public ChronologyDomain<UNIXTimeInstant> getDomain() {
+		return UNIXTimeInstant.DOMAIN;
+	}
+
+	@Override
+	public List<ChronologicalEvent<UNIXTimeInstant>> getEvents() {
+		return new EventList(null, 0, size);
+	}
+
+	@Override
+	public List<ChronologicalEvent<UNIXTimeInstant>> getEvents(
+			ChronologicalInterval<UNIXTimeInstant> interval) {
+		long low  = interval.getStart().getTimeMillis();
+		long high = interval.getEnd().getTimeMillis();
+
+		// Events starting within the interval are contiguous; of those, keep the ones ending within it
+		int first = indexOf(low);
+		int[] indices = new int[INITIAL_CAPACITY];
+		int count = 0;
+		for (int i = first; i < size && starts[i] <= high; i++) {
+			if (ends[i] <= high) {
+				if (count == indices.length) {
+					indices = Arrays.copyOf(indices, count * 2);
+				}
+				indices[count++] = i;
+			}
+		}
+		return new EventList(indices, 0, count);
+	}
+
+	@Override
+	public boolean isMutable() {
+		return true;
+	}
+
+	@Override
+	public boolean add(ChronologicalEvent<UNIXTimeInstant> event, UNIXTimeInstant start) {
+		Object info = event.getEventInfo();
+		if (!payloadClass.isInstance(info)) {
+			return false;
+		}
+		long duration = event.getEnd().getTimeMillis() - event.getStart().getTimeMillis();
+		append(start.getTimeMillis(), start.getTimeMillis() + duration, payloadClass.cast(info));
+		return true;
+	}
+
+	@Override
+	public boolean remove(ChronologicalEvent<UNIXTimeInstant> event) {
+		long   start = event.getStart().getTimeMillis();
+		Object info  = event.getEventInfo();
+		for (int i = indexOf(start); i < size && starts[i] == start; i++) {
+			if (payloads[i] == info) {
+				System.arraycopy(starts,   i + 1, starts,   i, size - i - 1);
+				System.arraycopy(ends,     i + 1, ends,     i, size - i - 1);
+				System.arraycopy(payloads, i + 1, payloads, i, size - i - 1);
+				payloads[--size] = null;
+				shifts++;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private int indexAfter(long time) {
+		int low  = 0;
+		int high = size;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= time) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+
+	/**
+	 * A list of some of this chronology's events, either a range of them or those
+	 * at the given indices. Events are created as they are retrieved. Appending in
+	 * order does not disturb the list; other changes move events, after which the
+	 * list fails, as the lists of java.util do.
+	 */
+	private class EventList extends AbstractList<ChronologicalEvent<UNIXTimeInstant>> implements RandomAccess {
+		private final int[] indices; // Null for a range
+		private final int   offset;
+		private final int   count;
+		private final int   expectedShifts = shifts;
+
+		public EventList(int[] indices, int offset, int count) {
+			this.indices = indices;
+			this.offset  = offset;
+			this.count   = count;
+		}
+
+		@Override
+		public ChronologicalEvent<UNIXTimeInstant> get(int i) {
+			if (i < 0 || i >= count) {
+				throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + count);
+			}
+			if (shifts != expectedShifts) {
+				throw new ConcurrentModificationException();
+			}
+			int index = (indices == null) ? offset + i : indices[i];
+			return new PackedEvent(starts[index], ends[index], payloadClass.cast(payloads[index]));
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+	}
+
+	private class PackedEvent extends ChronologicalEvent<UNIXTimeInstant> {
+		private P payload;
+
+		public PackedEvent(long start, long end, P payload) {
+			super(new UNIXTimeInstant(start), new UNIXTimeInstant(end));
+			this.payload = payload;
+		}
+
+		@Override
+		public Object getEventInfo() {
+			return payload;
+		}
+
+		@Override
+		public JComponent getRepresentation(Dimension preferredSize) {
+			return UNIXTimeChronology.this.getRepresentation(payload, getStart().getTimeMillis(), getEnd().getTimeMillis(), preferredSize);
+		}
+	}
+}
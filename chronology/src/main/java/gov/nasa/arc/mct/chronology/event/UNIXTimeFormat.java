@@ -0,0 +1,180 @@
+package gov.nasa.arc.mct.chronology.event;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * Formats and parses UNIX times in the form used by {@link UNIXTimeInstant}
+ * ("yyyy/DDD/HH:mm:ss", in UTC). Unlike a SimpleDateFormat, a UNIXTimeFormat
+ * is immutable and may be shared freely between threads.
+ *
+ * Calendar fields are found from a precomputed table of the days on which each
+ * year begins, and the date part of the most recently formatted day is cached,
+ * so formatting many times within a day does no calendar arithmetic at all.
+ *
+ * Times outside of the years 1583 through 9999 (that is, before the Gregorian
+ * calendar was in use, or with more than four digits of year), and text not
+ * in exactly the expected form, are instead handled by a SimpleDateFormat
+ * kept for each thread, so results always match those of a SimpleDateFormat
+ * using {@link UNIXTimeInstant#DATE_FORMAT_STRING}.
+ */
+public final class UNIXTimeFormat {
+	private static final long DAY_MILLIS = 24L * 60L * 60L * 1000L;
+	private static final int  MIN_YEAR   = 1583;
+	private static final int  MAX_YEAR   = 9999;
+	private static final int  LENGTH     = 17; // yyyy/DDD/HH:mm:ss
+	private static final int  PREFIX     = 9;  // yyyy/DDD/
+
+	// Day (since UNIX epoch) on which each year begins, from MIN_YEAR through MAX_YEAR + 1
+	private static final long[] YEAR_STARTS = new long[MAX_YEAR - MIN_YEAR + 2];
+	static {
+		long epoch = daysBefore(1970);
+		for (int i = 0; i < YEAR_STARTS.length; i++) {
+			YEAR_STARTS[i] = daysBefore(MIN_YEAR + i) - epoch;
+		}
+	}
+	private static final long MIN_MILLIS = YEAR_STARTS[0] * DAY_MILLIS;
+	private static final long MAX_MILLIS = YEAR_STARTS[YEAR_STARTS.length - 1] * DAY_MILLIS;
+
+	private static final ThreadLocal<DateFormat> FALLBACK = new ThreadLocal<DateFormat>() {
+		@Override
+		protected DateFormat initialValue() {
+			DateFormat format = new SimpleDateFormat(UNIXTimeInstant.DATE_FORMAT_STRING);
+			format.setTimeZone(TimeZone.getTimeZone("UTC"));
+			return format;
+		}
+	};
+
+	private volatile Day lastDay = new Day(0);
+
+	/**
+	 * Format a time.
+	 * @param millis the time, in milliseconds since UNIX epoch
+	 * @return the time, formatted as yyyy/DDD/HH:mm:ss
+	 */
+	public String format(long millis) {
+		if (millis < MIN_MILLIS || millis >= MAX_MILLIS) {
+			return FALLBACK.get().format(new Date(millis));
+		}
+
+		long day = millis / DAY_MILLIS;
+		int  ms  = (int) (millis % DAY_MILLIS);
+		if (ms < 0) {
+			day--;
+			ms += DAY_MILLIS;
+		}
+
+		Day d = lastDay;
+		if (d.day != day) {
+			d = new Day(day);
+			lastDay = d;
+		}
+
+		int seconds = ms / 1000;
+		char[] text = new char[LENGTH];
+		System.arraycopy(d.prefix, 0, text, 0, PREFIX);
+		putDigits(text,  9, seconds / 3600, 2);
+		text[11] = ':';
+		putDigits(text, 12, seconds / 60 % 60, 2);
+		text[14] = ':';
+		putDigits(text, 15, seconds % 60, 2);
+		return new String(text);
+	}
+
+	/**
+	 * Parse a time.
+	 * @param text the time, formatted as yyyy/DDD/HH:mm:ss
+	 * @return the time, in milliseconds since UNIX epoch
+	 * @throws ParseException if the text cannot be parsed as a time
+	 */
+	public long parse(String text) throws ParseException {
+		if (text.length() == LENGTH && isWellFormed(text)) {
+			int year    = getDigits(text,  0, 4);
+			int day     = getDigits(text,  5, 3);
+			int hours   = getDigits(text,  9, 2);
+			int minutes = getDigits(text, 12, 2);
+			int seconds = getDigits(text, 15, 2);
+			if (year >= MIN_YEAR && year <= MAX_YEAR && hours < 24 && minutes < 60 && seconds < 60) {
+				int index = year - MIN_YEAR;
+				if (day >= 1 && day <= YEAR_STARTS[index + 1] - YEAR_STARTS[index]) {
+					return (YEAR_STARTS[index] + day - 1) * DAY_MILLIS +
+					       ((hours * 60 + minutes) * 60 + seconds) * 1000L;
+				}
+			}
+		}
+		// Out of range fields are rolled over, as a lenient SimpleDateFormat would
+		return FALLBACK.get().parse(text).getTime();
+	}
+
+	private static boolean isWellFormed(String text) {
+		for (int i = 0; i < LENGTH; i++) {
+			char c = text.charAt(i);
+			switch (i) {
+			case 4:
+			case 8:
+				if (c != '/') return false;
+				break;
+			case 11:
+			case 14:
+				if (c != ':') return false;
+				break;
+			default:
+				if (c < '0' || c > '9') return false;
+			}
+		}
+		return true;
+	}
+
+	private static int getDigits(String text, int offset, int width) {
+		int value = 0;
+		for (int i = offset; i < offset + width; i++) {
+			value = value * 10 + (text.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	private static void putDigits(char[] text, int offset, int value, int width) {
+		for (int i = offset + width - 1; i >= offset; i--) {
+			text[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+	}
+
+	/* Days from the start of year 1 to the start of the given year (proleptic Gregorian) */
+	private static long daysBefore(int year) {
+		long y = year - 1;
+		return 365L * y + y / 4 - y / 100 + y / 400;
+	}
+
+	/**
+	 * The formatted date of a single day. Immutable, so that it may be
+	 * shared between threads by way of a volatile field.
+	 */
+	private static final class Day {
+		final long   day;
+		final char[] prefix = new char[PREFIX];
+
+		Day(long day) {
+			this.day = day;
+
+			// Find the last year beginning on or before this day
+			int low  = 0;
+			int high = YEAR_STARTS.length - 1;
+			while (low < high) {
+				int mid = (low + high + 1) >>> 1;
+				if (YEAR_STARTS[mid] <= day) {
+					low = mid;
+				} else {
+					high = mid - 1;
+				}
+			}
+			putDigits(prefix, 0, MIN_YEAR + low, 4);
+			prefix[4] = '/';
+			putDigits(prefix, 5, (int) (day - YEAR_STARTS[low]) + 1, 3);
+			prefix[8] = '/';
+		}
+	}
+}
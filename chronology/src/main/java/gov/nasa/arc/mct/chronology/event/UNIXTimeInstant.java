@@ -7,12 +7,17 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.List;
 import java.util.TimeZone;
 
 public class UNIXTimeInstant implements ChronologicalInstant {
 	public static final String     DATE_FORMAT_STRING = "yyyy/DDD/HH:mm:ss";
+	public static final UNIXTimeFormat FORMAT = new UNIXTimeFormat();
+	
+	/**
+	 * @deprecated not thread-safe; use {@link #FORMAT} instead
+	 */
+	@Deprecated
 	public static final DateFormat DATE_FORMAT = new SimpleDateFormat(DATE_FORMAT_STRING);
 	static { DATE_FORMAT.setTimeZone(TimeZone.getTimeZone("UTC")); }
 	
@@ -42,7 +47,7 @@ public class UNIXTimeInstant implements ChronologicalInstant {
 	}
 	
 	public String toString() {
-		return DATE_FORMAT.format(new Date(timeMillis));
+		return FORMAT.format(timeMillis);
 	}
 	
 	@Override
@@ -70,7 +75,7 @@ public class UNIXTimeInstant implements ChronologicalInstant {
 			@Override
 			public UNIXTimeInstant convertToInstant(String instant)
 					throws ParseException {
-				return new UNIXTimeInstant(DATE_FORMAT.parse(instant).getTime());
+				return new UNIXTimeInstant(FORMAT.parse(instant));
 			}
 
 			@Override
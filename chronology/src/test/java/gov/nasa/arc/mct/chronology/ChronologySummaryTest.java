@@ -0,0 +1,67 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+
+import javax.swing.JComponent;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ChronologySummaryTest {
+	private static final ChronologicalInterval<UNIXTimeInstant> REFERENCE = 
+		new ChronologicalInterval<UNIXTimeInstant>(new UNIXTimeInstant(0), new UNIXTimeInstant(1000));
+	
+	@Test
+	public void testRemove() {
+		ChronologySummary<UNIXTimeInstant> summary = makeSummary();
+		ChronologicalEvent<UNIXTimeInstant> inside = new TestEvent(500);
+		summary.add(inside);
+		
+		Assert.assertFalse(summary.remove(new TestEvent(500)));
+		Assert.assertTrue(summary.remove(inside));
+		Assert.assertFalse(summary.remove(inside));
+		Assert.assertEquals(summary.size(), 0);
+	}
+	
+	@Test
+	public void testRemoveOutside() {
+		ChronologySummary<UNIXTimeInstant> summary = makeSummary();
+		ChronologicalEvent<UNIXTimeInstant> before = new TestEvent(-500);
+		summary.add(before);
+		Assert.assertEquals(summary.getOutsideCount(), 1);
+		Assert.assertEquals(summary.size(), 0);
+		
+		// Only events which were added may be removed
+		Assert.assertFalse(summary.remove(new TestEvent(-500)));
+		Assert.assertFalse(summary.remove(new TestEvent(5000)));
+		Assert.assertEquals(summary.getOutsideCount(), 1);
+		
+		Assert.assertTrue(summary.remove(before));
+		Assert.assertFalse(summary.remove(before));
+		Assert.assertEquals(summary.getOutsideCount(), 0);
+	}
+	
+	private ChronologySummary<UNIXTimeInstant> makeSummary() {
+		return new ChronologySummary<UNIXTimeInstant>(UNIXTimeInstant.DOMAIN, REFERENCE, 4);
+	}
+	
+	private static class TestEvent extends ChronologicalEvent<UNIXTimeInstant> {
+		public TestEvent(long start) {
+			super(new UNIXTimeInstant(start), new UNIXTimeInstant(start));
+		}
+
+		@Override
+		public Object getEventInfo() {
+			return null;
+		}
+
+		@Override
+		public JComponent getRepresentation(Dimension preferredSize) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,191 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.swing.SwingUtilities;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Drives linked views through a time axis bus, without a display. Views are
+ * stood in for by listeners which record what they have been told.
+ */
+public class TimeAxisBusTest {
+	private static final ChronologyDomain<UNIXTimeInstant> DOMAIN = UNIXTimeInstant.DOMAIN;
+	
+	@BeforeClass
+	public void setup() {
+		System.setProperty("java.awt.headless", "true");
+	}
+	
+	@Test
+	public void testCoalescedSpans() {
+		TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		LinkedView a = new LinkedView(bus);
+		LinkedView b = new LinkedView(bus);
+		LinkedView c = new LinkedView(bus);
+		
+		// Scroll one view through several spans within a frame
+		for (int i = 0; i < 10; i++) {
+			a.scroll(1000 * i, 1000 * i + 5000);
+		}
+		bus.flush();
+		
+		Assert.assertEquals(a.spans.size(), 0); // Publisher is not notified
+		Assert.assertEquals(b.spans.size(), 1);
+		Assert.assertEquals(c.spans.size(), 1);
+		assertSpan(b.span, 9000, 14000);
+		assertSpan(c.span, 9000, 14000);
+		Assert.assertEquals(b.cursors.size(), 0);
+	}
+	
+	@Test
+	public void testLinkedViewsScrollTogether() {
+		TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		LinkedView a = new LinkedView(bus);
+		LinkedView b = new LinkedView(bus);
+		
+		a.scroll(0, 1000);
+		bus.flush();
+		assertSpan(b.span, 0, 1000);
+		
+		b.scroll(500, 1500);
+		bus.flush();
+		assertSpan(a.span, 500, 1500);
+		assertSpan(b.span, 500, 1500);
+		Assert.assertEquals(a.spans.size(), 1);
+		Assert.assertEquals(b.spans.size(), 1);
+		
+		// Nothing more to deliver
+		bus.flush();
+		Assert.assertEquals(a.spans.size(), 1);
+		Assert.assertEquals(b.spans.size(), 1);
+	}
+	
+	@Test
+	public void testUnchangedSpanIgnored() {
+		TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		LinkedView a = new LinkedView(bus);
+		LinkedView b = new LinkedView(bus);
+		
+		a.scroll(0, 1000);
+		bus.flush();
+		a.scroll(0, 1000);
+		bus.flush();
+		Assert.assertEquals(b.spans.size(), 1);
+	}
+	
+	@Test
+	public void testCursor() {
+		TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		LinkedView a = new LinkedView(bus);
+		LinkedView b = new LinkedView(bus);
+		
+		a.point(100);
+		a.point(200);
+		a.scroll(0, 1000);
+		bus.flush();
+		Assert.assertEquals(b.cursors.size(), 1);
+		Assert.assertEquals(b.cursor.getTimeMillis(), 200);
+		Assert.assertEquals(b.spans.size(), 1);
+		Assert.assertEquals(a.cursors.size(), 0);
+	}
+	
+	@Test
+	public void testUnsubscribe() {
+		TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		LinkedView a = new LinkedView(bus);
+		LinkedView b = new LinkedView(bus);
+		
+		bus.unsubscribe(b);
+		a.scroll(0, 1000);
+		bus.flush();
+		Assert.assertEquals(b.spans.size(), 0);
+		assertSpan(bus.getSpan(), 0, 1000);
+	}
+	
+	@Test
+	public void testDeliveredOncePerFrame() throws Exception {
+		final TimeAxisBus<UNIXTimeInstant> bus = new TimeAxisBus<UNIXTimeInstant>(DOMAIN);
+		final LinkedView a = new LinkedView(bus);
+		final LinkedView b = new LinkedView(bus);
+		
+		SwingUtilities.invokeAndWait(new Runnable() {
+			@Override
+			public void run() {
+				for (int i = 0; i < 10; i++) {
+					a.scroll(i, i + 1000);
+				}
+			}
+		});
+		
+		// Wait for the frame to be delivered
+		for (int i = 0; i < 100 && b.spans.isEmpty(); i++) {
+			Thread.sleep(10);
+			SwingUtilities.invokeAndWait(new Runnable() {
+				@Override
+				public void run() {
+				}
+			});
+		}
+		Assert.assertEquals(b.spans.size(), 1);
+		assertSpan(b.span, 9, 1009);
+	}
+	
+	@Test
+	public void testSharedBus() {
+		Assert.assertSame(TimeAxisBus.getBus(DOMAIN), TimeAxisBus.getBus(DOMAIN));
+		Assert.assertEquals(TimeAxisBus.getBus(DOMAIN).getDomain(), DOMAIN);
+	}
+	
+	private void assertSpan(ChronologicalInterval<UNIXTimeInstant> span, long start, long end) {
+		Assert.assertNotNull(span);
+		Assert.assertEquals(span.getStart().getTimeMillis(), start);
+		Assert.assertEquals(span.getEnd().getTimeMillis(), end);
+	}
+	
+	/**
+	 * Stands in for a chronology view linked to others.
+	 */
+	private static class LinkedView implements TimeAxisListener<UNIXTimeInstant> {
+		private TimeAxisBus<UNIXTimeInstant> bus;
+		private ChronologicalInterval<UNIXTimeInstant> span;
+		private UNIXTimeInstant cursor;
+		private List<ChronologicalInterval<UNIXTimeInstant>> spans = 
+			new ArrayList<ChronologicalInterval<UNIXTimeInstant>>();
+		private List<UNIXTimeInstant> cursors = new ArrayList<UNIXTimeInstant>();
+		
+		public LinkedView(TimeAxisBus<UNIXTimeInstant> bus) {
+			this.bus = bus;
+			bus.subscribe(this);
+		}
+		
+		public void scroll(long start, long end) {
+			span = new ChronologicalInterval<UNIXTimeInstant>(new UNIXTimeInstant(start), new UNIXTimeInstant(end));
+			bus.publishSpan(this, span);
+		}
+		
+		public void point(long time) {
+			cursor = new UNIXTimeInstant(time);
+			bus.publishCursor(this, cursor);
+		}
+
+		@Override
+		public void spanChanged(ChronologicalInterval<UNIXTimeInstant> span) {
+			this.span = span;
+			spans.add(span);
+		}
+
+		@Override
+		public void cursorChanged(UNIXTimeInstant cursor) {
+			this.cursor = cursor;
+			cursors.add(cursor);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class UNIXTimeChronologyTest {
+	private static final int EVENTS = 1000;
+
+	private UNIXTimeChronology<String> chronology;
+
+	@BeforeMethod
+	public void setup() {
+		chronology = new UNIXTimeChronology<String>(String.class) {
+			@Override
+			protected JComponent getRepresentation(String payload, long start, long end, Dimension preferredSize) {
+				return new JLabel(payload);
+			}
+		};
+	}
+
+	@Test
+	public void testAppendInOrder() {
+		for (int i = 0; i < EVENTS; i++) {
+			chronology.append(i * 10, i * 10 + 5, "Event " + i);
+		}
+		Assert.assertEquals(chronology.size(), EVENTS);
+
+		List<ChronologicalEvent<UNIXTimeInstant>> events = chronology.getEvents();
+		Assert.assertEquals(events.size(), EVENTS);
+		for (int i = 0; i < EVENTS; i++) {
+			ChronologicalEvent<UNIXTimeInstant> event = events.get(i);
+			Assert.assertEquals(event.getStart().getTimeMillis(), i * 10);
+			Assert.assertEquals(event.getEnd().getTimeMillis(), i * 10 + 5);
+			Assert.assertEquals(event.getEventInfo(), "Event " + i);
+			Assert.assertEquals(((JLabel) event.getRepresentation(null)).getText(), "Event " + i);
+		}
+	}
+
+	@Test
+	public void testAppendOutOfOrder() {
+		Random random = new Random(0);
+		for (int i = 0; i < EVENTS; i++) {
+			long start = random.nextInt(EVENTS * 10);
+			chronology.append(start, start + random.nextInt(100), Integer.toString(i));
+		}
+		for (int i = 1; i < chronology.size(); i++) {
+			Assert.assertTrue(chronology.getStart(i - 1) <= chronology.getStart(i));
+		}
+	}
+
+	@Test
+	public void testGetEventsInInterval() {
+		Random random = new Random(1);
+		List<long[]> reference = new ArrayList<long[]>();
+		for (int i = 0; i < EVENTS; i++) {
+			long start = random.nextInt(EVENTS * 10);
+			long end = start + random.nextInt(500);
+			chronology.append(start, end, Integer.toString(i));
+			reference.add(new long[] { start, end, i });
+		}
+
+		for (int trial = 0; trial < 100; trial++) {
+			long low  = random.nextInt(EVENTS * 10);
+			long high = low + random.nextInt(EVENTS * 5);
+			ChronologicalInterval<UNIXTimeInstant> interval = new ChronologicalInterval<UNIXTimeInstant>(
+					new UNIXTimeInstant(low), new UNIXTimeInstant(high));
+
+			int expected = 0;
+			for (long[] r : reference) {
+				if (r[0] >= low && r[1] <= high) expected++;
+			}
+			List<ChronologicalEvent<UNIXTimeInstant>> events = chronology.getEvents(interval);
+			Assert.assertEquals(events.size(), expected);
+			for (ChronologicalEvent<UNIXTimeInstant> event : events) {
+				Assert.assertTrue(UNIXTimeInstant.DOMAIN.contains(interval, event));
+				long[] r = reference.get(Integer.parseInt((String) event.getEventInfo()));
+				Assert.assertEquals(event.getStart().getTimeMillis(), r[0]);
+				Assert.assertEquals(event.getEnd().getTimeMillis(), r[1]);
+			}
+		}
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		chronology.append(100, 200, "a");
+		chronology.append(100, 150, "b");
+		chronology.append(300, 300, "c");
+
+		ChronologicalEvent<UNIXTimeInstant> b = chronology.getEvents().get(1);
+		Assert.assertEquals(b.getEventInfo(), "b");
+		Assert.assertTrue(chronology.add(b, new UNIXTimeInstant(1000)));
+		Assert.assertEquals(chronology.getEnd(3), 1050);
+
+		Assert.assertTrue(chronology.remove(b));
+		Assert.assertFalse(chronology.remove(b));
+		Assert.assertEquals(chronology.size(), 3);
+		Assert.assertEquals(chronology.getPayload(0), "a");
+		Assert.assertEquals(chronology.getPayload(1), "c");
+		Assert.assertEquals(chronology.getPayload(2), "b");
+
+		// Only payloads of the chronology's type may be added
+		ChronologicalEvent<UNIXTimeInstant> other = new ChronologicalEvent<UNIXTimeInstant>(
+				new UNIXTimeInstant(0), new UNIXTimeInstant(0)) {
+			@Override
+			public Object getEventInfo() {
+				return Integer.valueOf(0);
+			}
+
+			@Override
+			public JComponent getRepresentation(Dimension preferredSize) {
+				return null;
+			}
+		};
+		Assert.assertFalse(chronology.add(other, new UNIXTimeInstant(0)));
+	}
+
+	@Test
+	public void testListsAfterChanges() {
+		chronology.append(100, 100, "a");
+		List<ChronologicalEvent<UNIXTimeInstant>> events = chronology.getEvents();
+
+		chronology.append(200, 200, "b"); // In order; the list still holds
+		Assert.assertEquals(events.size(), 1);
+		Assert.assertEquals(events.get(0).getEventInfo(), "a");
+
+		chronology.append(0, 0, "c");     // Out of order; the list fails
+		try {
+			events.get(0);
+			Assert.fail("Expected ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// Expected
+		}
+	}
+}
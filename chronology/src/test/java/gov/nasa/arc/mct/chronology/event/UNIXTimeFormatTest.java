@@ -0,0 +1,114 @@
+package gov.nasa.arc.mct.chronology.event;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class UNIXTimeFormatTest {
+	private static final long DAY     = 24L * 60L * 60L * 1000L;
+	private static final int  THREADS = 8;
+	private static final int  TIMES   = 20000;
+
+	private static final long TEST_DATES[] = {  0l, -1l, 999l, 1000l, DAY - 1, DAY,
+		384584400000l,
+		-14182940000l,
+		17537915655000l,
+		951782400000l,   // 2000/060, leap day
+		253402300799000l, // 9999/365/23:59:59
+		253402300800000l, // 10000/001
+		-12219292800000l, // 1582/288, the first Gregorian day
+		-12219292800001l,
+		-62135596800000l  // 0001/001
+	};
+
+	private static DateFormat newReference() {
+		DateFormat format = new SimpleDateFormat(UNIXTimeInstant.DATE_FORMAT_STRING);
+		format.setTimeZone(TimeZone.getTimeZone("UTC"));
+		return format;
+	}
+
+	@Test
+	public void testFormat() throws ParseException {
+		DateFormat reference = newReference();
+		UNIXTimeFormat format = new UNIXTimeFormat();
+		for (long time : TEST_DATES) {
+			String expected = reference.format(new Date(time));
+			Assert.assertEquals(format.format(time), expected);
+			Assert.assertEquals(format.parse(expected), reference.parse(expected).getTime());
+		}
+	}
+
+	@Test
+	public void testParseLenient() throws ParseException {
+		DateFormat reference = newReference();
+		UNIXTimeFormat format = new UNIXTimeFormat();
+		String[] texts = { "2011/366/00:00:00", "2012/366/23:59:59", "2012/000/24:60:60",
+				"2012/5/3:4:5", "1500/100/12:00:00", "2012/100/12:00:00 and more" };
+		for (String text : texts) {
+			Assert.assertEquals(format.parse(text), reference.parse(text).getTime(), text);
+		}
+	}
+
+	@Test (expectedExceptions = {ParseException.class})
+	public void testParseException() throws ParseException {
+		new UNIXTimeFormat().parse("Not a date value.");
+	}
+
+	@Test
+	public void testConcurrentUse() throws Exception {
+		final UNIXTimeFormat format = new UNIXTimeFormat();
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+
+		for (int t = 0; t < THREADS; t++) {
+			final long seed = t;
+			results.add(executor.submit(new Callable<Integer>() {
+				@Override
+				public Integer call() throws Exception {
+					// Each thread checks against a reference of its own
+					DateFormat reference = newReference();
+					Random random = new Random(seed);
+					int checked = 0;
+					long time = random.nextLong() % (400L * 365L * DAY);
+					for (int i = 0; i < TIMES; i++) {
+						// Mostly nearby times (within the cached day), sometimes far ones
+						time = (random.nextInt(8) == 0) ?
+								random.nextLong() % (400L * 365L * DAY) :
+								time + random.nextInt(60000) - 30000;
+						time -= time % 1000;
+
+						String expected = reference.format(new Date(time));
+						String actual = format.format(time);
+						if (!expected.equals(actual)) {
+							throw new AssertionError("Formatted " + time + " as " + actual + ", not " + expected);
+						}
+						if (format.parse(actual) != time) {
+							throw new AssertionError("Parsed " + actual + " as " + format.parse(actual) + ", not " + time);
+						}
+						checked++;
+					}
+					return checked;
+				}
+			}));
+		}
+
+		int checked = 0;
+		for (Future<Integer> result : results) {
+			checked += result.get();
+		}
+		executor.shutdown();
+		Assert.assertEquals(checked, THREADS * TIMES);
+	}
+}
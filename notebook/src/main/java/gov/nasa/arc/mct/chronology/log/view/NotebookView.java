@@ -36,10 +36,8 @@ import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -57,7 +55,6 @@ import javax.swing.border.EmptyBorder;
 
 public class NotebookView extends View {
 	private static final long serialVersionUID = 1129569325053980669L;
-	private static final DateFormat DATE_FORMAT = UNIXTimeInstant.DATE_FORMAT;
 	private static final Color  HIGHLIGHT = new Color(250, 250, 220);
 	
 	private JPanel        dataEntryPanel = new JPanel();
@@ -490,7 +487,7 @@ public class NotebookView extends View {
 		
 		public EditableTimeLabel(LogEntry<? extends String> e) {
 			this.entry = e;
-			String time = DATE_FORMAT.format(new Date(entry.getEntryTime()));
+			String time = UNIXTimeInstant.FORMAT.format(entry.getEntryTime());
 			timeLabel.setText(time);
 			entryField.setText(time);
 			timeLabel.setFont(timeLabel.getFont().deriveFont(Font.ITALIC));
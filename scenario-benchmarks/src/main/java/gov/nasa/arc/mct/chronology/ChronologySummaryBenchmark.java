@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.chronology;
+
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures zooming across a dense chronology, as a timeline view does when 
+ * painting: visiting the buckets of a ChronologySummary at the level suited 
+ * to the zoom, compared with visiting every event in view. Also measures 
+ * keeping the summary up to date as events are added and removed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ChronologySummaryBenchmark {
+	private static final long DAY = 24L * 60L * 60L * 1000L;
+	private static final int WIDTH = 1200;     // Pixels across the view
+	private static final int BUCKET_WIDTH = 3; // Narrowest bucket drawn, in pixels
+	private static final int STEPS = 16;       // Views per pass across the chronology
+	
+	@Param({"1000000"})
+	public int events;
+	
+	@Param({"1", "64", "4096"})
+	public int zoom;
+	
+	private ChronologySummary<UNIXTimeInstant> summary;
+	private double[] starts; // Sorted positions, for visiting events directly
+	private BenchmarkEvent moved;
+	
+	@Setup
+	public void setup() {
+		ChronologicalInterval<UNIXTimeInstant> day = new ChronologicalInterval<UNIXTimeInstant>(
+				new UNIXTimeInstant(0), new UNIXTimeInstant(DAY));
+		summary = new ChronologySummary<UNIXTimeInstant>(
+				UNIXTimeInstant.DOMAIN, day, ChronologySummary.DEFAULT_DEPTH);
+		starts = new double[events];
+		
+		Random random = new Random(1969);
+		for (int i = 0; i < events; i++) {
+			long start = (long) (random.nextDouble() * DAY);
+			summary.add(new BenchmarkEvent(start));
+			starts[i] = (double) start / DAY;
+		}
+		Arrays.sort(starts);
+		moved = new BenchmarkEvent(DAY / 2);
+	}
+	
+	@Benchmark
+	public void zoomSummary(Blackhole blackhole) {
+		double span = 1.0 / zoom;
+		int level = summary.getLevel(span, WIDTH, BUCKET_WIDTH);
+		for (int step = 0; step < STEPS; step++) {
+			double low = (1.0 - span) * step / STEPS;
+			int last = summary.getBucket(level, low + span);
+			for (int bucket = summary.getBucket(level, low); bucket <= last; bucket++) {
+				if (summary.getCount(level, bucket) > 0) {
+					blackhole.consume(summary.getCount(level, bucket));
+					blackhole.consume(summary.getFirst(level, bucket));
+					blackhole.consume(summary.getLast(level, bucket));
+				}
+			}
+		}
+	}
+	
+	@Benchmark
+	public void zoomEvents(Blackhole blackhole) {
+		double span = 1.0 / zoom;
+		for (int step = 0; step < STEPS; step++) {
+			double low = (1.0 - span) * step / STEPS;
+			int i = Arrays.binarySearch(starts, low);
+			for (i = (i < 0) ? -i - 1 : i; i < starts.length && starts[i] <= low + span; i++) {
+				blackhole.consume(starts[i]);
+			}
+		}
+	}
+	
+	@Benchmark
+	public boolean addRemove() {
+		summary.add(moved);
+		return summary.remove(moved);
+	}
+	
+	private static class BenchmarkEvent extends ChronologicalEvent<UNIXTimeInstant> {
+		public BenchmarkEvent(long start) {
+			super(new UNIXTimeInstant(start), new UNIXTimeInstant(start));
+		}
+
+		@Override
+		public Object getEventInfo() {
+			return null;
+		}
+
+		@Override
+		public JComponent getRepresentation(Dimension preferredSize) {
+			return null;
+		}
+	}
+}
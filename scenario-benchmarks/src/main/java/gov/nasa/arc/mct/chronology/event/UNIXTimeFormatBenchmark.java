@@ -0,0 +1,120 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.chronology.event;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures formatting and parsing UNIX times with UNIXTimeFormat, compared 
+ * with the shared SimpleDateFormat (UNIXTimeInstant.DATE_FORMAT) which it 
+ * replaces. The shared format is not thread-safe, so it is locked here, as 
+ * a caller would have to do to use it from several threads; the threaded 
+ * benchmarks show the cost of that contention, as when a CSV export runs 
+ * alongside the notebook and timeline views.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class UNIXTimeFormatBenchmark {
+	private static final int  TIMES = 1024; // Must be a power of two
+	private static final long START = 1335830400000L; // 2012/122
+	
+	private final DateFormat shared = UNIXTimeInstant.DATE_FORMAT;
+	private final UNIXTimeFormat format = UNIXTimeInstant.FORMAT;
+	
+	private long[]   times = new long[TIMES];   // A few hours of times, in order
+	private String[] texts = new String[TIMES];
+	
+	@State(Scope.Thread)
+	public static class Cursor {
+		int next = 0;
+	}
+	
+	@Setup
+	public void setup() {
+		Random random = new Random(0);
+		long time = START;
+		for (int i = 0; i < TIMES; i++) {
+			time += random.nextInt(30000);
+			times[i] = time;
+			texts[i] = format.format(time);
+		}
+	}
+	
+	@Benchmark
+	public String formatShared(Cursor cursor) {
+		long time = times[cursor.next++ & (TIMES - 1)];
+		synchronized (shared) {
+			return shared.format(new Date(time));
+		}
+	}
+	
+	@Benchmark
+	public String formatUNIXTimeFormat(Cursor cursor) {
+		return format.format(times[cursor.next++ & (TIMES - 1)]);
+	}
+	
+	@Benchmark
+	public long parseShared(Cursor cursor) throws ParseException {
+		String text = texts[cursor.next++ & (TIMES - 1)];
+		synchronized (shared) {
+			return shared.parse(text).getTime();
+		}
+	}
+	
+	@Benchmark
+	public long parseUNIXTimeFormat(Cursor cursor) throws ParseException {
+		return format.parse(texts[cursor.next++ & (TIMES - 1)]);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public String formatSharedThreaded(Cursor cursor) {
+		return formatShared(cursor);
+	}
+	
+	@Benchmark
+	@Threads(4)
+	public String formatUNIXTimeFormatThreaded(Cursor cursor) {
+		return formatUNIXTimeFormat(cursor);
+	}
+}
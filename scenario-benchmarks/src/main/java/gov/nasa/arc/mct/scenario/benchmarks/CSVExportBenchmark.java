@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.benchmarks;
+
+import gov.nasa.arc.mct.scenario.component.ScenarioCSVExportCapability;
+import gov.nasa.arc.mct.scenario.component.TimelineComponent;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures CSV export of a timeline: gathering properties of every 
+ * component, then producing each row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class CSVExportBenchmark {
+	@Param({"100", "1000", "5000"})
+	public int activities;
+	
+	@Param({"1", "3"})
+	public int depth;
+	
+	private TimelineComponent timeline;
+	
+	@Setup
+	public void setup() {
+		timeline = new ScenarioGenerator(activities, depth).generate();
+	}
+	
+	@Benchmark
+	public void export(Blackhole blackhole) {
+		ScenarioCSVExportCapability csv = new ScenarioCSVExportCapability(timeline);
+		blackhole.consume(csv.getHeaders());
+		int rows = csv.getRowCount();
+		for (int row = 0; row < rows; row++) {
+			blackhole.consume(csv.getValue(row));
+		}
+	}
+}
@@ -0,0 +1,94 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.benchmarks;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.scenario.component.DurationCapability;
+import gov.nasa.arc.mct.scenario.component.DurationConstraintSystem;
+import gov.nasa.arc.mct.scenario.component.TimelineComponent;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures enforcement of duration constraints: the propagation of a 
+ * single change (as occurs repeatedly while dragging an activity) and 
+ * enforcement across the whole timeline (as occurs when it is opened).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class DurationConstraintBenchmark {
+	private static final long MINUTE = 60L * 1000L;
+	
+	@Param({"100", "1000", "5000"})
+	public int activities;
+	
+	@Param({"1", "3"})
+	public int depth;
+	
+	private DurationConstraintSystem constraints;
+	private DurationCapability moved;
+	private boolean forward = false;
+	
+	@Setup
+	public void setup() {
+		ScenarioGenerator generator = new ScenarioGenerator(activities, depth);
+		TimelineComponent timeline = generator.generate();
+		constraints = new DurationConstraintSystem(timeline);
+		
+		// Drag something from the middle of the timeline
+		List<AbstractComponent> generated = generator.getActivities();
+		moved = generated.get(generated.size() / 2).getCapability(DurationCapability.class);
+	}
+	
+	@Benchmark
+	public Set<AbstractComponent> change() {
+		// Nudge back and forth, so that the timeline stays the same size
+		forward = !forward;
+		long delta = forward ? MINUTE : -MINUTE;
+		moved.setStart(moved.getStart() + delta);
+		moved.setEnd(moved.getEnd() + delta);
+		return constraints.change(moved, forward ? 1 : -1);
+	}
+	
+	@Benchmark
+	public Set<AbstractComponent> changeAll() {
+		return constraints.changeAll();
+	}
+}
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.benchmarks;
+
+import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
+import gov.nasa.arc.mct.components.ModelStatePersistence;
+import gov.nasa.arc.mct.scenario.component.ActivityData;
+import gov.nasa.arc.mct.scenario.component.ActivityModelPersistence;
+import gov.nasa.arc.mct.scenario.component.ActivityModelRole;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures throughput of persisting Activity models, comparing the 
+ * StAX codec against the JAXB persistence it replaces. As in 
+ * ActivityComponent, a new persistence object is obtained for each 
+ * operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class ModelStatePersistenceBenchmark {
+	@Param({"stax", "jaxb"})
+	public String codec;
+	
+	private final AtomicReference<ActivityModelRole> model = 
+			new AtomicReference<ActivityModelRole>(new ActivityModelRole());
+	private String state;
+	
+	@Setup
+	public void setup() {
+		ActivityData data = model.get().getData();
+		data.setPower(125.0);
+		data.setComm(32.5);
+		data.setActivityType("Science");
+		data.setNotes("Acquire imagery of target & downlink during next pass");
+		data.setStartDate(new Date(1371056400000L));
+		data.setEndDate(new Date(1371060000000L));
+		data.setUrl("http://example.com/activities/science");
+		state = createPersistence().getModelState();
+	}
+	
+	@Benchmark
+	public String marshal() {
+		return createPersistence().getModelState();
+	}
+	
+	@Benchmark
+	public ActivityModelRole unmarshal() {
+		createPersistence().setModelState(state);
+		return model.get();
+	}
+	
+	private ModelStatePersistence createPersistence() {
+		if (codec.equals("jaxb")) {
+			return new JAXBModelStatePersistence<ActivityModelRole>() {
+				@Override
+				protected ActivityModelRole getStateToPersist() {
+					return model.get();
+				}
+
+				@Override
+				protected void setPersistentState(ActivityModelRole modelState) {
+					model.set(modelState);
+				}
+
+				@Override
+				protected Class<ActivityModelRole> getJAXBClass() {
+					return ActivityModelRole.class;
+				}
+			};
+		}
+		return new ActivityModelPersistence(model);
+	}
+}
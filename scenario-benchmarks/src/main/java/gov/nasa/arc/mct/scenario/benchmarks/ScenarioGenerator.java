@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.benchmarks;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.scenario.component.ActivityComponent;
+import gov.nasa.arc.mct.scenario.component.ActivityData;
+import gov.nasa.arc.mct.scenario.component.DecisionComponent;
+import gov.nasa.arc.mct.scenario.component.DecisionData;
+import gov.nasa.arc.mct.scenario.component.TimelineComponent;
+import gov.nasa.arc.mct.services.internal.component.ComponentInitializer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic timelines for benchmarking. A timeline holds a 
+ * sequence of top-level activities, each the root of a tree of nested 
+ * sub-activities; top-level activities are occasionally separated 
+ * by decisions. Generation is deterministic for a given seed.
+ */
+public class ScenarioGenerator {
+	private static final long MINUTE = 60L * 1000L;
+	private static final String[] TYPES = { "Science", "Maintenance", "Comms", "Transit" };
+	
+	private final int activityCount;
+	private final int depth;
+	private final int fanOut;
+	private final double decisionRate;
+	private final Random random;
+	private final List<AbstractComponent> activities = new ArrayList<AbstractComponent>();
+	private int nextId = 0;
+	
+	/**
+	 * Create a generator for timelines with the given number of activities, 
+	 * nested to the given depth. 
+	 * @param activityCount the total number of activities to generate
+	 * @param depth the number of levels of activities (1 means no nesting)
+	 * @param fanOut the number of sub-activities of each nested activity
+	 * @param decisionRate the probability of a decision after each top-level activity
+	 * @param seed the seed for random durations and costs
+	 */
+	public ScenarioGenerator(int activityCount, int depth, int fanOut, double decisionRate, long seed) {
+		this.activityCount = activityCount;
+		this.depth = Math.max(depth, 1);
+		this.fanOut = Math.max(fanOut, 1);
+		this.decisionRate = decisionRate;
+		this.random = new Random(seed);
+	}
+	
+	/**
+	 * Create a generator for timelines with the given number of activities, 
+	 * nested to the given depth, with three sub-activities per activity and 
+	 * a decision after every fifth top-level activity, on average.
+	 * @param activityCount the total number of activities to generate
+	 * @param depth the number of levels of activities (1 means no nesting)
+	 */
+	public ScenarioGenerator(int activityCount, int depth) {
+		this(activityCount, depth, 3, 0.2, 42L);
+	}
+	
+	/**
+	 * Generate a new timeline.
+	 * @return a timeline containing the generated activities
+	 */
+	public TimelineComponent generate() {
+		activities.clear();
+		TimelineComponent timeline = initialize(new TimelineComponent(), "Timeline");
+		
+		long time = 0;
+		List<AbstractComponent> children = new ArrayList<AbstractComponent>();
+		while (activities.size() < activityCount) {
+			long duration = (30 + random.nextInt(90)) * MINUTE * depth;
+			children.add(createActivity(time, time + duration, 1));
+			time += duration + random.nextInt(30) * MINUTE;
+			if (random.nextDouble() < decisionRate) {
+				children.add(createDecision(time, time + 10 * MINUTE));
+				time += 10 * MINUTE;
+			}
+		}
+		timeline.addDelegateComponents(children);
+		
+		return timeline;
+	}
+	
+	/**
+	 * Get all activities created during the most recent call to generate, 
+	 * in the order they were created (parents before children).
+	 * @return the generated activities
+	 */
+	public List<AbstractComponent> getActivities() {
+		return Collections.unmodifiableList(activities);
+	}
+	
+	private ActivityComponent createActivity(long start, long end, int level) {
+		ActivityComponent activity = initialize(new ActivityComponent(), "Activity " + activities.size());
+		activities.add(activity);
+		
+		ActivityData data = activity.getData();
+		data.setStart(start);
+		data.setEnd(end);
+		data.setPower(random.nextInt(20) * 10.0);
+		data.setComm(random.nextInt(10) * 8.0);
+		data.setActivityType(TYPES[random.nextInt(TYPES.length)]);
+		
+		// Divide this activity's time among sub-activities
+		if (level < depth) {
+			List<AbstractComponent> children = new ArrayList<AbstractComponent>();
+			long span = (end - start) / fanOut;
+			for (int i = 0; i < fanOut && activities.size() < activityCount; i++) {
+				long childStart = start + i * span;
+				long childEnd = childStart + span / 2 + random.nextInt((int) Math.max(span / 2, 1));
+				children.add(createActivity(childStart, Math.min(childEnd, end), level + 1));
+			}
+			activity.addDelegateComponents(children);
+		}
+		
+		return activity;
+	}
+	
+	private DecisionComponent createDecision(long start, long end) {
+		DecisionComponent decision = initialize(new DecisionComponent(), "Decision");
+		DecisionData data = decision.getData();
+		data.setStartDate(new Date(start));
+		data.setEndDate(new Date(end));
+		return decision;
+	}
+	
+	private <T extends AbstractComponent> T initialize(T component, String name) {
+		component.setDisplayName(name);
+		component.getCapability(ComponentInitializer.class).setId("benchmark-" + (nextId++));
+		return component;
+	}
+}
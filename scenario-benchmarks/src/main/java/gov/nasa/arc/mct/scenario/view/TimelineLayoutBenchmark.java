@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.scenario.benchmarks.ScenarioGenerator;
+import gov.nasa.arc.mct.scenario.component.DurationCapability;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures assignment of timeline activities to rows, both from 
+ * scratch (as when a timeline is opened) and after moving a single 
+ * activity (as occurs repeatedly while dragging). This exercises 
+ * the row packer used by TimelineLayout directly, as the layout 
+ * itself animates row changes on the Swing thread.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class TimelineLayoutBenchmark {
+	private static final long MINUTE = 60L * 1000L;
+	private static final List<TimelineRowPacker.Entry> NONE = Collections.emptyList();
+	
+	@Param({"100", "1000", "5000"})
+	public int activities;
+	
+	@Param({"1", "3"})
+	public int depth;
+	
+	private List<Span> spans = new ArrayList<Span>();
+	private TimelineRowPacker packer;
+	private Span moved;
+	private boolean forward = false;
+	
+	@Setup
+	public void setup() {
+		ScenarioGenerator generator = new ScenarioGenerator(activities, depth);
+		generator.generate();
+		int order = 0;
+		for (AbstractComponent activity : generator.getActivities()) {
+			DurationCapability dc = activity.getCapability(DurationCapability.class);
+			spans.add(new Span(dc.getStart(), dc.getEnd(), order++));
+		}
+		packer = pack();
+		moved = spans.get(spans.size() / 2);
+	}
+	
+	@Benchmark
+	public TimelineRowPacker pack() {
+		TimelineRowPacker p = new TimelineRowPacker();
+		for (Span span : spans) {
+			p.add(span);
+		}
+		p.pack(NONE);
+		return p;
+	}
+	
+	@Benchmark
+	public int repack() {
+		// Nudge back and forth, so that rows stay comparable
+		forward = !forward;
+		long delta = forward ? MINUTE : -MINUTE;
+		moved.start += delta;
+		moved.end += delta;
+		packer.moved(moved);
+		return packer.pack(NONE).size();
+	}
+	
+	private static class Span extends TimelineRowPacker.Entry {
+		private long start;
+		private long end;
+		
+		public Span(long start, long end, int order) {
+			this.start = start;
+			this.end = end;
+			this.order = order;
+		}
+
+		@Override
+		long getStart() {
+			return start;
+		}
+
+		@Override
+		long getEnd() {
+			return end;
+		}		
+	}
+}
@@ -22,7 +22,6 @@
 package gov.nasa.arc.mct.scenario.component;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
-import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
 import gov.nasa.arc.mct.components.ModelStatePersistence;
 import gov.nasa.arc.mct.components.ObjectManager;
 import gov.nasa.arc.mct.components.PropertyDescriptor;
@@ -34,7 +33,6 @@ import gov.nasa.arc.mct.services.component.ComponentTypeInfo;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -98,26 +96,7 @@ public class ActivityComponent extends CostFunctionComponent implements Duration
 			return capability.cast(new ScenarioCSVExportCapability(this));
 		}		
 		if (capability.isAssignableFrom(ModelStatePersistence.class)) {
-		    JAXBModelStatePersistence<ActivityModelRole> persistence = new JAXBModelStatePersistence<ActivityModelRole>() {
-
-				@Override
-				protected ActivityModelRole getStateToPersist() {
-					return model.get();
-				}
-
-				@Override
-				protected void setPersistentState(ActivityModelRole modelState) {
-					model.set(modelState);
-				}
-
-				@Override
-				protected Class<ActivityModelRole> getJAXBClass() {
-					return ActivityModelRole.class;
-				}
-		        
-			};
-			
-			return capability.cast(persistence);
+			return capability.cast(new ActivityModelPersistence(model));
 		}
 		return null;
 	}
@@ -216,12 +195,12 @@ public class ActivityComponent extends CostFunctionComponent implements Duration
 	
 	@Override
 	public long getStart() {
-		return getData().getStartTime().getTime();
+		return getData().getStart();
 	}
 
 	@Override
 	public long getEnd() {
-		return getData().getEndTime().getTime();
+		return getData().getEnd();
 	}	
 	
 	public void setType(String type) {
@@ -230,13 +209,12 @@ public class ActivityComponent extends CostFunctionComponent implements Duration
 
 	@Override
 	public void setStart(long start) {
-
-		getData().setStartDate(new Date(start > 0 ? start : 0));
+		getData().setStart(start > 0 ? start : 0);
 	}
 
 	@Override
 	public void setEnd(long end) {
-		getData().setEndDate(new Date(end > getStart() ? end : getStart()));
+		getData().setEnd(end > getStart() ? end : getStart());
 	}
 
 	
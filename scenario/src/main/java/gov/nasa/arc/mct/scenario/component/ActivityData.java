@@ -25,7 +25,10 @@ import java.util.Date;
 
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlTransient;
+import javax.xml.bind.annotation.XmlType;
 
 /**
  * Underlying model data for Activity components.
@@ -34,14 +37,19 @@ import javax.xml.bind.annotation.XmlRootElement;
  */
 @XmlRootElement
 @XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(propOrder = {"power", "comm", "type", "notes", "startDate", "endDate", "url", "procedureUrl"})
 public class ActivityData {
 
 	private double power;
 	private double comm;
 	private String type;
 	private String notes;
-	private Date startDate;
-	private Date endDate;
+	// Times are held as epoch milliseconds, but persisted as dates (omitted if never set)
+	private static final long UNSET = Long.MIN_VALUE;
+	@XmlTransient
+	private long start = UNSET;
+	@XmlTransient
+	private long end = UNSET;
 	private String url;
 	private String procedureUrl;
 	
@@ -63,13 +71,12 @@ public class ActivityData {
 	
 	public long getDurationTime()
 	{
-		return endDate.getTime() - startDate.getTime();
+		return getEnd() - getStart();
 	}
 	
 	public void setDurationTime(long duration)
 	{		
-		Date endDate = new Date(this.startDate.getTime() + duration);
-		this.endDate = endDate;
+		this.end = getStart() + duration;
 	}
 	
 	public String getActivityType() {
@@ -89,19 +96,81 @@ public class ActivityData {
 	}
 
 	public Date getStartTime() {
-		return startDate;
+		return start != UNSET ? new Date(start) : null;
 	}
 
 	public void setStartDate(Date startDate) {
-		this.startDate = startDate;
+		this.start = startDate != null ? startDate.getTime() : UNSET;
 	}
 
 	public Date getEndTime() {
-		return endDate;
+		return end != UNSET ? new Date(end) : null;
 	}
 
 	public void setEndDate(Date endDate) {
-		this.endDate = endDate;
+		this.end = endDate != null ? endDate.getTime() : UNSET;
+	}
+	
+	/**
+	 * Check whether a start time has been set for the activity.
+	 * @return true if a start time has been set
+	 */
+	public boolean hasStart() {
+		return start != UNSET;
+	}
+	
+	/**
+	 * Check whether an end time has been set for the activity.
+	 * @return true if an end time has been set
+	 */
+	public boolean hasEnd() {
+		return end != UNSET;
+	}
+	
+	/**
+	 * Get the start time of the activity, in milliseconds.
+	 * @return the start time, or 0 if none has been set
+	 */
+	public long getStart() {
+		return start != UNSET ? start : 0;
+	}
+	
+	/**
+	 * Set the start time of the activity, in milliseconds.
+	 * @param start the start time
+	 */
+	public void setStart(long start) {
+		this.start = start;
+	}
+
+	/**
+	 * Get the end time of the activity, in milliseconds.
+	 * @return the end time, or 0 if none has been set
+	 */
+	public long getEnd() {
+		return end != UNSET ? end : 0;
+	}
+
+	/**
+	 * Set the end time of the activity, in milliseconds.
+	 * @param end the end time
+	 */
+	public void setEnd(long end) {
+		this.end = end;
+	}
+	
+	// Persisted in place of start and end, keeping the XML the same as when they were Dates
+	// (null, and so omitted, if never set)
+	@XmlElement
+	@SuppressWarnings("unused")
+	private Date getStartDate() {
+		return getStartTime();
+	}
+
+	@XmlElement
+	@SuppressWarnings("unused")
+	private Date getEndDate() {
+		return getEndTime();
 	}
 	
 	public String getUrl() {
@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Persists the model of an Activity (or Scenario) in the same 
+ * form as JAXB would, that is:
+ * <code>&lt;activityModelRole&gt;&lt;data&gt;&lt;power&gt;...</code>
+ */
+public class ActivityModelPersistence extends StAXModelStatePersistence<ActivityModelRole> {
+	private final AtomicReference<ActivityModelRole> model;
+	
+	/**
+	 * Create persistence for the model held in the given reference.
+	 * @param model the reference to the component's model
+	 */
+	public ActivityModelPersistence(AtomicReference<ActivityModelRole> model) {
+		this.model = model;
+	}
+
+	@Override
+	protected ActivityModelRole getStateToPersist() {
+		return model.get();
+	}
+
+	@Override
+	protected void setPersistentState(ActivityModelRole modelState) {
+		model.set(modelState);
+	}
+
+	@Override
+	protected Class<ActivityModelRole> getJAXBClass() {
+		return ActivityModelRole.class;
+	}
+
+	@Override
+	protected void writeState(XMLStreamWriter writer, ActivityModelRole state) throws XMLStreamException {
+		ActivityData data = state.getData();
+		writer.writeStartElement("activityModelRole");
+		if (data != null) {
+			writer.writeStartElement("data");
+			writeElement(writer, "power", data.getPower());
+			writeElement(writer, "comm", data.getComm());
+			writeElement(writer, "type", nonEmpty(data.getActivityType()));
+			writeElement(writer, "notes", nonEmpty(data.getNotes()));
+			if (data.hasStart()) {
+				writeTimeElement(writer, "startDate", data.getStart());
+			}
+			if (data.hasEnd()) {
+				writeTimeElement(writer, "endDate", data.getEnd());
+			}
+			writeElement(writer, "url", nonEmpty(data.getUrl()));
+			writeElement(writer, "procedureUrl", nonEmpty(data.getProcedureUrl()));
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+	}
+
+	@Override
+	protected ActivityModelRole readState(XMLStreamReader reader) throws XMLStreamException {
+		expect(reader, "activityModelRole");
+		ActivityModelRole role = new ActivityModelRole();
+		while (nextElement(reader)) {
+			expect(reader, "data");
+			readData(reader, role.getData());
+		}
+		return role;
+	}
+	
+	private void readData(XMLStreamReader reader, ActivityData data) throws XMLStreamException {
+		while (nextElement(reader)) {
+			String name = reader.getLocalName();
+			if (name.equals("power")) {
+				data.setPower(readDouble(reader));
+			} else if (name.equals("comm")) {
+				data.setComm(readDouble(reader));
+			} else if (name.equals("type")) {
+				data.setActivityType(readString(reader));
+			} else if (name.equals("notes")) {
+				data.setNotes(readString(reader));
+			} else if (name.equals("startDate")) {
+				data.setStart(readTime(reader));
+			} else if (name.equals("endDate")) {
+				data.setEnd(readTime(reader));
+			} else if (name.equals("url")) {
+				data.setUrl(readString(reader));
+			} else if (name.equals("procedureUrl")) {
+				data.setProcedureUrl(readString(reader));
+			} else {
+				throw new XMLStreamException("Unexpected element " + name, reader.getLocation());
+			}
+		}
+	}
+	
+	// Activity data reports missing strings as empty; JAXB omits them
+	private String nonEmpty(String s) {
+		return s.isEmpty() ? null : s;
+	}
+}
@@ -21,7 +21,6 @@
  *******************************************************************************/
 package gov.nasa.arc.mct.scenario.component;
 
-import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
 import gov.nasa.arc.mct.components.ModelStatePersistence;
 import gov.nasa.arc.mct.components.PropertyDescriptor;
 import gov.nasa.arc.mct.components.PropertyDescriptor.VisualControlDescriptor;
@@ -67,25 +66,7 @@ public class ActivityTypeComponent extends CostFunctionComponent {
 	@Override
 	public <T> T handleGetCapability(Class<T> capability) {
 		if (capability.isAssignableFrom(ModelStatePersistence.class)) {
-			JAXBModelStatePersistence<ActivityTypeModel> persistence = 
-					new JAXBModelStatePersistence<ActivityTypeModel>() {
-				@Override
-				protected ActivityTypeModel getStateToPersist() {
-					return model.get();
-				}
-
-				@Override
-				protected void setPersistentState(ActivityTypeModel modelState) {
-					model.set(modelState);
-				}
-
-				@Override
-				protected Class<ActivityTypeModel> getJAXBClass() {
-					return ActivityTypeModel.class;
-				}
-			};
-
-			return capability.cast(persistence);
+			return capability.cast(new ActivityTypeModelPersistence(model));
 		}
 		return null;
 	}
@@ -0,0 +1,87 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Persists the model of an Activity Type in the same form as JAXB 
+ * would, that is: <code>&lt;activityTypeModel&gt;&lt;url&gt;...</code>
+ */
+public class ActivityTypeModelPersistence extends StAXModelStatePersistence<ActivityTypeModel> {
+	private final AtomicReference<ActivityTypeModel> model;
+	
+	/**
+	 * Create persistence for the model held in the given reference.
+	 * @param model the reference to the component's model
+	 */
+	public ActivityTypeModelPersistence(AtomicReference<ActivityTypeModel> model) {
+		this.model = model;
+	}
+
+	@Override
+	protected ActivityTypeModel getStateToPersist() {
+		return model.get();
+	}
+
+	@Override
+	protected void setPersistentState(ActivityTypeModel modelState) {
+		model.set(modelState);
+	}
+
+	@Override
+	protected Class<ActivityTypeModel> getJAXBClass() {
+		return ActivityTypeModel.class;
+	}
+
+	@Override
+	protected void writeState(XMLStreamWriter writer, ActivityTypeModel state) throws XMLStreamException {
+		writer.writeStartElement("activityTypeModel");
+		writeElement(writer, "url", state.getUrl());
+		writeElement(writer, "power", state.getPower());
+		writeElement(writer, "comms", state.getComms());
+		writer.writeEndElement();
+	}
+
+	@Override
+	protected ActivityTypeModel readState(XMLStreamReader reader) throws XMLStreamException {
+		expect(reader, "activityTypeModel");
+		ActivityTypeModel model = new ActivityTypeModel();
+		while (nextElement(reader)) {
+			String name = reader.getLocalName();
+			if (name.equals("url")) {
+				model.setUrl(readString(reader));
+			} else if (name.equals("power")) {
+				model.setPower(readDouble(reader));
+			} else if (name.equals("comms")) {
+				model.setComms(readDouble(reader));
+			} else {
+				throw new XMLStreamException("Unexpected element " + name, reader.getLocation());
+			}
+		}
+		return model;
+	}
+}
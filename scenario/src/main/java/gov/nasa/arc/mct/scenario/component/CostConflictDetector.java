@@ -0,0 +1,496 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the intervals during which a named cost (as aggregated from 
+ * the cost functions of all activities beneath some component) exceeds 
+ * a cap, such as a mission's power or comms budget.
+ * 
+ * Every cost function is treated as a series of steps; the steps 
+ * of all activities are swept once, in time order, to build a 
+ * profile of each cost over time. Afterward, changes to individual 
+ * activities (for instance, while the user drags them around a 
+ * timeline) are applied via update, which only revisits the 
+ * time spans those activities covered before and after the change.
+ * 
+ * This should be used from a single thread (typically the Swing thread.)
+ */
+public class CostConflictDetector {
+	private static final Logger LOGGER = LoggerFactory.getLogger(CostConflictDetector.class);
+	
+	/**
+	 * Prefix of the system properties which set caps; the rest of each 
+	 * property name is the name of the cost, i.e. 
+	 * -Dscenario.cost.cap.Power=1000
+	 */
+	public static final String CAP_PREFIX = "scenario.cost.cap.";
+	
+	private final Map<String, Double> caps;
+	private final Map<String, CostProfile> profiles = new HashMap<String, CostProfile>();
+	private final Map<String, Contribution> contributions = new HashMap<String, Contribution>();
+	
+	/**
+	 * Create a conflict detector for all costs beneath a component, 
+	 * using caps as configured for the scenario plugin.
+	 * @param root the component whose aggregate costs should be checked
+	 */
+	public CostConflictDetector(AbstractComponent root) {
+		this(root, getConfiguredCaps());
+	}
+	
+	/**
+	 * Create a conflict detector for all costs beneath a component.
+	 * @param root the component whose aggregate costs should be checked
+	 * @param caps the maximum acceptable value for each cost, by name
+	 */
+	public CostConflictDetector(AbstractComponent root, Map<String, Double> caps) {
+		this.caps = new HashMap<String, Double>(caps);
+		
+		// Find all contributing cost functions, the same way aggregate costs do
+		visit(root, new HashSet<String>());
+		
+		// Sweep all steps once, in time order
+		Map<String, List<Step>> steps = new HashMap<String, List<Step>>();
+		for (Contribution contribution : contributions.values()) {
+			for (Step step : contribution.steps) {
+				List<Step> list = steps.get(step.name);
+				if (list == null) {
+					list = new ArrayList<Step>();
+					steps.put(step.name, list);
+				}
+				list.add(step.scale(contribution.count));
+			}
+		}
+		for (Entry<String, List<Step>> entry : steps.entrySet()) {
+			getProfile(entry.getKey(), entry.getValue().get(0).units).sweep(entry.getValue());
+		}
+	}
+	
+	/**
+	 * Get the caps configured for the scenario plugin. These are given 
+	 * as system properties, named {@link #CAP_PREFIX} followed by the 
+	 * name of the cost. None are set by default.
+	 * @return the maximum acceptable value for each cost, by name
+	 */
+	public static Map<String, Double> getConfiguredCaps() {
+		Map<String, Double> caps = new HashMap<String, Double>();
+		Properties properties = System.getProperties();
+		for (String key : properties.stringPropertyNames()) {
+			if (key.startsWith(CAP_PREFIX)) {
+				try {
+					caps.put(key.substring(CAP_PREFIX.length()), 
+							Double.parseDouble(properties.getProperty(key).trim()));
+				} catch (NumberFormatException nfe) {
+					LOGGER.warn("Ignoring cost cap {} which is not a number: {}", key, properties.getProperty(key));
+				}
+			}
+		}
+		return caps;
+	}
+	
+	/**
+	 * Check whether any caps are configured for this detector.
+	 * @return true if there are caps to check against
+	 */
+	public boolean hasCaps() {
+		return !caps.isEmpty();
+	}
+	
+	/**
+	 * Re-examine the costs of a component whose start or end 
+	 * times (or cost values) have changed. Components which 
+	 * were not beneath the root when this detector was created 
+	 * are ignored.
+	 * @param component the component which has changed
+	 */
+	public void update(AbstractComponent component) {
+		Contribution contribution = contributions.get(component.getComponentId());
+		if (contribution != null) {
+			List<Step> oldSteps = contribution.steps;
+			contribution.steps = stepsFor(component);
+			for (Step step : oldSteps) {
+				Step removed = step.scale(-contribution.count);
+				getProfile(step.name, step.units).add(removed.start, removed.end, removed.value);
+			}
+			for (Step step : contribution.steps) {
+				Step added = step.scale(contribution.count);
+				getProfile(step.name, step.units).add(added.start, added.end, added.value);
+			}
+		}
+	}
+	
+	/**
+	 * Get all intervals during which some cost exceeds its cap.
+	 * @return all conflicts, ordered by start time
+	 */
+	public List<Conflict> getConflicts() {
+		return getConflicts(Long.MIN_VALUE, Long.MAX_VALUE);
+	}
+	
+	/**
+	 * Get intervals during which some cost exceeds its cap, 
+	 * overlapping the specified span of time.
+	 * @param start the start of the time span, in milliseconds
+	 * @param end the end of the time span, in milliseconds
+	 * @return conflicts overlapping that span, ordered by start time
+	 */
+	public List<Conflict> getConflicts(long start, long end) {
+		List<Conflict> result = new ArrayList<Conflict>();
+		for (CostProfile profile : profiles.values()) {
+			Long first = profile.conflicts.floorKey(start);
+			for (Conflict c : profile.conflicts.tailMap(first != null ? first : start, true).values()) {
+				if (c.getStart() > end) {
+					break;
+				}
+				if (c.getEnd() > start) {
+					result.add(c);
+				}
+			}
+		}
+		Collections.sort(result, CONFLICT_COMPARATOR);
+		return result;
+	}
+	
+	private CostProfile getProfile(String name, String units) {
+		CostProfile profile = profiles.get(name);
+		if (profile == null) {
+			profile = new CostProfile(name, units, caps.get(name));
+			profiles.put(name, profile);
+		}
+		return profile;
+	}
+	
+	// Mirrors CostFunctionComponent.handleGetCapabilities: costs are counted 
+	// once per path to a component, and collections are visited as well.
+	private void visit(AbstractComponent component, Set<String> path) {
+		String id = component.getComponentId();
+		if (path.contains(id)) {
+			return; // Don't continue down a cycle
+		}
+		path.add(id);
+		if (component instanceof CostFunctionComponent) {
+			Contribution contribution = contributions.get(id);
+			if (contribution == null) {
+				contribution = new Contribution(stepsFor(component));
+				contributions.put(id, contribution);
+			}
+			contribution.count++;
+		}
+		if (component instanceof CostFunctionComponent || !component.isLeaf()) {
+			for (AbstractComponent child : component.getComponents()) {
+				visit(child, path);
+			}
+		}
+		path.remove(id);
+	}
+	
+	private List<Step> stepsFor(AbstractComponent component) {
+		List<Step> steps = new ArrayList<Step>();
+		if (component instanceof CostFunctionComponent) {
+			for (CostFunctionCapability cost : ((CostFunctionComponent) component).getInternalCostFunctions()) {
+				String name = cost.getName();
+				String units = cost.getUnits();
+				TreeSet<Long> times = new TreeSet<Long>(cost.getChangeTimes());
+				if (times.isEmpty()) {
+					continue;
+				}
+				long previous = Long.MIN_VALUE;
+				double value = cost.getValue(times.first() - 1);
+				for (long time : times) {
+					if (value != 0 && time > previous) {
+						steps.add(new Step(name, units, previous, time, value));
+					}
+					previous = time;
+					value = cost.getValue(time);
+				}
+				if (value != 0) {
+					steps.add(new Step(name, units, previous, Long.MAX_VALUE, value));
+				}
+			}
+		}
+		return steps;
+	}
+	
+	/**
+	 * An interval during which some cost exceeds its cap.
+	 */
+	public static class Conflict {
+		private final String name;
+		private final String units;
+		private final long start;
+		private final long end;
+		private final double peak;
+		private final double cap;
+		
+		public Conflict(String name, String units, long start, long end, double peak, double cap) {
+			super();
+			this.name = name;
+			this.units = units;
+			this.start = start;
+			this.end = end;
+			this.peak = peak;
+			this.cap = cap;
+		}
+
+		/**
+		 * @return the name of the cost which exceeds its cap
+		 */
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return the units of the cost
+		 */
+		public String getUnits() {
+			return units;
+		}
+
+		/**
+		 * @return the time at which the cap is first exceeded, in milliseconds
+		 */
+		public long getStart() {
+			return start;
+		}
+
+		/**
+		 * @return the time at which the cost returns within its cap, in milliseconds
+		 */
+		public long getEnd() {
+			return end;
+		}
+
+		/**
+		 * @return the highest value of the cost during this interval
+		 */
+		public double getPeak() {
+			return peak;
+		}
+
+		/**
+		 * @return the cap which was exceeded
+		 */
+		public double getCap() {
+			return cap;
+		}
+	}
+	
+	private static final Comparator<Conflict> CONFLICT_COMPARATOR = new Comparator<Conflict>() {
+		@Override
+		public int compare(Conflict a, Conflict b) {
+			if (a.start != b.start) {
+				return a.start < b.start ? -1 : 1;
+			}
+			return a.name.compareTo(b.name);
+		}
+	};
+	
+	/**
+	 * A constant value of some cost over [start, end)
+	 */
+	private static class Step {
+		private final String name;
+		private final String units;
+		private final long start;
+		private final long end;
+		private final double value;
+		
+		public Step(String name, String units, long start, long end, double value) {
+			super();
+			this.name = name;
+			this.units = units;
+			this.start = start;
+			this.end = end;
+			this.value = value;
+		}
+		
+		public Step scale(int count) {
+			return new Step(name, units, start, end, value * count);
+		}
+	}
+	
+	/**
+	 * The steps contributed by one component, which may be 
+	 * counted more than once if it is reachable by more than one path.
+	 */
+	private static class Contribution {
+		private List<Step> steps;
+		private int count = 0;
+		
+		public Contribution(List<Step> steps) {
+			this.steps = steps;
+		}
+	}
+	
+	/**
+	 * The total of one named cost over time, along with the 
+	 * intervals during which it exceeds its cap.
+	 */
+	private static class CostProfile {
+		private final String name;
+		private final String units;
+		private final Double cap;
+		
+		// Total value from each time until the next; zero before the first
+		private final NavigableMap<Long, Double> levels = new TreeMap<Long, Double>();
+		private final NavigableMap<Long, Conflict> conflicts = new TreeMap<Long, Conflict>();
+		
+		public CostProfile(String name, String units, Double cap) {
+			this.name = name;
+			this.units = units;
+			this.cap = cap;
+		}
+		
+		/**
+		 * Build levels from scratch by sweeping over all steps in time order.
+		 */
+		public void sweep(List<Step> steps) {
+			TreeMap<Long, Double> deltas = new TreeMap<Long, Double>();
+			for (Step step : steps) {
+				addDelta(deltas, step.start, step.value);
+				if (step.end != Long.MAX_VALUE) {
+					addDelta(deltas, step.end, -step.value);
+				}
+			}
+			double level = 0;
+			for (Entry<Long, Double> delta : deltas.entrySet()) {
+				level += delta.getValue();
+				levels.put(delta.getKey(), level);
+			}
+			findConflicts(Long.MIN_VALUE, Long.MAX_VALUE);
+		}
+		
+		private static void addDelta(Map<Long, Double> deltas, long time, double delta) {
+			Double current = deltas.get(time);
+			deltas.put(time, current != null ? current + delta : delta);
+		}
+		
+		/**
+		 * Add a value to this cost over [start, end), updating 
+		 * conflicts within that span.
+		 */
+		public void add(long start, long end, double value) {
+			split(start);
+			split(end);
+			for (Entry<Long, Double> level : levels.subMap(start, true, end, false).entrySet()) {
+				level.setValue(level.getValue() + value);
+			}
+			merge(start, end);
+			findConflicts(start, end);
+		}
+		
+		// Remove levels in [start, end] which no longer change the total, 
+		// so that repeated changes (dragging) do not accumulate levels
+		private void merge(long start, long end) {
+			Entry<Long, Double> lower = levels.lowerEntry(start);
+			double previous = lower != null ? lower.getValue() : 0.0;
+			Iterator<Double> iter = levels.subMap(start, true, end, true).values().iterator();
+			while (iter.hasNext()) {
+				double value = iter.next();
+				if (value == previous) {
+					iter.remove();
+				}
+				previous = value;
+			}
+		}
+		
+		// Make sure there is a level beginning exactly at this time
+		private void split(long time) {
+			if (time != Long.MAX_VALUE && !levels.containsKey(time)) {
+				Entry<Long, Double> floor = levels.floorEntry(time);
+				levels.put(time, floor != null ? floor.getValue() : 0.0);
+			}
+		}
+		
+		/**
+		 * Recompute conflicts for a span of time, including any 
+		 * conflicts which overlap it (these may have grown, shrunk, 
+		 * split, or merged.)
+		 */
+		private void findConflicts(long start, long end) {
+			if (cap == null) {
+				return;
+			}
+			
+			// Widen to cover conflicts which touch the span
+			Entry<Long, Conflict> before = conflicts.floorEntry(start);
+			if (before != null && before.getValue().getEnd() >= start) {
+				start = before.getKey();
+			}
+			Entry<Long, Conflict> last = conflicts.floorEntry(end);
+			if (last != null && last.getValue().getEnd() > end) {
+				end = last.getValue().getEnd();
+			}
+			conflicts.subMap(start, true, end, true).clear();
+			
+			// Begin from the level in effect at the start of the span
+			Long first = levels.floorKey(start);
+			long conflictStart = 0;
+			double peak = 0;
+			boolean inConflict = false;
+			for (Entry<Long, Double> level : levels.tailMap(first != null ? first : start, true).entrySet()) {
+				long time = level.getKey();
+				double value = level.getValue();
+				if (value > cap) {
+					if (!inConflict) {
+						inConflict = true;
+						conflictStart = Math.max(time, start);
+						peak = value;
+					}
+					peak = Math.max(peak, value);
+				} else {
+					if (inConflict) {
+						inConflict = false;
+						conflicts.put(conflictStart, new Conflict(name, units, conflictStart, time, peak, cap));
+					}
+					if (time > end) {
+						break;
+					}
+				}
+			}
+			if (inConflict) {
+				conflicts.put(conflictStart, new Conflict(name, units, conflictStart, Long.MAX_VALUE, peak, cap));
+			}
+		}
+	}
+}
@@ -185,8 +185,9 @@ public abstract class CostFunctionComponent extends AbstractComponent {
 		@Override
 		public double getValue(long time) {
 			double sum = 0;
-			for (CostFunctionCapability c : costs) {
-				sum += c.getValue(time);
+			int sz = costs.size();
+			for (int i = 0; i < sz; i++) { // Avoid iterator allocation
+				sum += costs.get(i).getValue(time);
 			}
 			return sum;
 		}
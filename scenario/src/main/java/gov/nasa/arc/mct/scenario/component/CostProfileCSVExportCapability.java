@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
+import gov.nasa.arc.mct.scenario.util.DurationFormatter;
+
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ResourceBundle;
+
+/**
+ * Exports the cost profiles of a timeline or scenario (the Comms 
+ * and Power graphs, for instance) as CSV. Each row gives a time, 
+ * followed by the value of each cost at that time. Rows are 
+ * either taken at the times where any cost changes, or at a 
+ * fixed interval from the start of the timeline.
+ * 
+ * Rows are computed as they are requested, so memory use does 
+ * not grow with the length of the exported file; at most, the 
+ * change times of the costs are retained.
+ */
+public class CostProfileCSVExportCapability implements CSVExportCapability {
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
+	
+	/**
+	 * The interval used for resampled cost profiles, in milliseconds.
+	 */
+	static final long DEFAULT_INTERVAL = parseInterval(BUNDLE.getString("csv_cost_interval"));
+	
+	private AbstractComponent component;
+	private long interval;
+	
+	private List<CostFunctionCapability> costs;
+	private long[] times;
+	private int rowCount;
+
+	/**
+	 * Export cost profiles at each time where any cost changes.
+	 * @param component the component whose costs should be exported
+	 */
+	public CostProfileCSVExportCapability(AbstractComponent component) {
+		this(component, 0);
+	}
+
+	/**
+	 * Export cost profiles sampled at a fixed interval. If the 
+	 * interval is not positive, costs are instead exported at 
+	 * each time where they change.
+	 * @param component the component whose costs should be exported
+	 * @param interval the time between rows, in milliseconds
+	 */
+	public CostProfileCSVExportCapability(AbstractComponent component, long interval) {
+		super();
+		this.component = component;
+		this.interval = interval;
+	}
+
+	// Costs are aggregated from all descendants, so defer until used
+	private void assemble() {
+		if (costs == null) {
+			costs = component.getCapabilities(CostFunctionCapability.class);
+			
+			long end = 0;
+			DurationCapability dc = component.getCapability(DurationCapability.class);
+			if (dc != null) {
+				end = dc.getEnd();
+			}
+
+			if (interval > 0) {
+				rowCount = (int) Math.min(Integer.MAX_VALUE - 1, end / interval) + 1;
+			} else {
+				times = getChangeTimes();
+				rowCount = times.length;
+			}
+		}
+	}
+	
+	// Merge change times of all costs into a sorted array without duplicates
+	private long[] getChangeTimes() {
+		int count = 0;
+		for (CostFunctionCapability cost : costs) {
+			count += cost.getChangeTimes().size();
+		}
+		long[] all = new long[count];
+		int i = 0;
+		for (CostFunctionCapability cost : costs) {
+			for (Long time : cost.getChangeTimes()) {
+				all[i++] = time;
+			}
+		}
+		Arrays.sort(all, 0, i);
+		
+		int unique = 0;
+		for (int j = 0; j < i; j++) {
+			if (unique == 0 || all[j] != all[unique - 1]) {
+				all[unique++] = all[j];
+			}
+		}
+		return Arrays.copyOf(all, unique);
+	}
+	
+	@Override
+	public String[] getValue(int row) {
+		assemble();
+		long time = interval > 0 ? row * interval : times[row];
+		String[] value = new String[costs.size() + 1];
+		value[0] = DurationFormatter.formatDuration(time);
+		for (int i = 0; i < costs.size(); i++) {
+			value[i + 1] = Double.toString(costs.get(i).getValue(time));
+		}
+		return value;
+	}
+
+	@Override
+	public String[] getHeaders() {
+		assemble();
+		String[] headers = new String[costs.size() + 1];
+		headers[0] = BUNDLE.getString("csv_cost_time");
+		for (int i = 0; i < costs.size(); i++) {
+			CostFunctionCapability cost = costs.get(i);
+			headers[i + 1] = cost.getName() + " (" + cost.getUnits() + ")";
+		}
+		return headers;
+	}
+
+	@Override
+	public int getColumnCount() {
+		assemble();
+		return costs.size() + 1;
+	}
+
+	@Override
+	public int getRowCount() {
+		assemble();
+		return rowCount;
+	}
+	
+	@Override
+	public String toString() {
+		return interval > 0 ?
+				String.format(BUNDLE.getString("csv_format_cost_interval"), 
+						DurationFormatter.formatDuration(interval)) :
+				BUNDLE.getString("csv_format_cost_changes");
+	}
+
+	private static long parseInterval(String interval) {
+		try {
+			return DurationFormatter.parse(interval.trim());
+		} catch (ParseException e) {
+			return 0; // Fall back to change times
+		}
+	}
+}
@@ -22,7 +22,6 @@
 package gov.nasa.arc.mct.scenario.component;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
-import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
 import gov.nasa.arc.mct.components.ModelStatePersistence;
 import gov.nasa.arc.mct.components.PropertyDescriptor;
 import gov.nasa.arc.mct.components.PropertyDescriptor.VisualControlDescriptor;
@@ -61,26 +60,7 @@ public class DecisionComponent extends AbstractComponent implements DurationCapa
 			return capability.cast(this);
 		}
 		if (capability.isAssignableFrom(ModelStatePersistence.class)) {
-		    JAXBModelStatePersistence<DecisionModelRole> persistence = new JAXBModelStatePersistence<DecisionModelRole>() {
-
-				@Override
-				protected DecisionModelRole getStateToPersist() {
-					return model.get();
-				}
-
-				@Override
-				protected void setPersistentState(DecisionModelRole modelState) {
-					model.set(modelState);
-				}
-
-				@Override
-				protected Class<DecisionModelRole> getJAXBClass() {
-					return DecisionModelRole.class;
-				}
-		        
-			};
-			
-			return capability.cast(persistence);
+			return capability.cast(new DecisionModelPersistence(model));
 		}
 		return null;
 	}
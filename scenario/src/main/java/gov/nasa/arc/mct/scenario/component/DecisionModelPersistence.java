@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Persists the model of a Decision in the same form as JAXB would, 
+ * that is: <code>&lt;decisionModelRole&gt;&lt;data&gt;&lt;startDate&gt;...</code>
+ */
+public class DecisionModelPersistence extends StAXModelStatePersistence<DecisionModelRole> {
+	private final AtomicReference<DecisionModelRole> model;
+	
+	/**
+	 * Create persistence for the model held in the given reference.
+	 * @param model the reference to the component's model
+	 */
+	public DecisionModelPersistence(AtomicReference<DecisionModelRole> model) {
+		this.model = model;
+	}
+
+	@Override
+	protected DecisionModelRole getStateToPersist() {
+		return model.get();
+	}
+
+	@Override
+	protected void setPersistentState(DecisionModelRole modelState) {
+		model.set(modelState);
+	}
+
+	@Override
+	protected Class<DecisionModelRole> getJAXBClass() {
+		return DecisionModelRole.class;
+	}
+
+	@Override
+	protected void writeState(XMLStreamWriter writer, DecisionModelRole state) throws XMLStreamException {
+		DecisionData data = state.getData();
+		writer.writeStartElement("decisionModelRole");
+		if (data != null) {
+			writer.writeStartElement("data");
+			writeElement(writer, "startDate", data.getStartTime());
+			writeElement(writer, "endDate", data.getEndTime());
+			writeElement(writer, "notes", data.getNotes().isEmpty() ? null : data.getNotes());
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+	}
+
+	@Override
+	protected DecisionModelRole readState(XMLStreamReader reader) throws XMLStreamException {
+		expect(reader, "decisionModelRole");
+		DecisionModelRole role = new DecisionModelRole();
+		while (nextElement(reader)) {
+			expect(reader, "data");
+			DecisionData data = role.getData();
+			while (nextElement(reader)) {
+				String name = reader.getLocalName();
+				if (name.equals("startDate")) {
+					data.setStartDate(readDate(reader));
+				} else if (name.equals("endDate")) {
+					data.setEndDate(readDate(reader));
+				} else if (name.equals("notes")) {
+					data.setNotes(readString(reader));
+				} else {
+					throw new XMLStreamException("Unexpected element " + name, reader.getLocation());
+				}
+			}
+		}
+		return role;
+	}
+}
@@ -30,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 /**
@@ -52,6 +53,11 @@ public class DurationConstraintSystem {
 	private Map<DurationCapability, DurationEdge[]> edges =
 			new HashMap<DurationCapability, DurationEdge[]>();
 	
+	// Only populated for snapshots (see snapshot()); the order in which 
+	// changeAll visits durations, captured since snapshots do not 
+	// traverse the component graph.
+	private List<DurationCapability> changeOrder = null;
+	
 			
 	/**
 	 * Create a new system of constraints around the specified component.
@@ -70,6 +76,101 @@ public class DurationConstraintSystem {
 		addConstraintsFor(root, new HashSet<String>());
 	}
 	
+	private DurationConstraintSystem() {
+		// Used to construct snapshots
+	}
+	
+	/**
+	 * Create a detached copy of this constraint system. The copy 
+	 * has the same constraints, but operates upon the start and 
+	 * end times of each duration as they were at the time of this 
+	 * call, rather than upon the durations themselves. Constraints 
+	 * may then be enforced upon the copy (via changeAll) from any 
+	 * thread without touching the component graph; the results 
+	 * may be applied to the real durations later using commit().
+	 * 
+	 * This should be invoked from the same thread which otherwise 
+	 * modifies these durations (typically the Swing thread.)
+	 * 
+	 * @return a detached snapshot of this constraint system
+	 */
+	public DurationConstraintSystem snapshot() {
+		DurationConstraintSystem copy = new DurationConstraintSystem();
+		Map<DurationCapability, DurationCapability> copies =
+				new HashMap<DurationCapability, DurationCapability>();
+		
+		copy.root = root;
+		for (Entry<DurationCapability, List<DurationConstraint>> entry : constraints.entrySet()) {
+			for (DurationConstraint c : entry.getValue()) {
+				copy.addConstraint(
+						copyOf(c.source.dc, copies), c.source.sign, 
+						copyOf(c.target.dc, copies), c.target.sign, 
+						c.pulls, c.expands);
+			}
+		}
+		for (Entry<DurationCapability, AbstractComponent> entry : components.entrySet()) {
+			copy.components.put(copyOf(entry.getKey(), copies), entry.getValue());
+		}
+		
+		copy.changeOrder = new ArrayList<DurationCapability>();
+		collectChangeOrder(root, new HashSet<String>(), copy.changeOrder, copies);
+		
+		return copy;
+	}
+	
+	private DurationCapability copyOf(DurationCapability dc, Map<DurationCapability, DurationCapability> copies) {
+		DurationCapability copy = copies.get(dc);
+		if (copy == null) {
+			copies.put(dc, copy = new DurationSnapshot(dc));
+		}
+		return copy;
+	}
+	
+	// Mirrors the traversal performed by changeAll(AbstractComponent, ...)
+	private void collectChangeOrder(AbstractComponent comp, Set<String> ignore, 
+			List<DurationCapability> order, Map<DurationCapability, DurationCapability> copies) {
+		if (!ignore.contains(comp.getComponentId())) {
+			ignore.add(comp.getComponentId());
+			for (AbstractComponent child : comp.getComponents()) {
+				collectChangeOrder(child, ignore, order, copies);
+			}
+			DurationCapability dc = comp.getCapability(DurationCapability.class);
+			if (dc != null) {
+				order.add(copyOf(dc, copies));
+			}
+		}
+	}
+	
+	/**
+	 * Apply the start and end times computed within a snapshot 
+	 * back to the durations from which that snapshot was taken. 
+	 * Durations which have been changed by other means since the 
+	 * snapshot was taken are left alone, as those changes are 
+	 * newer than the ones computed here.
+	 * 
+	 * This should be invoked from the same thread which otherwise 
+	 * modifies these durations (typically the Swing thread.)
+	 * 
+	 * @return all components whose durations were changed
+	 * @throws IllegalStateException if this is not a snapshot
+	 */
+	public Set<AbstractComponent> commit() {
+		if (changeOrder == null) {
+			throw new IllegalStateException("Only snapshots may be committed.");
+		}
+		Set<AbstractComponent> changed = new HashSet<AbstractComponent>();
+		for (DurationCapability dc : edges.keySet()) {
+			DurationSnapshot snapshot = (DurationSnapshot) dc;
+			if (snapshot.commit()) {
+				AbstractComponent comp = components.get(dc);
+				if (comp != null) {
+					changed.add(comp);
+				}
+			}
+		}
+		return changed;
+	}
+	
 	private void addConstraintsFor(AbstractComponent parent, Set<String> ignore) {
 		ignore.add(parent.getComponentId());
 		DurationCapability pdc = parent.getCapability(DurationCapability.class);
@@ -140,11 +241,9 @@ public class DurationConstraintSystem {
 		Collections.sort(children, new Comparator<AbstractComponent>() {
 			@Override
 			public int compare(AbstractComponent a, AbstractComponent b) {				
-				return Long.valueOf(
-							a.getCapability(DurationCapability.class).getStart()
-						).compareTo(
-							b.getCapability(DurationCapability.class).getStart()
-						);
+				long aStart = a.getCapability(DurationCapability.class).getStart();
+				long bStart = b.getCapability(DurationCapability.class).getStart();
+				return aStart < bStart ? -1 : (aStart > bStart ? 1 : 0);
 			}			
 		});
 		
@@ -159,6 +258,19 @@ public class DurationConstraintSystem {
 	 * @return all objects changed
 	 */
 	public Set<AbstractComponent> changeAll() {
+		if (changeOrder != null) {
+			Set<AbstractComponent> changed = new HashSet<AbstractComponent>();
+			for (DurationCapability dc : changeOrder) {
+				// Snapshots are typically resolved in the background; 
+				// stop early if that work is no longer wanted
+				if (Thread.currentThread().isInterrupted()) {
+					break;
+				}
+				change(dc, -1, changed);
+				change(dc, 1, changed);
+			}
+			return changed;
+		}
 		return changeAll(root);
 	}
 
@@ -371,7 +483,70 @@ public class DurationConstraintSystem {
 		 * @return a negative integer if bounded by edge, zero if equal
 		 */
 		public int compare(DurationEdge other) {
-			return sign * Long.valueOf(other.get()).compareTo(get());
+			long a = other.get();
+			long b = get();
+			return sign * (a < b ? -1 : (a > b ? 1 : 0));
+		}
+	}
+	
+	/**
+	 * Stands in for a duration within a snapshot, holding 
+	 * start and end times separately from the original.
+	 */
+	private static class DurationSnapshot implements DurationCapability {
+		private DurationCapability original;
+		private long initialStart;
+		private long initialEnd;
+		private long start;
+		private long end;
+		
+		public DurationSnapshot(DurationCapability original) {
+			this.original = original;
+			this.start = this.initialStart = original.getStart();
+			this.end = this.initialEnd = original.getEnd();
+		}
+
+		@Override
+		public long getStart() {
+			return start;
+		}
+
+		@Override
+		public long getEnd() {
+			return end;
+		}
+
+		@Override
+		public void setStart(long start) {
+			this.start = start;
+		}
+
+		@Override
+		public void setEnd(long end) {
+			this.end = end;
+		}
+		
+		/**
+		 * Copy start and end back to the original duration, 
+		 * unless it has been changed since the snapshot was taken.
+		 * @return true if the original was changed
+		 */
+		public boolean commit() {
+			if (start == initialStart && end == initialEnd) {
+				return false; // Nothing to apply
+			}
+			if (original.getStart() != initialStart || original.getEnd() != initialEnd) {
+				return false; // Superseded by a newer change
+			}
+			// Durations may prohibit start > end, so be careful about ordering
+			if (original.getStart() < start) {
+				original.setEnd(end);
+				original.setStart(start);
+			} else {
+				original.setStart(start);
+				original.setEnd(end);
+			}
+			return true;
 		}
 	}
 }
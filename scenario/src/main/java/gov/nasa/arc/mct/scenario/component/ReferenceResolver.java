@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Finds the components which refer to each of a collection of 
+ * components. Each lookup requires its own trip to persistence, 
+ * so several are issued concurrently.
+ */
+class ReferenceResolver {
+	private static final int MAX_THREADS = 4;
+	
+	/**
+	 * Notified as lookups complete.
+	 */
+	interface Progress {
+		/**
+		 * Called (from the thread which requested references) as 
+		 * each lookup finishes.
+		 * @param completed the number of lookups finished so far
+		 * @param total the total number of lookups
+		 */
+		void completed(int completed, int total);
+	}
+	
+	/**
+	 * Get the referencing components of each of the given components.
+	 * @param components the components whose referencing components are needed
+	 * @param progress notified as lookups complete (may be null)
+	 * @return a map from component id to its referencing components
+	 * @throws InterruptedException if interrupted while waiting for lookups
+	 * @throws ExecutionException if a lookup fails
+	 */
+	public static Map<String, Collection<AbstractComponent>> getReferencingComponents(
+			Collection<AbstractComponent> components, Progress progress) 
+			throws InterruptedException, ExecutionException {
+		Map<String, Collection<AbstractComponent>> result = 
+				new HashMap<String, Collection<AbstractComponent>>();
+		int total = components.size();
+		if (total == 0) {
+			return result;
+		}
+		
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(total, Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors())));
+		try {
+			CompletionService<Lookup> lookups = new ExecutorCompletionService<Lookup>(executor);
+			for (AbstractComponent component : components) {
+				lookups.submit(new Lookup(component));
+			}
+			for (int completed = 1; completed <= total; completed++) {
+				Lookup lookup = lookups.take().get();
+				result.put(lookup.component.getComponentId(), lookup.references);
+				if (progress != null) {
+					progress.completed(completed, total);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		return result;
+	}
+	
+	private static class Lookup implements Callable<Lookup> {
+		private final AbstractComponent component;
+		private Collection<AbstractComponent> references;
+		
+		public Lookup(AbstractComponent component) {
+			this.component = component;
+		}
+
+		@Override
+		public Lookup call() throws Exception {
+			references = component.getReferencingComponents();
+			return this;
+		}
+	}
+}
@@ -208,35 +208,45 @@ public class RepositoryMoveHandler {
 			Map<String, AbstractComponent> parentRepos = 
 					new HashMap<String, AbstractComponent>();
 			
-			// For progress reporting
-			int childIndex = 0;
-			int childCount = addedComponents.size();
+			// Look up everything which refers to added components, all at once
+			Collection<AbstractComponent> children = new ArrayList<AbstractComponent>(addedComponents);
+			Map<String, Collection<AbstractComponent>> references = 
+					ReferenceResolver.getReferencingComponents(children, new ReferenceResolver.Progress() {
+						@Override
+						public void completed(int completed, int total) {
+							setProgress(100 * completed / total);
+						}				
+					});
+			
+			// Many children will share the same parents, so only check each once
+			Map<String, Boolean> isRepository = new HashMap<String, Boolean>();
 			
 			// Build a list of things to remove
-			for (AbstractComponent child : addedComponents) {
-				Collection<AbstractComponent> parents = child.getReferencingComponents();
-				int parentIndex = 0;
-				int parentCount = parents.size();
+			for (AbstractComponent child : children) {
+				Collection<AbstractComponent> parents = references.get(child.getComponentId());
+				if (parents == null) {
+					continue;
+				}
 				for (AbstractComponent parent : parents) {
-					RepositoryCapability parentRepo = parent.getCapability(RepositoryCapability.class);				
-					// Is another parent the same kind of repository?
-					if (parentRepo != null && 
-						parentRepo.getCapabilityClass().isAssignableFrom(repositoryComponent.getCapabilityClass())) {
-						String parentId = parent.getComponentId();
-						// Make sure we are not just looking at ourself
-						if (!(repositoryComponent.getComponentId().equals(parentId))) {
-							parentRepos.put(parentId, parent);
-							if (!toRemove.containsKey(parentId)) {
-								toRemove.put(parentId, new HashSet<AbstractComponent>());
-							}
-							toRemove.get(parentId).add(child);
-						}					
+					String parentId = parent.getComponentId();
+					Boolean repo = isRepository.get(parentId);
+					if (repo == null) {
+						RepositoryCapability parentRepo = parent.getCapability(RepositoryCapability.class);				
+						// Is another parent the same kind of repository?
+						// (Make sure we are not just looking at ourself)
+						repo = parentRepo != null && 
+							parentRepo.getCapabilityClass().isAssignableFrom(repositoryComponent.getCapabilityClass()) &&
+							!(repositoryComponent.getComponentId().equals(parentId));
+						isRepository.put(parentId, repo);
+					}
+					if (repo) {
+						parentRepos.put(parentId, parent);
+						if (!toRemove.containsKey(parentId)) {
+							toRemove.put(parentId, new HashSet<AbstractComponent>());
+						}
+						toRemove.get(parentId).add(child);
 					}					
-					parentIndex++;
-					setProgress((100 * childIndex + (parentIndex*childIndex/parentCount)) / childCount);
 				}
-				childIndex++;
-				setProgress(100 * childIndex / childCount);
 			}
 			
 			// Now, remove them
@@ -39,6 +39,7 @@ public class ScenarioCSVExportCapability implements CSVExportCapability {
 	
 	private static final String CHILD_PREFIX = BUNDLE.getString("csv_child_prefix");
 	private static final String TAG_PREFIX = BUNDLE.getString("csv_tag_prefix");
+	private static final String FORMAT_NAME = BUNDLE.getString("csv_format_properties");
 	
 	private Collection<String> headers = new ArrayList<String>();
 	private List<String> components = new ArrayList<String>(); // store components' ids
@@ -47,31 +48,54 @@ public class ScenarioCSVExportCapability implements CSVExportCapability {
 			new HashMap<String, Map<String, String>>(); 
 	private int maxChildren = 0;
 	private int maxTags = 0;
+	private Collection<AbstractComponent> sources;
 
 	/**
 	 * Express the specified group of components in CSV format. 
 	 * This includes all of their children.
 	 * 
 	 * Data about components used to support CSV rendering 
-	 * will be assembled at the time of the constructor call, 
-	 * including visitation of all children. As such, this 
-	 * should not be called from a user interface thread. 
+	 * will be assembled upon first use, including visitation 
+	 * of all children. As such, this should not be used from 
+	 * a user interface thread. 
 	 * 
 	 * @param components the components to render
 	 */
 	public ScenarioCSVExportCapability(Collection<AbstractComponent> components) {
-		for (AbstractComponent ac : components) {
-			add(ac);
-		}
-		// currently not using tag
-		addTagHeaders();
-		addChildHeaders();
+		this.sources = components;
 	}	
 	
 	public ScenarioCSVExportCapability(AbstractComponent component) {
 		this(Collections.singleton(component));		
 	}
 	
+	/**
+	 * Get all CSV formats available for a timeline or scenario: 
+	 * its properties and references, as well as its cost profiles.
+	 * @param component the timeline or scenario to export
+	 * @return the available export formats, in order of presentation
+	 */
+	static List<CSVExportCapability> getFormats(AbstractComponent component) {
+		List<CSVExportCapability> formats = new ArrayList<CSVExportCapability>();
+		formats.add(new ScenarioCSVExportCapability(component));
+		formats.add(new CostProfileCSVExportCapability(component));
+		formats.add(new CostProfileCSVExportCapability(component, 
+				CostProfileCSVExportCapability.DEFAULT_INTERVAL));
+		return formats;
+	}
+	
+	private void assemble() {
+		if (sources != null) {
+			for (AbstractComponent ac : sources) {
+				add(ac);
+			}
+			// currently not using tag
+			addTagHeaders();
+			addChildHeaders();
+			sources = null;
+		}
+	}
+	
 	/**
 	 * add CSV content of the current component and its children to values.
 	 * note that for each component, its id is stored in components. Its id
@@ -166,16 +190,19 @@ public class ScenarioCSVExportCapability implements CSVExportCapability {
 	
 	@Override
 	public int getRowCount() {
+		assemble();
 		return components.size();
 	}
 	
 	@Override
 	public int getColumnCount() {
+		assemble();
 		return headers.size();
 	}
 	
 	@Override
 	public String[] getHeaders() {	
+		assemble();
 		String[] headerArray = new String[headers.size()];
 		headers.toArray(headerArray);	
 		return headerArray;
@@ -183,6 +210,7 @@ public class ScenarioCSVExportCapability implements CSVExportCapability {
 
 	@Override
 	public String[] getValue(int row) {
+		assemble();
 		String[] value = new String[headers.size()];
 		Map<String, String> map = values.get(components.get(row));
 		int i = 0;
@@ -192,6 +220,11 @@ public class ScenarioCSVExportCapability implements CSVExportCapability {
 		return value;
 	}
 	
+	@Override
+	public String toString() {
+		return FORMAT_NAME;
+	}
+	
 
 	// Tags and children are handled specially, to ensure they 
 	// appear grouped and in order.
@@ -22,10 +22,12 @@
 package gov.nasa.arc.mct.scenario.component;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
-import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
 import gov.nasa.arc.mct.components.ModelStatePersistence;
 import gov.nasa.arc.mct.components.ObjectManager;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class ScenarioComponent extends CostFunctionComponent implements DurationCapability {
@@ -52,30 +54,24 @@ public class ScenarioComponent extends CostFunctionComponent implements Duration
 			return capability.cast(new ScenarioCSVExportCapability(this));
 		}
 		if (capability.isAssignableFrom(ModelStatePersistence.class)) {
-		    JAXBModelStatePersistence<ActivityModelRole> persistence = new JAXBModelStatePersistence<ActivityModelRole>() {
-
-				@Override
-				protected ActivityModelRole getStateToPersist() {
-					return model.get();
-				}
-
-				@Override
-				protected void setPersistentState(ActivityModelRole modelState) {
-					model.set(modelState);
-				}
-
-				@Override
-				protected Class<ActivityModelRole> getJAXBClass() {
-					return ActivityModelRole.class;
-				}
-		        
-			};
-			
-			return capability.cast(persistence);
+			return capability.cast(new ActivityModelPersistence(model));
 		}
 		return null;
 	}
 	
+	@Override
+	protected <T> List<T> handleGetCapabilities(Class<T> capability) {
+		if (capability.isAssignableFrom(CSVExportCapability.class)) {
+			// Offer cost profiles in addition to properties
+			List<T> formats = new ArrayList<T>();
+			for (CSVExportCapability format : ScenarioCSVExportCapability.getFormats(this)) {
+				formats.add(capability.cast(format));
+			}
+			return formats;
+		}
+		return super.handleGetCapabilities(capability);
+	}
+	
 	public ActivityModelRole getModel() {
 		return model.get();
 	}
@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import gov.nasa.arc.mct.components.JAXBModelStatePersistence;
+import gov.nasa.arc.mct.components.ModelStatePersistence;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Date;
+import java.util.GregorianCalendar;
+
+import javax.xml.bind.DatatypeConverter;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Persists model state with hand-written StAX readers and writers, 
+ * avoiding the reflective marshalling done by JAXB. Subclasses read 
+ * and write the same XML that JAXB produces for the model class, so 
+ * model states persisted either way may be read by the other. 
+ * 
+ * Any document that a subclass does not recognize (an unexpected 
+ * element, for instance) is handed to JAXB instead; likewise, 
+ * JAXB is used to write states which fail to write via StAX.
+ * 
+ * @param <T> the type of the persisted model
+ */
+public abstract class StAXModelStatePersistence<T> implements ModelStatePersistence {
+	private static final String DECLARATION = 
+			"<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+	private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
+	private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+	
+	static {
+		INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		INPUT_FACTORY.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+	}
+	
+	private JAXBModelStatePersistence<T> fallback = null;
+	
+	/**
+	 * Get the model state which should be persisted.
+	 * @return the current model state
+	 */
+	protected abstract T getStateToPersist();
+	
+	/**
+	 * Replace the model state with one loaded from persistence.
+	 * @param modelState the loaded model state
+	 */
+	protected abstract void setPersistentState(T modelState);
+	
+	/**
+	 * Get the class of the model, as used by the JAXB fallback.
+	 * @return the class of the model
+	 */
+	protected abstract Class<T> getJAXBClass();
+	
+	/**
+	 * Write the model state as its root element.
+	 * @param writer the writer to which the state should be written
+	 * @param state the model state
+	 * @throws XMLStreamException if the state cannot be written
+	 */
+	protected abstract void writeState(XMLStreamWriter writer, T state) throws XMLStreamException;
+	
+	/**
+	 * Read the model state, starting from its root element. 
+	 * @param reader the reader, positioned at the root element
+	 * @return the model state
+	 * @throws XMLStreamException if the document is not recognized
+	 */
+	protected abstract T readState(XMLStreamReader reader) throws XMLStreamException;
+	
+	@Override
+	public String getModelState() {
+		T state = getStateToPersist();
+		StringWriter out = new StringWriter();
+		out.write(DECLARATION);
+		try {
+			XMLStreamWriter writer = OUTPUT_FACTORY.createXMLStreamWriter(out);
+			writeState(writer, state);
+			writer.close();
+			return out.toString();
+		} catch (XMLStreamException e) {
+			return getFallback().getModelState();
+		}
+	}
+
+	@Override
+	public void setModelState(String state) {
+		T modelState = null;
+		try {
+			XMLStreamReader reader = INPUT_FACTORY.createXMLStreamReader(new StringReader(state));
+			try {
+				reader.nextTag();
+				modelState = readState(reader);
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			modelState = null;
+		} catch (IllegalArgumentException e) { // Malformed values
+			modelState = null;
+		}
+		
+		if (modelState != null) {
+			setPersistentState(modelState);
+		} else {
+			getFallback().setModelState(state);
+		}
+	}
+	
+	private JAXBModelStatePersistence<T> getFallback() {
+		if (fallback == null) {
+			fallback = new JAXBModelStatePersistence<T>() {
+				@Override
+				protected T getStateToPersist() {
+					return StAXModelStatePersistence.this.getStateToPersist();
+				}
+
+				@Override
+				protected void setPersistentState(T modelState) {
+					StAXModelStatePersistence.this.setPersistentState(modelState);
+				}
+
+				@Override
+				protected Class<T> getJAXBClass() {
+					return StAXModelStatePersistence.this.getJAXBClass();
+				}
+			};
+		}
+		return fallback;
+	}
+	
+	/**
+	 * Move to the next child of the current element.
+	 * @param reader the reader
+	 * @return true if positioned at a child element; false at the end of its parent
+	 * @throws XMLStreamException if there is unexpected content
+	 */
+	protected static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		return reader.nextTag() == XMLStreamConstants.START_ELEMENT;
+	}
+	
+	/**
+	 * Ensure that the reader is at an element of the expected name.
+	 * @param reader the reader
+	 * @param name the expected element name
+	 * @throws XMLStreamException if the element has some other name
+	 */
+	protected static void expect(XMLStreamReader reader, String name) throws XMLStreamException {
+		if (!name.equals(reader.getLocalName())) {
+			throw new XMLStreamException("Unexpected element " + reader.getLocalName(), reader.getLocation());
+		}
+	}
+	
+	/**
+	 * Write an element containing only text; nothing is written for null values, 
+	 * as with JAXB.
+	 * @param writer the writer
+	 * @param name the name of the element
+	 * @param value the text content of the element
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	protected static void writeElement(XMLStreamWriter writer, String name, String value) throws XMLStreamException {
+		if (value != null) {
+			writer.writeStartElement(name);
+			writer.writeCharacters(value);
+			writer.writeEndElement();
+		}
+	}
+	
+	protected static void writeElement(XMLStreamWriter writer, String name, double value) throws XMLStreamException {
+		writeElement(writer, name, DatatypeConverter.printDouble(value));
+	}
+	
+	protected static void writeElement(XMLStreamWriter writer, String name, Date value) throws XMLStreamException {
+		if (value != null) {
+			GregorianCalendar calendar = new GregorianCalendar();
+			calendar.setTime(value);
+			writeElement(writer, name, DatatypeConverter.printDateTime(calendar));
+		}
+	}
+	
+	/**
+	 * Write a time, in milliseconds, as a date element (as JAXB would a Date).
+	 * @param writer the writer
+	 * @param name the name of the element
+	 * @param time the time to write
+	 * @throws XMLStreamException if the element cannot be written
+	 */
+	protected static void writeTimeElement(XMLStreamWriter writer, String name, long time) throws XMLStreamException {
+		GregorianCalendar calendar = new GregorianCalendar();
+		calendar.setTimeInMillis(time);
+		writeElement(writer, name, DatatypeConverter.printDateTime(calendar));
+	}
+	
+	protected static String readString(XMLStreamReader reader) throws XMLStreamException {
+		return reader.getElementText();
+	}
+
+	protected static double readDouble(XMLStreamReader reader) throws XMLStreamException {
+		return DatatypeConverter.parseDouble(reader.getElementText().trim());
+	}
+
+	protected static Date readDate(XMLStreamReader reader) throws XMLStreamException {
+		return new Date(readTime(reader));
+	}
+
+	protected static long readTime(XMLStreamReader reader) throws XMLStreamException {
+		return DatatypeConverter.parseDateTime(reader.getElementText().trim()).getTimeInMillis();
+	}
+}
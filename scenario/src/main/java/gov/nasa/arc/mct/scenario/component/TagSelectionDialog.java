@@ -23,36 +23,64 @@ package gov.nasa.arc.mct.scenario.component;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
 
+import java.awt.BorderLayout;
+import java.awt.Component;
 import java.awt.Dialog;
-import java.awt.Dimension;
 import java.awt.Window;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ResourceBundle;
 import java.util.Set;
 
+import javax.swing.AbstractAction;
+import javax.swing.AbstractListModel;
 import javax.swing.BorderFactory;
-import javax.swing.Box;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
+import javax.swing.JLabel;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
+import javax.swing.ListCellRenderer;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingWorker;
+import javax.swing.border.TitledBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 
 /**
  * Check box dialog for specifying which tags (or activity types) 
  * apply to a given Activity. This is triggered from the Info View 
  * for an Activity, by way of its custom visual control.
+ * 
+ * Repository contents are loaded in the background after the dialog 
+ * opens, and are shown in lists which only render visible rows, 
+ * so that large repositories remain responsive. A filter field 
+ * narrows lists to tags whose names begin with the typed text.
  */
 public class TagSelectionDialog extends JDialog {
 	private static final long serialVersionUID = 270779787729717592L;
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
+	private static final int VISIBLE_ROWS = 12;
+	private static final int CELL_WIDTH = 240;
 
 	// Maintain selection by id
 	private Set<String> originalIds = new HashSet<String>();
@@ -68,6 +96,10 @@ public class TagSelectionDialog extends JDialog {
 	// Result of the selection; null if canceled or incomplete
 	private List<AbstractComponent> result = null;
 	
+	// Background loading and filtering of repository contents
+	private List<RepositoryLoader> loaders = new ArrayList<RepositoryLoader>();
+	private List<TagListModel> models = new ArrayList<TagListModel>();
+	
 	
 	public TagSelectionDialog(
 			List<AbstractComponent> repositories, 
@@ -87,8 +119,9 @@ public class TagSelectionDialog extends JDialog {
 		JPanel panel = new JPanel();
 		panel.setLayout(new BoxLayout(panel, BoxLayout.PAGE_AXIS));
 		
+		panel.add(makeFilter());
 		for (AbstractComponent repo : repositories) {
-			panel.add(makeCheckBoxPanel(repo));
+			panel.add(makeCheckBoxList(repo));
 		}
 		
 		panel.add(makeButtons());
@@ -96,6 +129,19 @@ public class TagSelectionDialog extends JDialog {
 		getContentPane().add(panel);
 		
 		pack();
+		
+		// Stop loading if the dialog goes away first
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosed(WindowEvent e) {
+				for (RepositoryLoader loader : loaders) {
+					loader.cancel(true);
+				}
+			}			
+		});
+		for (RepositoryLoader loader : loaders) {
+			loader.execute();
+		}
 	}
 	
 	private boolean isModified() {
@@ -106,6 +152,40 @@ public class TagSelectionDialog extends JDialog {
 		return m || (originalIds.size() != selectedIds.size());
 	}
 	
+	private JComponent makeFilter() {
+		JPanel p = new JPanel(new BorderLayout(5, 0));
+		final JTextField field = new JTextField();
+		
+		field.getDocument().addDocumentListener(new DocumentListener() {
+			@Override
+			public void insertUpdate(DocumentEvent e) {
+				filter(field.getText());
+			}
+
+			@Override
+			public void removeUpdate(DocumentEvent e) {
+				filter(field.getText());
+			}
+
+			@Override
+			public void changedUpdate(DocumentEvent e) {
+				filter(field.getText());
+			}			
+		});
+		
+		p.add(new JLabel(BUNDLE.getString("tag_filter_label")), BorderLayout.WEST);
+		p.add(field, BorderLayout.CENTER);
+		p.setBorder(BorderFactory.createEmptyBorder(0, 0, 7, 0));
+		p.setAlignmentX(CENTER_ALIGNMENT);
+		return p;
+	}
+	
+	private void filter(String prefix) {
+		for (TagListModel model : models) {
+			model.setFilter(prefix);
+		}
+	}
+	
 	private JComponent makeButtons() {
 		JPanel p = new JPanel();
 		
@@ -156,53 +236,283 @@ public class TagSelectionDialog extends JDialog {
 		return result;
 	}
 	
-	private JComponent makeCheckBoxPanel(AbstractComponent repository) {
-		JPanel p = new JPanel();
+	private JComponent makeCheckBoxList(AbstractComponent repository) {
+		final TagListModel model = new TagListModel();
+		final JList list = new JList(model);
+		final TagCellRenderer renderer = new TagCellRenderer();
 		
-		p.setBorder(BorderFactory.createTitledBorder(repository.getDisplayName()));
-		p.setLayout(new BoxLayout(p, BoxLayout.PAGE_AXIS));
-		for (AbstractComponent child : repository.getComponents()) {
-			String id = child.getComponentId();
-			loadedComponents.put(id, child);
-			
-			JCheckBox checkBox = new JCheckBox(child.getDisplayName());
-			checkBox.setSelected( selectedIds.contains(id) );
-			checkBox.addActionListener( new Selector(id) );
-			checkBox.setAlignmentX(LEFT_ALIGNMENT);
-			p.add(checkBox);
-		}	
-		JPanel rigid = new JPanel();
-		p.add(rigid);
-		rigid.setAlignmentX(LEFT_ALIGNMENT);
-		rigid.add(Box.createRigidArea(new Dimension(240,1)));		
+		list.setCellRenderer(renderer);
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		list.setVisibleRowCount(VISIBLE_ROWS);
+		// Fixed cell sizes, so that only visible rows are ever measured
+		list.setFixedCellWidth(CELL_WIDTH);
+		list.setFixedCellHeight(renderer.getPreferredSize().height);
 		
-		p.setAlignmentX(CENTER_ALIGNMENT);
+		// Toggle tags by clicking or pressing space
+		list.addMouseListener(new MouseAdapter() {
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				int index = list.locationToIndex(e.getPoint());
+				if (index >= 0 && list.getCellBounds(index, index).contains(e.getPoint())) {
+					toggle(list, model.getEntry(index));
+				}
+			}
+		});
+		list.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "toggle");
+		list.getActionMap().put("toggle", new AbstractAction() {
+			private static final long serialVersionUID = -1779281946352432069L;
+
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				int index = list.getSelectedIndex();
+				if (index >= 0) {
+					toggle(list, model.getEntry(index));
+				}
+			}			
+		});
+		
+		JScrollPane pane = new JScrollPane(list);
+		TitledBorder border = BorderFactory.createTitledBorder(
+				String.format(BUNDLE.getString("tag_loading_title"), repository.getDisplayName()));
+		pane.setBorder(border);
+		pane.setAlignmentX(CENTER_ALIGNMENT);
 		
-		JScrollPane pane = new JScrollPane();
-		pane.getViewport().add(p);
+		models.add(model);
+		loaders.add(new RepositoryLoader(repository, model, pane, border));
 		
 		return pane;
 	}
-
-	private class Selector implements ActionListener {
-		private String id;
+	
+	private void toggle(JList list, TagEntry entry) {
+		if (!selectedIds.remove(entry.id)) {
+			selectedIds.add(entry.id);
+		}
+		list.repaint();
+	}
+	
+	/**
+	 * A tag (or activity type) available from a repository.
+	 */
+	private static class TagEntry {
+		private final String id;
+		private final String name;
+		private final String key; // For case-insensitive prefix matching
+		private final int position; // Order within repository
+		private final AbstractComponent component;
 		
-		public Selector(String id) {
-			this.id = id;
+		public TagEntry(AbstractComponent component, int position) {
+			this.component = component;
+			this.id = component.getComponentId();
+			this.name = component.getDisplayName();
+			this.key = name != null ? name.toLowerCase() : "";
+			this.position = position;
 		}
+	}
+	
+	private static final Comparator<TagEntry> BY_KEY = new Comparator<TagEntry>() {
+		@Override
+		public int compare(TagEntry a, TagEntry b) {
+			return a.key.compareTo(b.key);
+		}		
+	};
 
+	private static final Comparator<TagEntry> BY_POSITION = new Comparator<TagEntry>() {
 		@Override
-		public void actionPerformed(ActionEvent evt) {
-			Object src = evt.getSource();
-			if (src instanceof JCheckBox) {
-				boolean checked = ((JCheckBox) src).isSelected();
-				if (checked) {
-					selectedIds.add(id);
+		public int compare(TagEntry a, TagEntry b) {
+			return a.position < b.position ? -1 : (a.position > b.position ? 1 : 0);
+		}		
+	};
+	
+	/**
+	 * Finds entries whose names begin with some prefix (ignoring case), 
+	 * by binary search over entries sorted by name. Each batch of added 
+	 * entries is sorted by itself and merged in, so entries already 
+	 * indexed are never sorted again.
+	 */
+	private static class PrefixIndex {
+		private List<TagEntry> sorted = new ArrayList<TagEntry>();
+		
+		public void addAll(Collection<TagEntry> entries) {
+			List<TagEntry> batch = new ArrayList<TagEntry>(entries);
+			Collections.sort(batch, BY_KEY);
+			
+			List<TagEntry> merged = new ArrayList<TagEntry>(sorted.size() + batch.size());
+			int i = 0;
+			int j = 0;
+			while (i < sorted.size() && j < batch.size()) {
+				// Ties keep indexed entries first, as a stable sort would
+				if (BY_KEY.compare(batch.get(j), sorted.get(i)) < 0) {
+					merged.add(batch.get(j++));
 				} else {
-					selectedIds.remove(id);
+					merged.add(sorted.get(i++));
 				}
 			}
+			merged.addAll(sorted.subList(i, sorted.size()));
+			merged.addAll(batch.subList(j, batch.size()));
+			sorted = merged;
+		}
+		
+		/**
+		 * Find all entries beginning with the given prefix.
+		 * @param prefix the prefix to match
+		 * @return matching entries, in their original order
+		 */
+		public List<TagEntry> find(String prefix) {
+			String key = prefix.toLowerCase();
+			
+			// Find the first entry at or after the prefix
+			int low = 0;
+			int high = sorted.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (sorted.get(mid).key.compareTo(key) < 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			
+			List<TagEntry> result = new ArrayList<TagEntry>();
+			for (int i = low; i < sorted.size() && sorted.get(i).key.startsWith(key); i++) {
+				result.add(sorted.get(i));
+			}
+			Collections.sort(result, BY_POSITION);
+			return result;
+		}
+	}
+	
+	/**
+	 * Contents of one repository, possibly filtered.
+	 */
+	private static class TagListModel extends AbstractListModel {
+		private static final long serialVersionUID = -6105573929000834262L;
+		
+		private final List<TagEntry> entries = new ArrayList<TagEntry>();
+		private final PrefixIndex index = new PrefixIndex();
+		private List<TagEntry> visible = entries;
+		private String prefix = "";
+
+		public void add(List<TagEntry> page) {
+			int first = entries.size();
+			entries.addAll(page);
+			index.addAll(page);
+			if (prefix.isEmpty()) {
+				fireIntervalAdded(this, first, entries.size() - 1);
+			} else {
+				// Pages arrive in order, so new matches follow all visible entries
+				String key = prefix.toLowerCase();
+				int oldSize = visible.size();
+				for (TagEntry entry : page) {
+					if (entry.key.startsWith(key)) {
+						visible.add(entry);
+					}
+				}
+				if (visible.size() > oldSize) {
+					fireIntervalAdded(this, oldSize, visible.size() - 1);
+				}
+			}
+		}
+		
+		public void setFilter(String prefix) {
+			int oldSize = visible.size();
+			this.prefix = prefix;
+			visible = prefix.isEmpty() ? entries : index.find(prefix);
+			int newSize = visible.size();
+			if (oldSize > newSize) {
+				fireIntervalRemoved(this, newSize, oldSize - 1);
+			} else if (newSize > oldSize) {
+				fireIntervalAdded(this, oldSize, newSize - 1);
+			}
+			if (Math.min(oldSize, newSize) > 0) {
+				fireContentsChanged(this, 0, Math.min(oldSize, newSize) - 1);
+			}
+		}
+		
+		public TagEntry getEntry(int index) {
+			return visible.get(index);
+		}
+		
+		@Override
+		public int getSize() {
+			return visible.size();
+		}
+
+		@Override
+		public Object getElementAt(int index) {
+			return visible.get(index);
 		}		
 	}
 	
+	/**
+	 * Draws each entry as a check box, checked if selected.
+	 */
+	private class TagCellRenderer extends JCheckBox implements ListCellRenderer {
+		private static final long serialVersionUID = 4917802361834946123L;
+
+		public TagCellRenderer() {
+			super(" ");
+			setBorderPainted(false);
+		}
+		
+		@Override
+		public Component getListCellRendererComponent(JList list, Object value,
+				int index, boolean isSelected, boolean cellHasFocus) {
+			TagEntry entry = (TagEntry) value;
+			setText(entry.name);
+			setSelected(selectedIds.contains(entry.id));
+			setBackground(isSelected ? list.getSelectionBackground() : list.getBackground());
+			setForeground(isSelected ? list.getSelectionForeground() : list.getForeground());
+			setEnabled(list.isEnabled());
+			setFont(list.getFont());
+			return this;
+		}
+	}
+	
+	/**
+	 * Loads the contents of a repository in the background, adding 
+	 * them to a list as they become available.
+	 */
+	private class RepositoryLoader extends SwingWorker<Void, TagEntry> {
+		private final AbstractComponent repository;
+		private final TagListModel model;
+		private final JComponent pane;
+		private final TitledBorder border;
+		
+		public RepositoryLoader(AbstractComponent repository, TagListModel model, 
+				JComponent pane, TitledBorder border) {
+			this.repository = repository;
+			this.model = model;
+			this.pane = pane;
+			this.border = border;
+		}
+
+		@Override
+		protected Void doInBackground() throws Exception {
+			List<AbstractComponent> children = repository.getComponents();
+			int sz = children.size();
+			for (int i = 0; i < sz && !isCancelled(); i++) {
+				// Published entries are delivered to process in batches
+				publish(new TagEntry(children.get(i), i));
+			}
+			return null;
+		}
+
+		@Override
+		protected void process(List<TagEntry> page) {
+			if (isCancelled()) {
+				return;
+			}
+			for (TagEntry entry : page) {
+				loadedComponents.put(entry.id, entry.component);
+			}
+			model.add(page);
+		}
+
+		@Override
+		protected void done() {
+			border.setTitle(repository.getDisplayName());
+			pane.repaint();
+		}
+	}
+	
 }
@@ -23,8 +23,11 @@ package gov.nasa.arc.mct.scenario.component;
 
 import gov.nasa.arc.mct.components.AbstractComponent;
 import gov.nasa.arc.mct.components.ObjectManager;
+import gov.nasa.arc.mct.csvexport.component.CSVExportCapability;
 
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
@@ -53,6 +56,19 @@ public class TimelineComponent extends CostFunctionComponent implements Duration
 		return super.handleGetCapability(capability);
 	}
 	
+	@Override
+	protected <T> List<T> handleGetCapabilities(Class<T> capability) {
+		if (capability.isAssignableFrom(CSVExportCapability.class)) {
+			// Offer cost profiles in addition to properties
+			List<T> formats = new ArrayList<T>();
+			for (CSVExportCapability format : ScenarioCSVExportCapability.getFormats(this)) {
+				formats.add(capability.cast(format));
+			}
+			return formats;
+		}
+		return super.handleGetCapabilities(capability);
+	}
+	
 	@Override
 	public long getStart() {		
 		// Time is measured as "milliseconds since start of timeline", so this is always 0
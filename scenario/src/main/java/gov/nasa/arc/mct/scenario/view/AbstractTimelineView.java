@@ -35,6 +35,7 @@ import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.beans.PropertyChangeListener;
+import java.util.Collection;
 
 import javax.swing.JComponent;
 import javax.swing.Scrollable;
@@ -176,6 +177,20 @@ public abstract class AbstractTimelineView extends View implements ChangeListene
 		repaint();
 	}
 	
+	/**
+	 * Notify this view that the start or end times of some components 
+	 * have changed, before those changes have been saved (for instance, 
+	 * while the user drags an activity.) The notification is passed 
+	 * along to parent views.
+	 * @param changed the components whose durations have changed
+	 */
+	public void durationsChanged(Collection<AbstractComponent> changed) {
+		AbstractTimelineView parent = (AbstractTimelineView) SwingUtilities.getAncestorOfClass(AbstractTimelineView.class, this);
+		if (parent != null) {
+			parent.durationsChanged(changed);
+		}
+	}
+	
 	@Override
 	public SelectionProvider getSelectionProvider() {
 		return timelineContainer;
@@ -327,7 +342,7 @@ public abstract class AbstractTimelineView extends View implements ChangeListene
 					// Propagate unsaved changes to the newer component			
 					boolean updated = 
 							objectManager != null &&
-							new TimelineMergeHandler(objectManager).update(committedComponent);
+							new TimelineMergeHandler(objectManager, getManifestedComponent()).update(committedComponent);
 					
 					// Rebuild view to match what was in persistence					
 					setManifestedComponent(committedComponent);
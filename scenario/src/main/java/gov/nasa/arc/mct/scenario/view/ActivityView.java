@@ -42,6 +42,7 @@ import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.RenderingHints;
+import java.util.Collections;
 import java.util.List;
 
 import javax.swing.SwingUtilities;
@@ -61,35 +62,38 @@ public class ActivityView extends View implements CostOverlay {
 	private static final BasicStroke SOLID_2PT_LINE_STROKE = new BasicStroke(2f);
 	private static final Color DECISION_COLOR = new Color (120,120,120);
 	private static final Color DECISION_TEXT_COLOR = Color.WHITE;
-	private Color lineColor = new Color(100, 100, 100);
-	private Color durationColor = new Color(200,200,200, 100);
-	private ActivityBackgroundShape bg = ActivityBackgroundShape.ACTIVITY;
+	private Appearance appearance;
 	private DurationCapability durationCapability = null;
 	
 	public ActivityView(AbstractComponent ac, ViewInfo vi) {
 		super(ac,vi);
-		if (DecisionComponent.class.isAssignableFrom(ac.getClass())) {
-			bg = ActivityBackgroundShape.DECISION;			
-		}
+		appearance = new Appearance(ac);
 		durationCapability = ac.getCapability(DurationCapability.class);
 		setOpaque(false);		
-		if (ac instanceof ActivityComponent) {
-			String type = ((ActivityComponent) ac).getType();
-			if (type != null && !type.isEmpty()) {
-				durationColor = ScenarioColorPalette.getColorMixed(type, durationColor, 0.75f);
-				lineColor = durationColor.darker();
-			}
-		} else if (ac instanceof DecisionComponent) {
+		if (ac instanceof DecisionComponent) {
 			setForeground(DECISION_TEXT_COLOR);
-			durationColor = DECISION_COLOR;
 		}
 	}
 	
+	@Override
+	public void setManifestedComponent(AbstractComponent ac) {
+		super.setManifestedComponent(ac);
+		appearance = new Appearance(ac);
+		durationCapability = ac.getCapability(DurationCapability.class);
+	}
+	
 	@Override
 	public void updateMonitoredGUI() {
 		revalidate();
 		repaint();
 		
+		// Times or costs may have changed; let the timeline update just this activity's share
+		AbstractTimelineView timeline = (AbstractTimelineView) 
+				SwingUtilities.getAncestorOfClass(AbstractTimelineView.class, this);
+		if (timeline != null) {
+			timeline.durationsChanged(Collections.singleton(getManifestedComponent()));
+		}
+		
 		// Update parent component views (may include cost graphs)
 		Container parent;
 		Component child = this;
@@ -108,22 +112,16 @@ public class ActivityView extends View implements CostOverlay {
 		if (g instanceof Graphics2D) {
 			Graphics2D g2 = (Graphics2D) g;
 			
-			RenderingHints renderHints = new RenderingHints(RenderingHints.KEY_ANTIALIASING,
-															RenderingHints.VALUE_ANTIALIAS_ON);
-			renderHints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-			g2.setRenderingHints(renderHints);
-			
 			// Draw activity duration			
-			bg.paint(g2, getWidth(), getHeight(), lineColor, durationColor);
-			
-			// Prepare a tool tip
 			AbstractComponent ac = getManifestedComponent();
 			String name = ac.getDisplayName();			
 			String duration = (durationCapability != null) ?
 				DurationFormatter.formatDuration(durationCapability.getEnd() - durationCapability.getStart()) : 
 					"";
 			
-			bg.paintLabels(g2, name, duration, getWidth(), getHeight(), getForeground());
+			appearance.paint(g2, name, duration, getWidth(), getHeight(), getForeground());
+
+			// Prepare a tool tip
 
 			String type = "";
 			if (ac instanceof ActivityComponent) {
@@ -134,6 +132,53 @@ public class ActivityView extends View implements CostOverlay {
 		}
 	}
 	
+	/**
+	 * The shape and colors used to draw an activity or decision. This is 
+	 * also used by timelines which draw activities directly, without 
+	 * creating an ActivityView for each one.
+	 */
+	static class Appearance {
+		private ActivityBackgroundShape bg = ActivityBackgroundShape.ACTIVITY;
+		private Color lineColor = new Color(100, 100, 100);
+		private Color durationColor = new Color(200,200,200, 100);
+		private Color foreground = null;
+		
+		public Appearance(AbstractComponent ac) {
+			if (DecisionComponent.class.isAssignableFrom(ac.getClass())) {
+				bg = ActivityBackgroundShape.DECISION;			
+			}
+			if (ac instanceof ActivityComponent) {
+				String type = ((ActivityComponent) ac).getType();
+				if (type != null && !type.isEmpty()) {
+					durationColor = ScenarioColorPalette.getColorMixed(type, durationColor, 0.75f);
+					lineColor = durationColor.darker();
+				}
+			} else if (ac instanceof DecisionComponent) {
+				foreground = DECISION_TEXT_COLOR;
+				durationColor = DECISION_COLOR;
+			}
+		}
+		
+		/**
+		 * Draw an activity at the origin of the given graphics context.
+		 * @param g the graphics context to draw into
+		 * @param name the name of the activity
+		 * @param duration the formatted duration of the activity
+		 * @param w the width of the activity, in pixels
+		 * @param h the height of the activity, in pixels
+		 * @param defaultForeground the text color to use, unless this type of activity has its own
+		 */
+		public void paint(Graphics2D g, String name, String duration, int w, int h, Color defaultForeground) {
+			RenderingHints renderHints = new RenderingHints(RenderingHints.KEY_ANTIALIASING,
+															RenderingHints.VALUE_ANTIALIAS_ON);
+			renderHints.put(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+			g.setRenderingHints(renderHints);
+			
+			bg.paint(g, w, h, lineColor, durationColor);
+			bg.paintLabels(g, name, duration, w, h, foreground != null ? foreground : defaultForeground);
+		}
+	}
+	
 	private static enum ActivityBackgroundShape {
 		ACTIVITY() {
 
@@ -212,11 +257,19 @@ public class ActivityView extends View implements CostOverlay {
 
 	@Override
 	public List<CostFunctionCapability> getCostFunctions() {
-		AbstractComponent comp = getManifestedComponent();
+		return getCostFunctions(getManifestedComponent());
+	}
+	
+	/**
+	 * Get the costs to show in an overlay for an activity.
+	 * @param comp the activity 
+	 * @return the activity's own cost functions
+	 */
+	static List<CostFunctionCapability> getCostFunctions(AbstractComponent comp) {
 		if (comp instanceof CostFunctionComponent) {
 			// TODO: Maybe InternalCostFunction should be capability?
 			return ((CostFunctionComponent) comp).getInternalCostFunctions();
 		}
-		return getManifestedComponent().getCapabilities(CostFunctionCapability.class);
+		return comp.getCapabilities(CostFunctionCapability.class);
 	}
 }
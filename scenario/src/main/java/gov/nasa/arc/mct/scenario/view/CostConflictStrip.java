@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.scenario.component.CostConflictDetector;
+import gov.nasa.arc.mct.scenario.component.CostConflictDetector.Conflict;
+import gov.nasa.arc.mct.scenario.util.DurationFormatter;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.text.DecimalFormat;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import javax.swing.JComponent;
+
+/**
+ * A thin strip above the cost graph which marks intervals during 
+ * which an aggregate cost exceeds its configured cap.
+ */
+class CostConflictStrip extends JComponent {
+	private static final long serialVersionUID = 3817480593722941672L;
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
+	private static final int STRIP_HEIGHT = 8;
+	private static final int STRIP_PADDING = 2;
+	private static final Color CONFLICT_COLOR = new Color(220, 40, 40, 160);
+	
+	private final AbstractTimelineView view;
+	private final DecimalFormat format = new DecimalFormat();
+	private CostConflictDetector detector;
+	
+	/**
+	 * Create a strip marking conflicts along a timeline.
+	 * @param view the timeline, which determines the time at each pixel
+	 * @param detector the source of conflicts to mark
+	 */
+	public CostConflictStrip(AbstractTimelineView view, CostConflictDetector detector) {
+		this.view = view;
+		this.detector = detector;
+		setOpaque(false);
+		setAlignmentX(0.5f);
+		setToolTipText(""); // Register with tooltip manager
+	}
+	
+	/**
+	 * Get the detector whose conflicts are marked.
+	 * @return the source of conflicts
+	 */
+	public CostConflictDetector getDetector() {
+		return detector;
+	}
+	
+	/**
+	 * Mark the conflicts of a different detector, as when the timeline 
+	 * has been reloaded.
+	 * @param detector the new source of conflicts
+	 */
+	public void setDetector(CostConflictDetector detector) {
+		this.detector = detector;
+		repaint();
+	}
+	
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(0, STRIP_HEIGHT + STRIP_PADDING * 2);
+	}
+
+	@Override
+	public Dimension getMaximumSize() {
+		return new Dimension(Integer.MAX_VALUE, getPreferredSize().height);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		long start = getTime(clip.x);
+		long end = getTime(clip.x + clip.width);
+		g.setColor(CONFLICT_COLOR);
+		for (Conflict c : detector.getConflicts(start, end)) {
+			int x1 = view.getPixelPosition(Math.max(c.getStart(), start));
+			int x2 = view.getPixelPosition(Math.min(c.getEnd(), end));
+			g.fillRect(x1, STRIP_PADDING, Math.max(x2 - x1, 1), STRIP_HEIGHT);
+		}
+	}
+
+	@Override
+	public String getToolTipText(MouseEvent e) {
+		long time = getTime(e.getX());
+		List<Conflict> conflicts = detector.getConflicts(time, time);
+		if (conflicts.isEmpty()) {
+			return null;
+		}
+		StringBuilder b = new StringBuilder("<html>");
+		for (Conflict c : conflicts) {
+			if (b.length() > 6) {
+				b.append("<br>");
+			}
+			b.append(String.format(BUNDLE.getString("conflict_description"), 
+					c.getName(), format.format(c.getCap()), c.getUnits(), format.format(c.getPeak()),
+					DurationFormatter.formatDuration(c.getStart()), DurationFormatter.formatDuration(c.getEnd())));
+		}
+		return b.append("</html>").toString();
+	}
+	
+	private long getTime(int x) {
+		return view.getTimeOffset() + (long) ((x - view.getLeftPadding()) / view.getPixelScale());
+	}
+}
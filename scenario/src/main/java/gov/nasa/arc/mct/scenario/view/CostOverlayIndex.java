@@ -0,0 +1,243 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.scenario.component.CostFunctionCapability;
+import gov.nasa.arc.mct.scenario.view.TimelineLocalControls.CostOverlay;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.FontMetrics;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * An index of the cost overlays within some container, used to show cost 
+ * readouts for a point in time. This is built once, when the overlay is 
+ * activated; after that, finding the overlays under a point and their 
+ * labels at a given time is done by binary search, without walking the 
+ * Swing hierarchy, evaluating cost functions, or allocating.
+ * 
+ * Overlays whose costs are expensive to evaluate (such as aggregates) 
+ * should report them already tabulated, as a CostTable kept up to date 
+ * as costs change, so that activating the overlay does not evaluate them.
+ */
+class CostOverlayIndex {
+	private final NumberFormat format = new DecimalFormat();
+	private final FontMetrics metrics;
+	
+	private List<Region> regionList = new ArrayList<Region>();
+	private Region[] regions;
+	private int[] maxRights; // Rightmost edge of any region up to this index
+	private int maxLabelWidth = 0;
+	
+	/**
+	 * Create an index of all cost overlays currently showing within a container.
+	 * @param root the container to search; positions are relative to this
+	 * @param metrics metrics for the font which will be used to draw labels
+	 */
+	public CostOverlayIndex(Container root, FontMetrics metrics) {
+		this.metrics = metrics;
+		collect(root, 0, 0);
+		
+		regions = regionList.toArray(new Region[regionList.size()]);
+		regionList = null;
+		Arrays.sort(regions, LEFT_COMPARATOR);
+		maxRights = new int[regions.length];
+		int maxRight = Integer.MIN_VALUE;
+		for (int i = 0; i < regions.length; i++) {
+			maxRight = Math.max(maxRight, regions[i].x + regions[i].width);
+			maxRights[i] = maxRight;
+		}
+	}
+	
+	private void collect(Component c, int x, int y) {
+		if (!c.isShowing()) {
+			return;
+		}
+		if (c instanceof CostOverlay) {
+			add(x, y, c.getWidth(), c.getHeight(), ((CostOverlay) c).getCostFunctions());
+		}
+		if (c instanceof Contributor) {
+			((Contributor) c).contributeTo(this, x, y);
+		}
+		if (c instanceof Container) {
+			for (Component child : ((Container) c).getComponents()) {
+				collect(child, x + child.getX(), y + child.getY());
+			}
+		}
+	}
+	
+	/**
+	 * Add an area in which the specified costs should be shown. 
+	 * Only to be called while the index is being built; that is, 
+	 * by a Contributor.
+	 * @param x the left edge of the area
+	 * @param y the top edge of the area
+	 * @param width the width of the area
+	 * @param height the height of the area
+	 * @param costs the costs to show in this area
+	 */
+	public void add(int x, int y, int width, int height, List<CostFunctionCapability> costs) {
+		if (costs != null && !costs.isEmpty()) {
+			regionList.add(new Region(x, y, width, height, costs));
+		}
+	}
+	
+	/**
+	 * Get the widest label in the index, in pixels. A strip this wide to 
+	 * the right of a cursor position covers all of the labels drawn for it.
+	 * @return the widest label width, in pixels
+	 */
+	public int getMaxLabelWidth() {
+		return maxLabelWidth;
+	}
+	
+	/**
+	 * Get the number of areas in this index.
+	 * @return the number of areas
+	 */
+	public int size() {
+		return regions.length;
+	}
+	
+	/**
+	 * Get the index of the first area which might contain the given 
+	 * x position. Areas which do contain it may be found by iterating 
+	 * from here, while getX(i) is no greater than x.
+	 * @param x the horizontal position
+	 * @return the first index to consider
+	 */
+	public int first(int x) {
+		int low = 0;
+		int high = maxRights.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (maxRights[mid] < x) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+	
+	public boolean contains(int i, int x) {
+		return regions[i].x <= x && regions[i].x + regions[i].width >= x;
+	}
+	
+	public int getX(int i) {
+		return regions[i].x;
+	}
+	
+	public int getCenterY(int i) {
+		return regions[i].y + regions[i].height / 2;
+	}
+	
+	public String getLabel(int i, long time) {
+		Region r = regions[i];
+		return r.labels[r.segment(time)];
+	}
+	
+	public int getLabelWidth(int i, long time) {
+		Region r = regions[i];
+		return r.widths[r.segment(time)];
+	}
+	
+	private class Region {
+		private final int x;
+		private final int y;
+		private final int width;
+		private final int height;
+		private final long[] times;     // Times at which any cost changes
+		private final String[] labels;  // Before first change, then after each
+		private final int[] widths;
+		
+		public Region(int x, int y, int width, int height, List<CostFunctionCapability> costs) {
+			this.x = x;
+			this.y = y;
+			this.width = width;
+			this.height = height;
+			
+			// Tabulate each cost at its own change times, unless already tabulated
+			CostTable[] tables = new CostTable[costs.size()];
+			TreeSet<Long> allTimes = new TreeSet<Long>();
+			for (int c = 0; c < tables.length; c++) {
+				tables[c] = CostTable.of(costs.get(c));
+				allTimes.addAll(tables[c].getChangeTimes());
+			}
+			times = new long[allTimes.size()];
+			int n = 0;
+			for (Long t : allTimes) {
+				times[n++] = t;
+			}
+			
+			// Label every segment between changes
+			labels = new String[times.length + 1];
+			widths = new int[times.length + 1];
+			StringBuilder builder = new StringBuilder();
+			for (int s = 0; s < labels.length; s++) {
+				builder.setLength(0);
+				for (int c = 0; c < tables.length; c++) {
+					double value = (s == 0) ? tables[c].getInitialValue() : tables[c].getValue(times[s - 1]);
+					builder.append(format.format(value)).append(costs.get(c).getUnits()).append(' ');
+				}
+				labels[s] = builder.toString();
+				widths[s] = metrics.stringWidth(labels[s]);
+				maxLabelWidth = Math.max(maxLabelWidth, widths[s]);
+			}
+		}
+		
+		private int segment(long time) {
+			int i = Arrays.binarySearch(times, time);
+			return i >= 0 ? i + 1 : -(i + 1);
+		}
+	}
+	
+	private static final Comparator<Region> LEFT_COMPARATOR = new Comparator<Region>() {
+		@Override
+		public int compare(Region a, Region b) {
+			return a.x < b.x ? -1 : (a.x > b.x ? 1 : 0);
+		}
+	};
+	
+	/**
+	 * Implemented by containers which show costs without a CostOverlay 
+	 * component for each (for instance, because they draw activities 
+	 * directly.) These are asked to add their areas while the index 
+	 * is being built.
+	 */
+	interface Contributor {
+		/**
+		 * Add areas showing costs to an index.
+		 * @param index the index being built
+		 * @param x the position of this container's left edge in the index
+		 * @param y the position of this container's top edge in the index
+		 */
+		public void contributeTo(CostOverlayIndex index, int x, int y);
+	}
+}
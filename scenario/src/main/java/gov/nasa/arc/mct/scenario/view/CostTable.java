@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.scenario.component.CostFunctionCapability;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * The values of a cost function at each of its change times, tabulated 
+ * once so that later lookups are by binary search. Evaluating an aggregate 
+ * cost visits all of its parts, so views which read many values of the 
+ * same cost should tabulate it when costs change, rather than on each use.
+ * 
+ * Cost functions are assumed to be step-wise, changing value only at 
+ * the times they report from getChangeTimes.
+ */
+class CostTable implements CostFunctionCapability {
+	private final String name;
+	private final String units;
+	private final long[] times;
+	private final double[] values;
+	private final double before;
+	
+	/**
+	 * Tabulate a cost function.
+	 * @param cost the cost function to tabulate
+	 */
+	public CostTable(CostFunctionCapability cost) {
+		name = cost.getName();
+		units = cost.getUnits();
+		Collection<Long> changeTimes = new TreeSet<Long>(cost.getChangeTimes());
+		times = new long[changeTimes.size()];
+		values = new double[changeTimes.size()];
+		int i = 0;
+		for (Long t : changeTimes) {
+			times[i] = t;
+			values[i++] = cost.getValue(t);
+		}
+		before = cost.getValue(times.length > 0 ? times[0] - 1 : 0L);
+	}
+	
+	/**
+	 * Get a tabulated form of a cost function, tabulating it only if necessary.
+	 * @param cost the cost function
+	 * @return the cost function, as a table
+	 */
+	public static CostTable of(CostFunctionCapability cost) {
+		return cost instanceof CostTable ? (CostTable) cost : new CostTable(cost);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getUnits() {
+		return units;
+	}
+
+	@Override
+	public double getValue(long time) {
+		int i = Arrays.binarySearch(times, time);
+		i = i >= 0 ? i : -(i + 1) - 1;
+		return i >= 0 ? values[i] : before;
+	}
+	
+	/**
+	 * Get the value before the first change time.
+	 * @return the initial value
+	 */
+	public double getInitialValue() {
+		return before;
+	}
+
+	@Override
+	public Collection<Long> getChangeTimes() {
+		return new AbstractList<Long>() {
+			@Override
+			public Long get(int index) {
+				return times[index];
+			}
+
+			@Override
+			public int size() {
+				return times.length;
+			}
+		};
+	}
+}
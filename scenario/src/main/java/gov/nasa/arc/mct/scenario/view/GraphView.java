@@ -27,13 +27,20 @@ import gov.nasa.arc.mct.scenario.view.TimelineLocalControls.CostOverlay;
 import gov.nasa.arc.mct.services.component.ViewInfo;
 import gov.nasa.arc.mct.services.component.ViewType;
 
+import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
 import java.awt.Color;
+import java.awt.Component;
 import java.awt.Font;
+import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Stroke;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.Arrays;
@@ -62,11 +69,15 @@ public class GraphView extends AbstractTimelineView {
 	private static final Stroke GRAPH_STROKE = new BasicStroke(2f);
 	private static final int GRAPH_HEIGHT = 60;
 	private static final int GRAPH_PAD    = 16;
-	private static final NumberFormat FORMAT = new DecimalFormat();
 	
 	
 	private static final Color DEFAULT_FOREGROUND_COLOR = Color.BLACK;
 	
+	// Incremented whenever plotted costs may have changed
+	private int costVersion = 0;
+	
+	// Shared by all graphs in this view, which only format labels on the EDT
+	private final NumberFormat format = new DecimalFormat();
 	
 	public GraphView(AbstractComponent ac, ViewInfo vi) {
 		super(ac, vi);
@@ -84,19 +95,69 @@ public class GraphView extends AbstractTimelineView {
 	public void viewPersisted() {
 		rebuild();
 	}
+	
+	/**
+	 * Notify this view that the costs it plots may have changed without 
+	 * being persisted (for instance, while activities are dragged, or 
+	 * once constraints have been resolved.) Graphs are recomputed when 
+	 * next painted; otherwise, painting reuses what was last computed.
+	 */
+	public void costsChanged() {
+		costVersion++;
+		repaint();
+	}
+	
+	/**
+	 * Use costs which have already been tabulated (for instance, while 
+	 * loading in the background) instead of tabulating them when first 
+	 * painted. Tables are matched to graphs by cost name, and are only 
+	 * used until costs next change.
+	 * @param tables tabulated costs of the manifested component
+	 */
+	public void setCostTables(Collection<CostTable> tables) {
+		for (Component c : getContentPane().getComponents()) {
+			if (c instanceof CostGraph) {
+				CostGraph graph = (CostGraph) c;
+				for (CostTable table : tables) {
+					if (table.getName().equals(graph.cost.getName())) {
+						graph.table = table;
+						graph.tableVersion = costVersion;
+					}
+				}
+			}
+		}
+	}
 
 
 	private class CostGraph extends JPanel implements CostOverlay {
 		private static final long serialVersionUID = 2939539607481881113L;
 		private CostFunctionCapability cost;
+		
+		// Values at each change time, shared with the cost overlay
+		private CostTable table;
+		private int tableVersion = -1;
 
 		private int x[] = {};
 		private int y[] = {};
-		private double dataPoints[] = {};
-		private double minData;
-		private double maxData;
+		private String maxLabels[] = {};
+		private String minLabels[] = {};
+		private String maxDataLabel = "";
+		private String minDataLabel = "";
+		
+		// Key for the computed points and labels above
+		private int    cachedVersion = -1;
+		private double cachedPixelScale = Double.NaN;
+		private long   cachedTimeOffset;
+		private int    cachedLeftPadding;
+		private long   cachedStart;
+		private long   cachedEnd;
 		
-		//private int cachedWidth = 0;
+		// Rendered visible portion of the graph; repainting it only copies this
+		private transient BufferedImage image;
+		private Rectangle imageBounds = new Rectangle();
+		private boolean imageValid = false;
+		private Font  imageFont;
+		private Color imageForeground;
 		
 		public CostGraph(CostFunctionCapability cost) {
 			super();
@@ -104,19 +165,52 @@ public class GraphView extends AbstractTimelineView {
 			this.cost = cost;
 			setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
 			add(Box.createVerticalStrut(GRAPH_HEIGHT + GRAPH_PAD * 2));
-			updateGraph();
 		}
 		
 		public void paintComponent(Graphics g) {
 			super.paintComponent(g);
 			
-			int rightX = getPixelPosition(getEnd());
+			boolean changed = updateGraph();
 			
-			// TODO: Updating may too much computation to do every frame
-			//if (getWidth() != cachedWidth) {
-				updateGraph();
-				//cachedWidth = getWidth();
-			//}
+			// Only the visible portion is buffered, as graphs may be very wide when zoomed in
+			Rectangle visible = getVisibleRect();
+			int width = visible.width;
+			int height = visible.height;
+			if (width <= 0 || height <= 0) {
+				return;
+			}
+			
+			if (image == null || image.getWidth() != width || image.getHeight() != height) {
+				GraphicsConfiguration gc = getGraphicsConfiguration();
+				image = gc != null ? 
+						gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT) :
+						new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+				imageValid = false;
+			}
+			
+			// Scrolling changes the visible portion, so the image is redrawn
+			if (changed || !imageValid || !visible.equals(imageBounds) ||
+					!getFont().equals(imageFont) || !getForeground().equals(imageForeground)) {
+				Graphics2D ig = image.createGraphics();
+				ig.setComposite(AlphaComposite.Clear);
+				ig.fillRect(0, 0, width, height);
+				ig.setComposite(AlphaComposite.SrcOver);
+				ig.setFont(getFont());
+				ig.translate(-visible.x, -visible.y);
+				ig.clipRect(visible.x, visible.y, width, height);
+				drawGraph(ig);
+				ig.dispose();
+				imageValid = true;
+				imageBounds = visible;
+				imageFont = getFont();
+				imageForeground = getForeground();
+			}
+			
+			g.drawImage(image, visible.x, visible.y, null);
+		}
+		
+		private void drawGraph(Graphics g) {
+			int rightX = getPixelPosition(getEnd());
 			
 			// Choose color for data line
 			// Note that hash ensures that the same cost always gets the same color,
@@ -133,22 +227,21 @@ public class GraphView extends AbstractTimelineView {
 			}
 						
 			// Draw the data line. Note that points have been computed in a separate method
-			int charHeight = getFontMetrics(getFont()).getHeight();
+			FontMetrics metrics = getFontMetrics(getFont());
+			int charHeight = metrics.getHeight();
 			if (x.length > 1 && x.length == y.length) {
 				for (int i = 0; i < x.length - 1; i++) {
 					if (x[i] >= getLeftPadding() && x[i+1] <= rightX) {
 						g.drawLine(x[i], y[i], x[i+1], y[i]);
 						g.drawLine(x[i+1], y[i], x[i+1], y[i+1]);
 							
-						double maxValue = Math.max(dataPoints[i], dataPoints[i+1]);
-						double minValue = Math.min(dataPoints[i], dataPoints[i+1]);
-						if (maxValue != minValue && x[i+1] > getLeftPadding() && x[i+1] < rightX) {
+						String maxValueString = maxLabels[i+1];
+						if (maxValueString != null && x[i+1] > getLeftPadding() && x[i+1] < rightX) {
 							int maxY = Math.min(y[i], y[i+1]);
 							int minY = Math.max(y[i], y[i+1]);
-							String maxValueString = FORMAT.format(maxValue);
-							g.drawString(maxValueString, x[i+1] - getFontMetrics(getFont()).charsWidth(maxValueString.toCharArray(), 0, maxValueString.length())/2, maxY - charHeight / 4);
-							String minValueString = FORMAT.format(minValue);
-							g.drawString(minValueString, x[i+1] - getFontMetrics(getFont()).charsWidth(minValueString.toCharArray(), 0, minValueString.length())/2, minY + charHeight);
+							g.drawString(maxValueString, x[i+1] - metrics.stringWidth(maxValueString)/2, maxY - charHeight / 4);
+							String minValueString = minLabels[i+1];
+							g.drawString(minValueString, x[i+1] - metrics.stringWidth(minValueString)/2, minY + charHeight);
 						}
 					}
 				}
@@ -159,16 +252,14 @@ public class GraphView extends AbstractTimelineView {
 			g.drawLine(getLeftPadding()-1, GRAPH_PAD, getLeftPadding()-1, GRAPH_PAD + GRAPH_HEIGHT - 1);
 			g.drawLine(getLeftPadding()+5, GRAPH_PAD, getLeftPadding()-1, GRAPH_PAD);
 			g.drawLine(getLeftPadding()+5, GRAPH_PAD + GRAPH_HEIGHT - 1, getLeftPadding()-1, GRAPH_PAD+ GRAPH_HEIGHT - 1);
-			String maxValueString = FORMAT.format(maxData);
-			g.drawString(maxValueString, getLeftPadding() - getFontMetrics(getFont()).charsWidth(maxValueString.toCharArray(), 0, maxValueString.length()) - 8, GRAPH_PAD + charHeight/2);
-			String minValueString = FORMAT.format(minData);
-			g.drawString(minValueString, getLeftPadding() - getFontMetrics(getFont()).charsWidth(minValueString.toCharArray(), 0, minValueString.length()) - 8, GRAPH_PAD + GRAPH_HEIGHT + charHeight/2);
+			g.drawString(maxDataLabel, getLeftPadding() - metrics.stringWidth(maxDataLabel) - 8, GRAPH_PAD + charHeight/2);
+			g.drawString(minDataLabel, getLeftPadding() - metrics.stringWidth(minDataLabel) - 8, GRAPH_PAD + GRAPH_HEIGHT + charHeight/2);
 			
 			String name = cost.getName();
 			String units = cost.getUnits();
 			g.setFont(getFont().deriveFont(Font.BOLD));
-			g.drawString(units, getLeftPadding() - getFontMetrics(getFont()).charsWidth(units.toCharArray(), 0, units.length()) - 8, GRAPH_PAD + GRAPH_HEIGHT /2 + charHeight / 2);
-			g.drawString(name, rightX - getFontMetrics(getFont()).charsWidth(name.toCharArray(), 0, name.length()), GRAPH_PAD + GRAPH_HEIGHT - 2);
+			g.drawString(units, getLeftPadding() - getFontMetrics(g.getFont()).stringWidth(units) - 8, GRAPH_PAD + GRAPH_HEIGHT /2 + charHeight / 2);
+			g.drawString(name, rightX - getFontMetrics(g.getFont()).stringWidth(name), GRAPH_PAD + GRAPH_HEIGHT - 2);
 		}
 		
 		private int toX(long t) {
@@ -179,12 +270,35 @@ public class GraphView extends AbstractTimelineView {
 			return GRAPH_PAD + GRAPH_HEIGHT - (int) (((data - minData) / (maxData - minData)) * (GRAPH_HEIGHT-1)) - 1;
 		}
 		
-		private void updateGraph() {
+		/**
+		 * Recompute points and labels, if anything they depend upon has changed.
+		 * @return true if the graph was recomputed
+		 */
+		private boolean updateGraph() {
+			int version = costVersion;
+			double pixelScale = getPixelScale();
+			long timeOffset = getTimeOffset();
+			int leftPadding = getLeftPadding();
+			long start = getStart();
+			long end = getEnd();
+			if (version == cachedVersion && pixelScale == cachedPixelScale && 
+					timeOffset == cachedTimeOffset && leftPadding == cachedLeftPadding &&
+					start == cachedStart && end == cachedEnd) {
+				return false;
+			}
+			cachedVersion = version;
+			cachedPixelScale = pixelScale;
+			cachedTimeOffset = timeOffset;
+			cachedLeftPadding = leftPadding;
+			cachedStart = start;
+			cachedEnd = end;
+			
 			// Note: TreeSet is always sorted, meaning subsequent iteration occurs in drawing order
+			CostTable table = getTable();
 			Collection<Long> changeTimes = new TreeSet<Long>(); 
-			changeTimes.addAll(cost.getChangeTimes());
-			changeTimes.add(getStart());
-			changeTimes.add(getEnd());
+			changeTimes.addAll(table.getChangeTimes());
+			changeTimes.add(start);
+			changeTimes.add(end);
 			if (changeTimes.size() > 1) {
 				double data[] = new double[changeTimes.size()];
 				long   time[] = new long[changeTimes.size()];
@@ -192,29 +306,49 @@ public class GraphView extends AbstractTimelineView {
 				double minData = 0;
 				int i = 0;
 				for (Long t : changeTimes) {
-					data[i]   = cost.getValue(t);
+					data[i]   = table.getValue(t);
 					if (data[i] > maxData) maxData = data[i];
 					if (data[i] < minData) minData = data[i];
 					time[i++] = t;
 				}
 				
-				this.minData = minData;
-				this.maxData = maxData;
+				maxDataLabel = format.format(maxData);
+				minDataLabel = format.format(minData);
 				x = new int[i];
 				y = new int[i];
-				dataPoints = new double[i];
+				maxLabels = new String[i];
+				minLabels = new String[i];
 				for (int j = 0 ; j < i ; j++) {
 					// Convert to x, y
 					x[j] = toX(time[j]);
 					y[j] = toY(data[j], minData, maxData);
-					dataPoints[j] = data[j];
+					
+					// Label each step by its upper and lower values
+					if (j > 0 && data[j] != data[j-1]) {
+						maxLabels[j] = format.format(Math.max(data[j], data[j-1]));
+						minLabels[j] = format.format(Math.min(data[j], data[j-1]));
+					}
 				}
 			}
+			return true;
+		}
+		
+		/**
+		 * Get the plotted cost, tabulated again only if costs have changed 
+		 * since it was last tabulated.
+		 * @return the plotted cost, as a table
+		 */
+		private CostTable getTable() {
+			if (table == null || tableVersion != costVersion) {
+				table = new CostTable(cost);
+				tableVersion = costVersion;
+			}
+			return table;
 		}
 		
 		@Override
 		public List<CostFunctionCapability> getCostFunctions() {
-			return Arrays.asList(cost);
+			return Arrays.<CostFunctionCapability>asList(getTable());
 		}
 	}
 
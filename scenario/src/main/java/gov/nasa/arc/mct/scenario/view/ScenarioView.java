@@ -38,14 +38,22 @@ import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.RenderingHints;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.ResourceBundle;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
 import javax.swing.JComponent;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingWorker;
 import javax.swing.border.Border;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * A Scenario View shows multiple Timeline Views with a shared time axis.
  * 
@@ -54,12 +62,15 @@ import javax.swing.border.Border;
  */
 public class ScenarioView extends AbstractTimelineView {
 	private static final long serialVersionUID = 4734756748449290286L;
+	private static final Logger LOGGER = LoggerFactory.getLogger(ScenarioView.class);
 
 	private static final int BORDER_SIZE = 12;
 	private static final int BORDER_GAP  = 6;
 	private static final Color TIMELINE_BACKGROUND = new Color(240, 244, 248);
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
 	private JPanel upperPanel = new JPanel();
 	private View   costGraph  = null; 
+	private LoadWorker loadWorker = null;
 	
 	public ScenarioView(AbstractComponent ac, ViewInfo vi) {
 		// When we are a non-embedded view, work with a fresh copy of the 
@@ -81,8 +92,12 @@ public class ScenarioView extends AbstractTimelineView {
 		getContentPane().add(upperPanel, BorderLayout.NORTH);
 		getContentPane().setBackground(Color.WHITE);		
 		
-		buildUpperPanel();
-		
+		// Timelines are loaded in the background; show a placeholder until then
+		JLabel placeholder = new JLabel(BUNDLE.getString("view_loading"));
+		placeholder.setAlignmentX(0.5f);
+		upperPanel.add(placeholder);
+		loadWorker = new LoadWorker();
+		loadWorker.execute();
 	}
 	
 	@Override
@@ -119,6 +134,24 @@ public class ScenarioView extends AbstractTimelineView {
 		}
 	}
 	
+	@Override
+	public void durationsChanged(Collection<AbstractComponent> changed) {
+		costsChanged();
+		super.durationsChanged(changed);
+	}
+	
+	@Override
+	public void save() {
+		costsChanged();
+		super.save();
+	}
+	
+	private void costsChanged() {
+		if (costGraph instanceof GraphView) {
+			((GraphView) costGraph).costsChanged();
+		}
+	}
+	
 	private void searchAndReplace(Component widget, AbstractComponent comp) {
 		String id = comp.getComponentId();
 		if (widget instanceof View) {
@@ -135,6 +168,18 @@ public class ScenarioView extends AbstractTimelineView {
 	}
 	
 	private void buildUpperPanel() {
+		List<CostFunctionCapability> costs = getManifestedComponent().getCapabilities(CostFunctionCapability.class);
+		buildUpperPanel(costs != null && !costs.isEmpty());
+	}
+	
+	private void buildUpperPanel(List<CostTable> costs) {
+		buildUpperPanel(!costs.isEmpty());
+		if (costGraph instanceof GraphView) {
+			((GraphView) costGraph).setCostTables(costs);
+		}
+	}
+	
+	private void buildUpperPanel(boolean hasCosts) {
 		AbstractComponent ac = getManifestedComponent();
 		 // If we're a clone, this view will be incorrectly NOT included as a manifestation
 		if (!getInfo().getViewType().equals(ViewType.EMBEDDED)) {
@@ -148,8 +193,7 @@ public class ScenarioView extends AbstractTimelineView {
 			}
 		}
 				
-		List<CostFunctionCapability> costs = ac.getCapabilities(CostFunctionCapability.class);
-		if (costs != null && !costs.isEmpty()) {
+		if (hasCosts) {
 			upperPanel.add(new CollapsibleContainer(costGraph = GraphView.VIEW_INFO.createView(getManifestedComponent())));
 		}
 	}
@@ -197,8 +241,16 @@ public class ScenarioView extends AbstractTimelineView {
 
 	@Override
 	protected void rebuild() {
+		if (loadWorker != null) {
+			loadWorker.cancel(true);
+			loadWorker = null;
+		}
 		upperPanel.removeAll();
 		buildUpperPanel();
+		refreshAll();
+	}
+	
+	private void refreshAll() {
 		revalidate();
 		repaint();
 		for (Component c : upperPanel.getComponents()) {
@@ -208,5 +260,48 @@ public class ScenarioView extends AbstractTimelineView {
 		}
 	}
 
-	
+	/**
+	 * Loads the scenario's component tree off of the Swing thread 
+	 * (with several children loaded at once), and tabulates its 
+	 * aggregate costs. Timeline widgets are then created from the 
+	 * loaded tree on the Swing thread.
+	 */
+	private class LoadWorker extends SwingWorker<List<CostTable>, Void> {
+		private final AbstractComponent component = getManifestedComponent();
+		
+		@Override
+		protected List<CostTable> doInBackground() throws Exception {
+			SubtreePrefetcher.prefetch(component);
+			List<CostTable> tables = new ArrayList<CostTable>();
+			List<CostFunctionCapability> costs = component.getCapabilities(CostFunctionCapability.class);
+			if (costs != null) {
+				for (CostFunctionCapability cost : costs) {
+					tables.add(new CostTable(cost));
+				}
+			}
+			return tables;
+		}
+
+		@Override
+		protected void done() {
+			// Superseded by a rebuild
+			if (isCancelled() || loadWorker != this) {
+				return;
+			}
+			loadWorker = null;
+			
+			upperPanel.removeAll();
+			try {
+				buildUpperPanel(get());
+			} catch (InterruptedException e) { // Fall back to loading here
+				LOGGER.warn("Interrupted while loading scenario; loading on the Swing thread instead", e);
+				Thread.currentThread().interrupt();
+				buildUpperPanel();
+			} catch (ExecutionException e) {   // Fall back to loading here
+				LOGGER.warn("Could not load scenario in the background; loading on the Swing thread instead", e.getCause());
+				buildUpperPanel();
+			}
+			refreshAll();
+		}
+	}
 }
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loads all descendants of a component ahead of time, so that views 
+ * can later walk the tree without waiting on persistence. Children 
+ * are loaded one level at a time, with the components of each level 
+ * loaded concurrently. This should not be used from the Swing thread.
+ * 
+ * Each component's getComponents is called exactly once, from a pool 
+ * thread. This relies on getComponents being synchronized per component 
+ * (as in AbstractComponent) and on the persistence provider, which 
+ * loads the children, supporting concurrent reads. The subtree should 
+ * not be modified until prefetching has completed.
+ */
+class SubtreePrefetcher {
+	private static final int MAX_THREADS = 4;
+	
+	/**
+	 * Load the children of the given component, and of each of its 
+	 * descendants. Components reachable along several paths (or 
+	 * via a cycle) are only visited once.
+	 * @param root the component whose subtree should be loaded
+	 * @throws InterruptedException if interrupted while waiting for children
+	 * @throws ExecutionException if loading any children fails
+	 */
+	public static void prefetch(AbstractComponent root) 
+			throws InterruptedException, ExecutionException {
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors()));
+		try {
+			Set<String> visited = new HashSet<String>();
+			visited.add(root.getComponentId());
+			List<AbstractComponent> level = Collections.singletonList(root);
+			while (!level.isEmpty()) {
+				CompletionService<List<AbstractComponent>> loads = 
+						new ExecutorCompletionService<List<AbstractComponent>>(executor);
+				for (AbstractComponent component : level) {
+					loads.submit(new Load(component));
+				}
+				List<AbstractComponent> next = new ArrayList<AbstractComponent>();
+				for (int i = 0; i < level.size(); i++) {
+					for (AbstractComponent child : loads.take().get()) {
+						if (visited.add(child.getComponentId())) {
+							next.add(child);
+						}
+					}
+				}
+				level = next;
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	private static class Load implements Callable<List<AbstractComponent>> {
+		private final AbstractComponent component;
+		
+		public Load(AbstractComponent component) {
+			this.component = component;
+		}
+
+		@Override
+		public List<AbstractComponent> call() throws Exception {
+			return component.getComponents();
+		}
+	}
+}
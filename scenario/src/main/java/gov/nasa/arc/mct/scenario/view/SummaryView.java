@@ -58,9 +58,8 @@ import javax.swing.JPanel;
 
 public class SummaryView extends View {
 	private static final long serialVersionUID = -1683480883187742150L;
-	private int MAX_SAMPLES = 2 << 8;
-	private Map<String, Summary> costSummaries =
-			new HashMap<String, Summary>();
+	private static final int MAX_SAMPLES = 2 << 8;
+	private Map<String, Summary> costSummaries;
 	private TagSet highlighted = null;
 	
 	
@@ -70,17 +69,7 @@ public class SummaryView extends View {
 	public SummaryView(AbstractComponent ac, ViewInfo vi) {
 		super(ac,vi);
 
-		// Default to one-second samples
-		double sampleSize = 1000.0;
-		DurationCapability dc = ac.getCapability(DurationCapability.class);
-		if (dc != null) {
-			sampleSize = (double) (dc.getEnd() - dc.getStart()) / (double) MAX_SAMPLES;
-			if (sampleSize < 1.0) {
-				sampleSize = 1.0;
-			}
-		}
-		
-		summarize(ac, sampleSize, new HashSet<TagCapability>(), new HashSet<String>());		
+		costSummaries = summarize(ac);
 		
 		List<String> costNames = new ArrayList<String>();
 		costNames.addAll(costSummaries.keySet());
@@ -104,7 +93,30 @@ public class SummaryView extends View {
 	}
 		
 	
-	private void summarize(AbstractComponent ac, double sampleSize, Set<TagCapability> tagContext, Set<String> ignore) {
+	/**
+	 * Summarize the costs of a component and its descendants, 
+	 * broken down by the tags which apply to them.
+	 * @param ac the component to summarize
+	 * @return summaries of each cost, by cost name
+	 */
+	static Map<String, Summary> summarize(AbstractComponent ac) {
+		// Default to one-second samples
+		double sampleSize = 1000.0;
+		DurationCapability dc = ac.getCapability(DurationCapability.class);
+		if (dc != null) {
+			sampleSize = (double) (dc.getEnd() - dc.getStart()) / (double) MAX_SAMPLES;
+			if (sampleSize < 1.0) {
+				sampleSize = 1.0;
+			}
+		}
+		
+		Map<String, Summary> costSummaries = new HashMap<String, Summary>();
+		summarize(ac, sampleSize, new HashSet<TagCapability>(), new HashSet<String>(), costSummaries);
+		return costSummaries;
+	}
+	
+	private static void summarize(AbstractComponent ac, double sampleSize, Set<TagCapability> tagContext, 
+			Set<String> ignore, Map<String, Summary> costSummaries) {
 		boolean visitChildren = true;
 		Collection<CostFunctionCapability> costs;
 		if (ac instanceof CostFunctionComponent) {
@@ -154,7 +166,7 @@ public class SummaryView extends View {
 		if (visitChildren == true) {
 			for (AbstractComponent child : ac.getComponents()) {
 				if (!ignore.contains(child.getComponentId())) {
-					summarize(child, sampleSize, activeTagContext, ignore);
+					summarize(child, sampleSize, activeTagContext, ignore, costSummaries);
 				}
 			}
 		}
@@ -377,7 +389,7 @@ public class SummaryView extends View {
 		}
 	}
 	
-	private static class Summary {
+	static class Summary {
 		private String costName;
 		private double costTotal;
 		private Map<Set<TagCapability>,Set<TagCapability>> tagSets =
@@ -0,0 +1,70 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches the blocks of a timeline against those of a newly-loaded 
+ * version of the same timeline. Blocks are matched by value, using 
+ * a key which describes everything they display (for timelines, the 
+ * ids, versions, times, and depths of their activities), so a block 
+ * may be kept even when the components it was built from have been 
+ * replaced by fresh copies. Each block is matched at most once.
+ * 
+ * @param <K> the type of key describing a block's contents
+ * @param <B> the type of block
+ */
+class TimelineBlockMatcher<K, B> {
+	private final Map<K, List<B>> available = new HashMap<K, List<B>>();
+	
+	/**
+	 * Make a block available for reuse.
+	 * @param key a description of the block's contents
+	 * @param block the block
+	 */
+	public void add(K key, B block) {
+		List<B> blocks = available.get(key);
+		if (blocks == null) {
+			blocks = new ArrayList<B>(1);
+			available.put(key, blocks);
+		}
+		blocks.add(block);
+	}
+	
+	/**
+	 * Take a block whose contents match the given key. Blocks with 
+	 * equal keys are taken in the order they were added.
+	 * @param key a description of the contents needed
+	 * @return a matching block, or null if a new one must be built
+	 */
+	public B take(K key) {
+		List<B> blocks = available.get(key);
+		if (blocks == null || blocks.isEmpty()) {
+			return null;
+		}
+		return blocks.remove(0);
+	}
+}
@@ -69,6 +69,17 @@ public class TimelineDurationController extends MouseAdapter {
 		
 	}
 
+	/**
+	 * Point this controller at another copy of the activity it moves, 
+	 * as when the timeline reloads its activities.
+	 * @param dc the duration to change
+	 * @param constraints the constraint system that duration belongs to
+	 */
+	void rebind(DurationCapability dc, DurationConstraintSystem constraints) {
+		this.durationCapability = dc;
+		this.constraints = constraints;
+	}
+
 	/**
 	 * Utility method to clamp the difference in time related to a mouse drag to 
 	 * some appropriate time span (i.e. not off the edge of the timeline...)
@@ -162,6 +173,7 @@ public class TimelineDurationController extends MouseAdapter {
 			// allow one sub-activity to "jump" over its sibling.)
 			long timeStep = (long) (1 / parentView.getPixelScale());
 			
+			Set<AbstractComponent> moved = new HashSet<AbstractComponent>();
 			for (long t = 0; t <= Math.abs(tDiff); t+=timeStep) { 
 				long delta = (tDiff < 0 ? -1 : 1) *
 						((t == 0) ? (Math.abs(tDiff) % timeStep) : timeStep);
@@ -173,13 +185,19 @@ public class TimelineDurationController extends MouseAdapter {
 					durationCapability.setEnd(durationCapability.getEnd() + delta);
 				}
 				
-				changed.addAll(constraints.change(durationCapability, tDiff < 0 ? -1 : 1));
+				moved.addAll(constraints.change(durationCapability, tDiff < 0 ? -1 : 1));
 			}
+			changed.addAll(moved);
+			
+			Object src = e.getSource();
+			if (src instanceof View) {
+				moved.add(((View) src).getManifestedComponent());
+			}
+			parentView.durationsChanged(moved);
 			
 			parentView.revalidate();
 			parentView.repaint();
 			parentView.stateChanged(null);
-			Object src = e.getSource();
 			if (src instanceof Component) {
 				((Component) src).invalidate();
 				((Component) src).validate();
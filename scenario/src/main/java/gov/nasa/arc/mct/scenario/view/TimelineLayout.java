@@ -27,17 +27,17 @@ import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
 import java.awt.LayoutManager2;
+import java.awt.Rectangle;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
 
 import javax.swing.Timer;
@@ -48,6 +48,17 @@ import javax.swing.Timer;
  * reflect their start/end times, and for shifting components vertically 
  * (and animating this transition) to prevent them from overlapping.
  * 
+ * Row assignment itself is delegated to a TimelineRowPacker.
+ * 
+ * Entries may also be added without a component ("virtual" entries); 
+ * these take up space in the layout, but are drawn by the container 
+ * itself. A component added later with the same DurationCapability 
+ * takes the place of the virtual entry until it is removed again.
+ * 
+ * Entries are positioned horizontally from their current times on 
+ * every layout, but only move between rows once changes to their 
+ * times are reported via {@link #durationsChanged(Collection)}.
+ * 
  * @author vwoeltje
  *
  */
@@ -55,32 +66,44 @@ public class TimelineLayout implements LayoutManager2 {
 	private int rowHeight = 24;
 	private int rowPadding = 6;
 	private TimelineContext context;
-	private List<List<ComponentInfo>> rows = new ArrayList<List<ComponentInfo>>();
+	private TimelineRowPacker packer = new TimelineRowPacker();
 	
 	private Map<Component, ComponentInfo> componentInfo = new HashMap<Component, ComponentInfo>();
+	private Map<DurationCapability, ComponentInfo> virtualInfo = new HashMap<DurationCapability, ComponentInfo>();
+	private Map<DurationCapability, ComponentInfo> durationInfo = new HashMap<DurationCapability, ComponentInfo>();
 	private Set<ComponentInfo> animating = new HashSet<ComponentInfo>();
+	private Set<ComponentInfo> active = new HashSet<ComponentInfo>();
 	
 	private Timer animator = null;	
 	private boolean rowAssignmentsHandled = false;
+	private int order = 0;
 
-	private static class ComponentInfo {
+	private static class ComponentInfo extends TimelineRowPacker.Entry {
 		// Start and end times
 		private DurationCapability durationCapability;
 		
-		// Current row for the component
-		private int row = 0;
-		
 		// Current animation (vertical offset, in rows) for component
 		private float animation = 0f;
 		
-		// Order in which component was added
-		private int order;
-
+		// True if drawn by the container unless a component is present
+		private boolean virtual = false;
+		private boolean materialized = false;
+		
 		public ComponentInfo(DurationCapability durationCapability, int order) {
 			super();
 			this.durationCapability = durationCapability;
 			this.order = order;
 		}
+
+		@Override
+		long getStart() {
+			return durationCapability.getStart();
+		}
+
+		@Override
+		long getEnd() {
+			return durationCapability.getEnd();
+		}
 	}
 	
 	
@@ -95,13 +118,16 @@ public class TimelineLayout implements LayoutManager2 {
 
 	@Override
 	public void removeLayoutComponent(Component comp) {
-		if (componentInfo.containsKey(comp)) {
-			int row = componentInfo.get(comp).row;
-			rows.get(row).remove(comp);
-			animating.remove(componentInfo.get(comp));
-			componentInfo.remove(comp);
+		ComponentInfo info = componentInfo.remove(comp);
+		if (info != null && info.virtual) {
+			// Goes back to being drawn by the container; keeps its row
+			info.materialized = false;
+		} else if (info != null) {
+			durationInfo.remove(info.durationCapability);
+			packer.remove(info);
+			animating.remove(info);
+			rowAssignmentsHandled = false;
 		}
-		// TODO: Adjust other orders
 	}
 
 	@Override
@@ -116,21 +142,15 @@ public class TimelineLayout implements LayoutManager2 {
 
 	@Override
 	public void layoutContainer(final Container parent) {
-		int fullRowHeight = rowHeight + rowPadding;
-		
 		handleRowAssignments();
 		
 		// Lay out components temporally
+		Rectangle bounds = new Rectangle();
 		for (Component child : parent.getComponents()) {
 			ComponentInfo info = componentInfo.get(child);
-			if (componentInfo != null) {
-				int x = context.getLeftPadding() + (int) (context.getPixelScale() * (double) (info.durationCapability.getStart() - context.getTimeOffset()));
-				int width = (int) (context.getPixelScale() * (double) (info.durationCapability.getEnd() - info.durationCapability.getStart())) + 1;
-				
-				// Vertical offset due to row change animation
-				int animationOffset = (int) (fullRowHeight * info.animation);
-				
-				child.setBounds(x, info.row * fullRowHeight + animationOffset + rowPadding/2, width, rowHeight);					
+			if (info != null) {
+				computeBounds(info, bounds);
+				child.setBounds(bounds);					
 			}
 		}
 		
@@ -171,29 +191,151 @@ public class TimelineLayout implements LayoutManager2 {
 		rowAssignmentsHandled = false;
 	}
 
+	private void computeBounds(ComponentInfo info, Rectangle bounds) {
+		int fullRowHeight = rowHeight + rowPadding;
+		int x = context.getLeftPadding() + (int) (context.getPixelScale() * (double) (info.durationCapability.getStart() - context.getTimeOffset()));
+		int width = (int) (context.getPixelScale() * (double) (info.durationCapability.getEnd() - info.durationCapability.getStart())) + 1;
+		
+		// Vertical offset due to row change animation
+		int animationOffset = (int) (fullRowHeight * info.animation);
+		
+		bounds.setBounds(x, info.row * fullRowHeight + animationOffset + rowPadding/2, width, rowHeight);
+	}
+	
+	/**
+	 * Add an entry which has no component of its own. It will be assigned 
+	 * a row like any other component, but drawing it is left to the 
+	 * container. A component later added with the same DurationCapability 
+	 * as its constraint will be positioned in this entry's place.
+	 * @param durationCapability the start and end times of the entry
+	 */
+	public void addVirtualEntry(DurationCapability durationCapability) {
+		if (!virtualInfo.containsKey(durationCapability)) {
+			ComponentInfo info = new ComponentInfo(durationCapability, order++);
+			info.virtual = true;
+			virtualInfo.put(durationCapability, info);
+			packer.add(info);
+			rowAssignmentsHandled = false;
+		}
+	}
+	
+	/**
+	 * Replace the durations which position entries, as when the activities 
+	 * shown are reloaded. Entries keep their rows; components keep their 
+	 * places, and all entries are thereafter found by their new durations.
+	 * @param replacements new durations, keyed by the durations they replace
+	 */
+	public void replaceDurations(Map<DurationCapability, DurationCapability> replacements) {
+		virtualInfo = replaceDurations(virtualInfo, replacements);
+		durationInfo = replaceDurations(durationInfo, replacements);
+	}
+	
+	private Map<DurationCapability, ComponentInfo> replaceDurations(Map<DurationCapability, ComponentInfo> infos, 
+			Map<DurationCapability, DurationCapability> replacements) {
+		Map<DurationCapability, ComponentInfo> replaced = new HashMap<DurationCapability, ComponentInfo>();
+		for (ComponentInfo info : infos.values()) {
+			DurationCapability replacement = replacements.get(info.durationCapability);
+			if (replacement != null) {
+				info.durationCapability = replacement;
+				packer.moved(info); // New durations may differ
+				rowAssignmentsHandled = false;
+			}
+			replaced.put(info.durationCapability, info);
+		}
+		return replaced;
+	}
+	
+	/**
+	 * Note that the start or end times of some entries may have changed, 
+	 * such that they may need to move to a different row.
+	 * @param durations durations which may have changed; any which are 
+	 *        not shown in this layout are ignored
+	 */
+	public void durationsChanged(Collection<? extends DurationCapability> durations) {
+		for (DurationCapability dc : durations) {
+			ComponentInfo info = virtualInfo.get(dc);
+			if (info == null) {
+				info = durationInfo.get(dc);
+			}
+			if (info != null) {
+				packer.moved(info);
+				rowAssignmentsHandled = false;
+			}
+		}
+	}
+	
+	/**
+	 * Get all virtual entries, without components of their own, which 
+	 * overlap the specified time span. Results reflect times as of the 
+	 * last reported change.
+	 * @param start the start of the time span, in milliseconds
+	 * @param end the end of the time span, in milliseconds
+	 * @return virtual entries which need to be drawn for this span
+	 */
+	public List<DurationCapability> getVirtualEntries(long start, long end) {
+		if (virtualInfo.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<TimelineRowPacker.Entry> overlapping = new ArrayList<TimelineRowPacker.Entry>();
+		packer.findOverlapping(start, end, overlapping);
+		List<DurationCapability> result = new ArrayList<DurationCapability>();
+		for (TimelineRowPacker.Entry entry : overlapping) {
+			ComponentInfo info = (ComponentInfo) entry;
+			if (info.virtual && !info.materialized) {
+				result.add(info.durationCapability);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Get the virtual entry, without a component of its own, which is 
+	 * drawn at the specified point.
+	 * @param x the x coordinate, relative to the container
+	 * @param y the y coordinate, relative to the container
+	 * @return the entry at that point, or null if there is none
+	 */
+	public DurationCapability getVirtualEntryAt(int x, int y) {
+		double pixelScale = context.getPixelScale();
+		long time = context.getTimeOffset() + (long) ((x - context.getLeftPadding()) / pixelScale);
+		long margin = (long) (1.0 / pixelScale) + 1; // Allow for rounding to pixels
+		Rectangle bounds = new Rectangle();
+		for (DurationCapability dc : getVirtualEntries(time - margin, time + margin)) {
+			if (getBounds(dc, bounds) && bounds.contains(x, y)) {
+				return dc;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Get the position at which a virtual entry should be drawn.
+	 * @param durationCapability the entry's duration, as it was added
+	 * @param bounds a rectangle to populate with the entry's bounds
+	 * @return true if bounds were found; false if there is no such entry
+	 */
+	public boolean getBounds(DurationCapability durationCapability, Rectangle bounds) {
+		ComponentInfo info = virtualInfo.get(durationCapability);
+		if (info == null || info.row < 0) {
+			return false;
+		}
+		computeBounds(info, bounds);
+		return true;
+	}
+	
 	@Override
 	public void addLayoutComponent(Component comp, Object constraints) {
-		if (constraints instanceof DurationCapability) {
-			ComponentInfo info = new ComponentInfo((DurationCapability) constraints, componentInfo.size());
+		if (constraints instanceof DurationCapability && virtualInfo.containsKey(constraints)) {
+			// Take the place of the virtual entry
+			ComponentInfo info = virtualInfo.get(constraints);
+			info.materialized = true;
 			componentInfo.put(comp, info);
-
-			// Find a row with room for this component
-			int row = 0;
-			while (row < rows.size()) {
-				boolean fits = true;
-				for (ComponentInfo c : rows.get(row)) {
-					if (overlaps(c,info)) {
-						fits = false;
-						break;
-					}
-				}
-				if (fits) {
-					break;
-				} else {
-					row++;
-				}
-			}
-			setRow(info, row, false); // Will get sorted during layout
+		} else if (constraints instanceof DurationCapability) {
+			ComponentInfo info = new ComponentInfo((DurationCapability) constraints, order++);
+			componentInfo.put(comp, info);
+			durationInfo.put(info.durationCapability, info);
+			packer.add(info); // Row will be assigned during layout
+			rowAssignmentsHandled = false;
 		} else {
 			throw new IllegalArgumentException("Only valid constraint for " + getClass().getName() + 
 					" is " + DurationCapability.class.getName());
@@ -221,15 +363,22 @@ public class TimelineLayout implements LayoutManager2 {
 	
 	private void handleRowAssignments() {
 		if (!rowAssignmentsHandled) {
-			// Fix row assignments
-			for (List<ComponentInfo> row : rows) {
-				Collections.sort(row, comparator);
-			}
-			for (int i = 0; i < rows.size(); i++) {
-				cleanupRow(i);
+			// Views being manipulated by the user keep their rows
+			active.clear();
+			for (Component c : context.getActiveViews()) {
+				ComponentInfo info = componentInfo.get(c);
+				if (info != null) {
+					active.add(info);
+				}
 			}
-			for (int i = 1; i < rows.size(); i++) {
-				packRow(i);
+			
+			// Only components whose row actually changed are reported
+			for (TimelineRowPacker.Entry entry : packer.pack(active)) {
+				ComponentInfo info = (ComponentInfo) entry;
+				if (info.previousRow >= 0) { // Newly-added components just appear
+					info.animation += (float) (info.previousRow - info.row);
+					animating.add(info);
+				}
 			}
 			
 			rowAssignmentsHandled = true;
@@ -239,13 +388,18 @@ public class TimelineLayout implements LayoutManager2 {
 	private int getHeight() {
 		int fullRowHeight = rowHeight + rowPadding;
 		
-		// TODO: Compute this only on changes?
 		handleRowAssignments();
 		
 		// Find maximum row that is not being animated to
-		int bestRow = rows.size() - 1;
-		while (bestRow > 0 && !containsUnanimatedComponents(bestRow)) {
-			bestRow--;
+		int bestRow = packer.getRowCount() > 0 ? 0 : -1;
+		if (animating.isEmpty()) {
+			bestRow = packer.getRowCount() - 1;
+		} else {
+			for (ComponentInfo info : componentInfo.values()) {
+				if (info.row > bestRow && !animating.contains(info)) {
+					bestRow = info.row;
+				}
+			}
 		}
 		int desiredHeight = (bestRow + 1) * fullRowHeight;
 		for (ComponentInfo info : animating) {
@@ -256,142 +410,6 @@ public class TimelineLayout implements LayoutManager2 {
 		return desiredHeight;
 	}
 	
-	private boolean containsUnanimatedComponents(int row) {
-		for (ComponentInfo c : rows.get(row)) {
-			if (!animating.contains(c)) {
-				return true;
-			}				
-		}
-		return false;
-	}
-			
-	private void setRow(ComponentInfo info, int row, boolean animated) {
-		// This will be -1 by default, to indicate "unset"
-		int original = info.row;
-		info.row = row;
-		
-		while (rows.size() <= row) {
-			rows.add(new ArrayList<ComponentInfo>());
-		}
-		if (rows.size() > original) {
-			rows.get(original).remove(info);
-		}
-		rows.get(row).add(info);
-		
-		if (original != row && animated) {
-			info.animation += (float) (original - row);			
-			animating.add(info);
-		}
-	}
-	
-	private List<ComponentInfo> fixList = new ArrayList<ComponentInfo>();
-	
-	private void cleanupRow(int row) {
-		Set<Component> active = context.getActiveViews();
-		List<ComponentInfo> comps = rows.get(row);
-		
-		// Identify comps which should be pushed down a row
-		for (int i = 0; i < comps.size(); i++) {
-			ComponentInfo c1 = comps.get(i);
-			for (int j = i + 1; j < comps.size(); j++) {
-				ComponentInfo c2 = comps.get(j);
-				if (!c1.equals(c2)) {
-					ComponentInfo toMove = toMove(c1, c2);
-					if (toMove != null) {
-						if (!active.contains(toMove)) {
-							fixList.add(toMove);
-						} else {
-							fixList.add(toMove.equals(c1) ? c2 : c1);
-						}
-					} else {
-						break; // c1 is clear
-					}
-				}
-			}
-		}
-		
-		// Push them
-		for (ComponentInfo c : fixList) {
-			setRow(c, row + 1, true);
-		}
-		
-		// Make sure row is sorted before subsequent cleanupRow
-		if (!fixList.isEmpty()) {
-			Collections.sort(rows.get(row + 1), comparator);
-		}
-		
-		// Clear out the list to reuse later
-		fixList.clear();
-	}
-	
-	private Map<ComponentInfo, Integer> fixMap = new HashMap<ComponentInfo, Integer>();
-	
-	/*
-	 * We assume cleanupRow has already been called for all rows, 
-	 * such that any two components on same row don't overlap
-	 */
-	private void packRow(int row) {
-		Set<Component> active = context.getActiveViews();
-		List<ComponentInfo> current = rows.get(row);
-		for (ComponentInfo c1 : current) {
-			if (!active.contains(c1)) {
-				outer: for (int other = row - 1; other >= 0; other--) {
-					List<ComponentInfo> above = rows.get(other);
-
-					for (ComponentInfo c2 : above) {
-						if (c1 != c2 && overlaps(c1, c2)) {
-							break outer;
-						}
-					}
-					
-					// If control reaches here, this fits
-					fixMap.put(c1, other);
-				}
-			}
-		}
-
-		for (Entry<ComponentInfo, Integer> fix : fixMap.entrySet()) {
-			setRow(fix.getKey(), fix.getValue(), true);
-		}
-		fixMap.clear();
-
-	}
-	
-	private ComponentInfo toMove(ComponentInfo c1, ComponentInfo c2) {
-		if (!overlaps(c1, c2)) {
-			return null;
-		}
-		
-		// Prefer to move the most recently-added component downward
-		if (c1.order < c2.order) {
-			return c2;
-		} else if (c2.order < c1.order) {
-			return c1;
-		}
-		
-		// Probably unreachable, but fall back to moving larger activities
-		// if that is necessary
-		DurationCapability d1 = c1.durationCapability;
-		DurationCapability d2 = c2.durationCapability;
-		return (d1.getEnd() - d1.getStart() > d2.getEnd() - d2.getStart()) ? c2 : c1;
-	}
-	
-	private boolean overlaps(ComponentInfo c1, ComponentInfo c2) {
-		DurationCapability d1 = c1.durationCapability;
-		DurationCapability d2 = c2.durationCapability;
-		return (d1.getEnd() > d2.getStart() && d2.getEnd() > d1.getStart());
-	}
-	
-	private static final Comparator<ComponentInfo> comparator = new Comparator<ComponentInfo>() {
-		@Override
-		public int compare(ComponentInfo c1, ComponentInfo c2) {
-			long s1 = c1.durationCapability.getStart();
-			long s2 = c2.durationCapability.getStart();
-			return (int) Math.signum(s1 - s2);
-		}
-		
-	};
-	
 	/**
 	 * Used to convey start/end times etc to a timeline layout
 	 *
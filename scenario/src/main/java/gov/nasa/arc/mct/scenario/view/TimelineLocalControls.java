@@ -42,9 +42,6 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.beans.PropertyChangeListener;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -80,8 +77,6 @@ public class TimelineLocalControls extends JPanel implements DurationCapability,
 	public static final int LEFT_MARGIN = 80;
 	public static final int RIGHT_MARGIN = 20;
 	
-	private static final NumberFormat FORMAT = new DecimalFormat();
-	
 	private static final double ZOOM_MAX_POWER = 7; // 2 ^ 7
 	private static final int SLIDER_MAX = 10000; // For finer resolution
 	private static final int TICK_AREA_HEIGHT = 40;
@@ -539,25 +534,15 @@ public class TimelineLocalControls extends JPanel implements DurationCapability,
 		private boolean isActive = false;
 		private int x = 0;
 		
-		private List<Component> costComponents = new ArrayList<Component>();
-		
-		private void findCostComponentsIn(Container container) {
-			if (container instanceof CostOverlay) {
-				costComponents.add(container);
-			}
-			for (Component c : container.getComponents()) {
-				if (c instanceof Container) {
-					findCostComponentsIn((Container) c);
-				}
-			}
-		}
+		// Positions and cost tables, captured when the overlay is activated
+		private CostOverlayIndex index = null;
 		
 		@Override
 		public void mousePressed(MouseEvent e) {
 			isActive = true;
 			setVisible(true);
 			x = e.getX();
-			findCostComponentsIn(contentPane);
+			index = new CostOverlayIndex(contentPane, getFontMetrics(getFont()));
 			repaint();
 		}
 
@@ -565,36 +550,34 @@ public class TimelineLocalControls extends JPanel implements DurationCapability,
 		public void mouseReleased(MouseEvent e) {
 			isActive = false;
 			setVisible(false);
-			costComponents.clear();
+			index = null;
 			repaint();
 		}
 
 		@Override
 		public void mouseDragged(MouseEvent e) {
-			x = e.getX();
-			repaint();
+			moveTo(e.getX());
 		}
 
 		@Override
 		public void mouseMoved(MouseEvent e) {
-			x = e.getX();
-			repaint();
+			moveTo(e.getX());
 		}
-
-		private int getXRelativeToContentPane(Component c) {
-			if (c == contentPane || c == null) {
-				return 0;
+		
+		private void moveTo(int newX) {
+			if (isActive && newX != x) {
+				// Only the areas under the old and new cursor need to change
+				repaintStrip(x);
+				x = newX;
+				repaintStrip(x);
 			} else {
-				return getXRelativeToContentPane(c.getParent()) + c.getX();
+				x = newX;
 			}
 		}
 		
-		private int getYRelativeToContentPane(Component c) {
-			if (c == contentPane || c == null) {
-				return 0;
-			} else {
-				return getYRelativeToContentPane(c.getParent()) + c.getY();
-			}
+		private void repaintStrip(int x) {
+			int labelWidth = index != null ? index.getMaxLabelWidth() + 4 : 0;
+			repaint(x + getLeftPadding(), 0, labelWidth + 1, getHeight());
 		}
 		
 		public void paintComponent(Graphics g) {
@@ -603,26 +586,19 @@ public class TimelineLocalControls extends JPanel implements DurationCapability,
 				g.fillRect(x + getLeftPadding(),0,1,getHeight());
 				long time = (long) (x / getPixelScale()) + getTimeOffset();
 				FontMetrics metrics = g.getFontMetrics(g.getFont());
-				for (Component c : costComponents) {
-					if (c instanceof CostOverlay && c.isShowing()) {
-						int compX = getXRelativeToContentPane(c);
-						if (compX <= x+getLeftPadding() && compX + c.getWidth() >= x+getLeftPadding()) {
-							List<CostFunctionCapability> costs = ((CostOverlay) c).getCostFunctions();
-							String costString = "";
-							for (CostFunctionCapability cost : costs) {
-								costString += FORMAT.format(cost.getValue(time)) + "" + cost.getUnits() + " ";
-							}
-							if (!costString.isEmpty()) {
-								int leftX = x + getLeftPadding();
-								int centerY = getYRelativeToContentPane(c) + c.getHeight() / 2;
-								int width = metrics.stringWidth(costString);
-								int height = metrics.getHeight() * 3 / 2;
-								g.setColor(OVERLAY_COLOR);
-								
-								g.fillRect(leftX, centerY - height/2, width + 4, height);
-								g.setColor(OVERLAY_TEXT_COLOR);								
-								g.drawString(costString, leftX + 2, centerY + metrics.getAscent() / 2 - 1);
-							}
+				int leftX = x + getLeftPadding();
+				if (index != null) {
+					for (int i = index.first(leftX); i < index.size() && index.getX(i) <= leftX; i++) {
+						if (index.contains(i, leftX)) {
+							String costString = index.getLabel(i, time);
+							int centerY = index.getCenterY(i);
+							int width = index.getLabelWidth(i, time);
+							int height = metrics.getHeight() * 3 / 2;
+							g.setColor(OVERLAY_COLOR);
+							
+							g.fillRect(leftX, centerY - height/2, width + 4, height);
+							g.setColor(OVERLAY_TEXT_COLOR);								
+							g.drawString(costString, leftX + 2, centerY + metrics.getAscent() / 2 - 1);
 						}
 					}
 				}
@@ -859,6 +835,11 @@ public class TimelineLocalControls extends JPanel implements DurationCapability,
 				return;
 			}			
 		}
+		if (comp instanceof AbstractTimelineView) {
+			// Nested timelines may need to create a view before it can be selected
+			((AbstractTimelineView) comp).selectComponent(id);
+			return;
+		}
 		if (comp instanceof Container) { //Not found, keep searching
 			for (Component child : ((Container) comp).getComponents()) {
 				searchAndSelect(child, id);
@@ -25,9 +25,12 @@ import gov.nasa.arc.mct.components.AbstractComponent;
 import gov.nasa.arc.mct.components.ObjectManager;
 import gov.nasa.arc.mct.scenario.component.DurationCapability;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 /**
@@ -39,8 +42,11 @@ import java.util.Set;
  * of unsaved changes (during the constructor call), then 
  * taking other component (typically fresh-from-persistence) 
  * and applying those unsaved changes, effectively to 
- * restore them.
- * 
+ * restore them. When given the component containing the
+ * changes, the handler also records the path to each changed
+ * object, so that a merge only visits those paths rather
+ * than the whole tree.
+ *
  * Currently only start and end times are handled in this 
  * process. Changes to costs, base displayed name, et 
  * cetera will be lost upon a merge.
@@ -61,6 +67,8 @@ import java.util.Set;
 public class TimelineMergeHandler {
 	private Map<String, DurationCapability> dirtyDurations = 
 			new HashMap<String, DurationCapability>();
+	private Map<String, List<String>> dirtyPaths = 
+			new HashMap<String, List<String>>();
 	
 	/**
 	 * Create a new merge handler with a snapshot of unsaved 
@@ -77,6 +85,39 @@ public class TimelineMergeHandler {
 		}
 	}
 	
+	/**
+	 * Create a new merge handler with a snapshot of unsaved 
+	 * changes to a specific object and its descendants, additionally 
+	 * recording where each changed object appears beneath the given 
+	 * root. Updates can then go directly to the changed objects, 
+	 * instead of visiting every descendant of the updated component.
+	 * @param dirtyParent the object whose changes should be tracked
+	 * @param root the (already loaded) component containing the changes
+	 */
+	public TimelineMergeHandler(ObjectManager dirtyParent, AbstractComponent root) {
+		this(dirtyParent);
+		if (!dirtyDurations.isEmpty()) {
+			indexPaths(root, new ArrayList<String>(), new HashSet<String>());
+		}
+	}
+	
+	private void indexPaths(AbstractComponent component, List<String> path, Set<String> ignore) {
+		String id = component.getComponentId();
+		if (ignore.add(id)) {
+			if (dirtyDurations.containsKey(id)) {
+				dirtyPaths.put(id, new ArrayList<String>(path));
+			}
+			for (AbstractComponent child : component.getComponents()) {
+				if (dirtyPaths.size() == dirtyDurations.size()) {
+					return; // Found everything
+				}
+				path.add(child.getComponentId());
+				indexPaths(child, path, ignore);
+				path.remove(path.size() - 1);
+			}
+		}
+	}
+	
 	/**
 	 * Visit this component and its descendants, restoring any 
 	 * unsaved start/end time changes associated with a component 
@@ -85,47 +126,89 @@ public class TimelineMergeHandler {
 	 */
 	public boolean update(AbstractComponent otherParent) {
 		AbstractComponent delegate = otherParent.getWorkUnitDelegate();
-		return update(delegate != null ? delegate : otherParent, 
-				otherParent, new HashSet<String>());
+		AbstractComponent parent = delegate != null ? delegate : otherParent;
+		
+		// Go directly to changed objects, where their locations are known
+		boolean updated = false;
+		Map<String, DurationCapability> unresolved = 
+				new HashMap<String, DurationCapability>(dirtyDurations);
+		for (Entry<String, List<String>> entry : dirtyPaths.entrySet()) {
+			AbstractComponent component = resolve(otherParent, entry.getValue());
+			if (component != null && entry.getKey().equals(component.getComponentId())) {
+				updated |= restore(parent, component, unresolved.remove(entry.getKey()));
+			}
+		}
+		
+		// Search for any others (moved, or not indexed)
+		if (!unresolved.isEmpty()) {
+			updated |= update(parent, otherParent, unresolved, new HashSet<String>());
+		}
+		return updated;
 	}
 	
-	private boolean update(AbstractComponent parent, AbstractComponent component, Set<String> ignore) {
+	private AbstractComponent resolve(AbstractComponent root, List<String> path) {
+		AbstractComponent component = root;
+		for (String id : path) {
+			AbstractComponent next = null;
+			for (AbstractComponent child : component.getComponents()) {
+				if (id.equals(child.getComponentId())) {
+					next = child;
+					break;
+				}
+			}
+			if (next == null) {
+				return null;
+			}
+			component = next;
+		}
+		return component;
+	}
+	
+	private boolean update(AbstractComponent parent, AbstractComponent component, 
+			Map<String, DurationCapability> unresolved, Set<String> ignore) {
 		boolean updated = false;
 		String id = component.getComponentId();
 		if (!ignore.contains(id)) {
 			ignore.add(id);
 			
 			// Are there unsaved changes that we want to restore?
-			if (dirtyDurations.containsKey(id)) {
-				DurationCapability dirty = dirtyDurations.get(id);
-				DurationCapability clean = component.getCapability(DurationCapability.class);
-				// Replace start and end with user's unsaved changes
-				if (clean != null) {
-					// DurationCapability will prohibit start > end, 
-					// so be careful about ordering changes.
-					if (clean.getStart() < dirty.getStart()) {
-						clean.setEnd(dirty.getEnd());
-						clean.setStart(dirty.getStart());
-					} else {
-						clean.setStart(dirty.getStart());
-						clean.setEnd(dirty.getEnd());						
-					}
-					// Make sure the component still appears dirty
-					component.save();
-					ObjectManager om = parent.getCapability(ObjectManager.class);
-					if (om != null) {
-						om.addModifiedObject(component);
-					}
-					// Report that we did update a component
-					updated = true;
-				}
+			if (unresolved.containsKey(id)) {
+				updated = restore(parent, component, unresolved.remove(id));
 			}
 			
 			// Visit children
 			for (AbstractComponent child : component.getComponents()) {
-				updated |= update(parent, child, ignore);
+				if (unresolved.isEmpty()) {
+					break; // Nothing left to find
+				}
+				updated |= update(parent, child, unresolved, ignore);
 			}
 		}
 		return updated;
 	}
+	
+	private boolean restore(AbstractComponent parent, AbstractComponent component, DurationCapability dirty) {
+		DurationCapability clean = component.getCapability(DurationCapability.class);
+		// Replace start and end with user's unsaved changes
+		if (clean != null) {
+			// DurationCapability will prohibit start > end, 
+			// so be careful about ordering changes.
+			if (clean.getStart() < dirty.getStart()) {
+				clean.setEnd(dirty.getEnd());
+				clean.setStart(dirty.getStart());
+			} else {
+				clean.setStart(dirty.getStart());
+				clean.setEnd(dirty.getEnd());						
+			}
+			// Make sure the component still appears dirty
+			component.save();
+			ObjectManager om = parent.getCapability(ObjectManager.class);
+			if (om != null) {
+				om.addModifiedObject(component);
+			}
+			// Report that we did update a component
+			return true;
+		}
+		return false;
+	}
 }
@@ -0,0 +1,437 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * Assigns time spans to rows such that no two spans in the same row 
+ * overlap. Rows are assigned by sweeping over spans in order of start 
+ * time, keeping a heap of occupied rows (ordered by end time) and a 
+ * heap of free rows (ordered by index); each span takes the lowest 
+ * free row. This is O(n log n) in the number of spans.
+ * 
+ * Assignments are retained between passes, and spans are kept sorted 
+ * as they are added, removed, or reported as moved. A subsequent pack 
+ * only re-sweeps from the earliest time touched by such a change (or 
+ * by a span becoming fixed or unfixed); everything which starts before 
+ * that keeps its row, and is not revisited. Spans whose times change 
+ * without being reported via {@link #moved(Entry)} keep their rows 
+ * until they are.
+ * 
+ * Spans may be "fixed" (for instance, because the user is dragging 
+ * them); these keep their current row, and other spans are assigned 
+ * around them. Fixed spans are re-read on every pack.
+ *
+ */
+class TimelineRowPacker {
+	private TreeSet<Entry> entries = new TreeSet<Entry>(START_COMPARATOR);
+	private List<Entry> fixed = new ArrayList<Entry>();
+	private List<Entry> nextFixed = new ArrayList<Entry>();
+	private List<Entry> changed = new ArrayList<Entry>();
+	private PriorityQueue<Entry> occupied = new PriorityQueue<Entry>(11, END_COMPARATOR);
+	private PriorityQueue<Integer> free = new PriorityQueue<Integer>();
+	private boolean[] inFree = new boolean[16]; // Rows currently queued in free
+	private int[] rowSizes = new int[16]; // Number of entries assigned to each row
+	private List<Integer> skipped = new ArrayList<Integer>();
+	
+	// Earliest time touched by changes since the last pass, and the 
+	// span over which fixed entries have changed
+	private long pendingTime = Long.MAX_VALUE;
+	private long fixedLow = Long.MAX_VALUE;
+	private long fixedHigh = Long.MIN_VALUE;
+	
+	// No entry has been longer than this; bounds searches by start time
+	private long maxDuration = 0;
+	private int rowCount = 0;
+	private int sequence = 0;
+	
+	/**
+	 * A span of time to be assigned to a row.
+	 */
+	static abstract class Entry {
+		// Current row; -1 until first assigned
+		int row = -1;
+		
+		// Row before the most recent pack
+		int previousRow = -1;
+		
+		// Order in which entry was added; breaks ties in start time
+		int order;
+
+		// Start, end, and fixed-ness as last seen by the packer
+		private long start;
+		private long end;
+		private boolean isFixed;
+		
+		// Breaks any remaining ties, so that entries sort uniquely
+		private int sequence;
+		private boolean added;
+		
+		/**
+		 * Get the current start time of this span.
+		 * @return start time, in milliseconds
+		 */
+		abstract long getStart();
+		
+		/**
+		 * Get the current end time of this span.
+		 * @return end time, in milliseconds
+		 */
+		abstract long getEnd();
+	}
+	
+	/**
+	 * Add a span to be packed. It will receive a row upon the next pack.
+	 * @param entry the span to add
+	 */
+	void add(Entry entry) {
+		if (entry.added) {
+			return;
+		}
+		entry.start = entry.getStart();
+		entry.end = entry.getEnd();
+		entry.isFixed = false;
+		entry.row = -1;
+		entry.sequence = sequence++;
+		entry.added = true;
+		entries.add(entry);
+		maxDuration = Math.max(maxDuration, entry.end - entry.start);
+		pendingTime = Math.min(pendingTime, entry.start);
+	}
+	
+	/**
+	 * Remove a span; this may free space for others upon the next pack.
+	 * @param entry the span to remove
+	 */
+	void remove(Entry entry) {
+		if (entry.added) {
+			entries.remove(entry);
+			entry.added = false;
+			if (entry.row >= 0) {
+				rowSizes[entry.row]--;
+			}
+			if (entry.isFixed) {
+				fixed.remove(entry);
+				entry.isFixed = false;
+				touchFixed(entry.start, entry.end);
+			}
+			pendingTime = Math.min(pendingTime, entry.start);
+		}
+	}
+	
+	/**
+	 * Note that a span's start or end time may have changed. It will be 
+	 * moved to a suitable row upon the next pack.
+	 * @param entry the span which may have moved
+	 */
+	void moved(Entry entry) {
+		long start = entry.getStart();
+		long end = entry.getEnd();
+		if (!entry.added || (start == entry.start && end == entry.end)) {
+			return;
+		}
+		entries.remove(entry);
+		pendingTime = Math.min(pendingTime, Math.min(start, entry.start));
+		if (entry.isFixed) {
+			touchFixed(Math.min(start, entry.start), Math.max(end, entry.end));
+		}
+		entry.start = start;
+		entry.end = end;
+		entries.add(entry);
+		maxDuration = Math.max(maxDuration, end - start);
+	}
+	
+	/**
+	 * Get the number of rows used as of the most recent pack.
+	 * @return the number of rows in use
+	 */
+	int getRowCount() {
+		return rowCount;
+	}
+	
+	/**
+	 * Find spans which overlap (or touch) a time span, as of the 
+	 * times last seen by the packer.
+	 * @param start the start of the time span, in milliseconds
+	 * @param end the end of the time span, in milliseconds
+	 * @param result a collection to which overlapping spans are added
+	 */
+	void findOverlapping(long start, long end, Collection<? super Entry> result) {
+		for (Entry e : entries.tailSet(at(start - maxDuration))) {
+			if (e.start > end) {
+				break;
+			}
+			if (e.end >= start) {
+				result.add(e);
+			}
+		}
+	}
+	
+	/**
+	 * Update row assignments to reflect any changes since the last pack.
+	 * @param fixedEntries spans which should keep their current rows
+	 * @return spans whose row changed (valid until the next pack)
+	 */
+	List<Entry> pack(Collection<? extends Entry> fixedEntries) {
+		changed.clear();
+		
+		// Fixed entries are usually being dragged, so check them every time
+		nextFixed.clear();
+		for (Entry e : fixedEntries) {
+			if (e.added && e.row >= 0) {
+				if (!e.isFixed) {
+					e.isFixed = true;
+					touchFixed(e.start, e.end);
+				}
+				moved(e);
+				nextFixed.add(e);
+			}
+		}
+		for (Entry e : fixed) {
+			if (!fixedEntries.contains(e)) {
+				e.isFixed = false;
+				touchFixed(e.start, e.end);
+			}
+		}
+		List<Entry> swap = fixed;
+		fixed = nextFixed;
+		nextFixed = swap;
+		
+		// Find the earliest time touched by any change
+		long time = pendingTime;
+		
+		// Earlier entries may have been routed around a fixed entry 
+		// which has since moved or been released; revisit those, too
+		if (fixedLow < fixedHigh) {
+			for (Entry e : entries.tailSet(at(fixedLow - maxDuration))) {
+				if (e.start >= fixedHigh || e.start >= time) {
+					break;
+				}
+				if (e.end > fixedLow) {
+					time = e.start;
+					break;
+				}
+			}
+		}
+		pendingTime = Long.MAX_VALUE;
+		fixedLow = Long.MAX_VALUE;
+		fixedHigh = Long.MIN_VALUE;
+		if (time == Long.MAX_VALUE) {
+			return changed; // Nothing to do
+		}
+		
+		// Anything starting earlier keeps its row, unless it 
+		// now collides with a fixed entry
+		for (int i = 0; i < fixed.size(); i++) {
+			Entry f = fixed.get(i);
+			for (Entry e : entries.tailSet(at(f.start - maxDuration))) {
+				if (e.start >= time || e.start >= f.end) {
+					break;
+				}
+				if (!e.isFixed && e.row == f.row && e.end > f.start) {
+					time = e.start;
+					break;
+				}
+			}
+		}
+		
+		// Restore the state of the sweep as of that time; only entries 
+		// starting within the longest duration of it can still be running
+		occupied.clear();
+		free.clear();
+		Arrays.fill(inFree, false);
+		Iterator<Entry> earlier = entries.headSet(at(time), false).descendingIterator();
+		while (earlier.hasNext()) {
+			Entry e = earlier.next();
+			if (e.start <= time - maxDuration) {
+				break;
+			}
+			if (e.end > time) {
+				occupied.add(e);
+			}
+		}
+		boolean[] busy = new boolean[rowCount];
+		for (Entry e : occupied) {
+			busy[e.row] = true;
+		}
+		for (int row = 0; row < rowCount; row++) {
+			if (!busy[row]) {
+				release(row);
+			}
+		}
+
+		// Sweep forward from there
+		for (Entry e : entries.tailSet(at(time))) {
+			while (!occupied.isEmpty() && occupied.peek().end <= e.start) {
+				// Overlapping fixed entries may share a row; queue it once
+				release(occupied.poll().row);
+			}
+			
+			int row;
+			if (e.isFixed) {
+				row = e.row;
+				while (rowCount <= row) {
+					release(rowCount++);
+				}
+				claim(row);
+			} else {
+				row = takeRow(e);
+			}
+			occupied.add(e);
+			
+			e.previousRow = e.row;
+			if (e.row != row) {
+				if (e.row >= 0) {
+					rowSizes[e.row]--;
+				}
+				e.row = row;
+				if (row >= rowSizes.length) {
+					rowSizes = Arrays.copyOf(rowSizes, Math.max(row + 1, rowSizes.length * 2));
+				}
+				rowSizes[row]++;
+				changed.add(e);
+			}
+		}
+		
+		// Trailing rows may have emptied out
+		while (rowCount > 0 && rowSizes[rowCount - 1] == 0) {
+			rowCount--;
+		}
+		
+		return changed;
+	}
+	
+	private void touchFixed(long start, long end) {
+		fixedLow = Math.min(fixedLow, start);
+		fixedHigh = Math.max(fixedHigh, end);
+		pendingTime = Math.min(pendingTime, start);
+	}
+	
+	private int takeRow(Entry e) {
+		int row = -1;
+		while (row < 0 && !free.isEmpty()) {
+			int candidate = free.poll();
+			inFree[candidate] = false;
+			if (isReserved(candidate, e.start, e.end)) {
+				skipped.add(candidate);
+			} else {
+				row = candidate;
+			}
+		}
+		while (row < 0) {
+			int candidate = rowCount++;
+			if (isReserved(candidate, e.start, e.end)) {
+				skipped.add(candidate);
+			} else {
+				row = candidate;
+			}
+		}
+		for (int i = 0; i < skipped.size(); i++) {
+			release(skipped.get(i));
+		}
+		skipped.clear();
+		return row;
+	}
+	
+	private void release(int row) {
+		if (row >= inFree.length) {
+			inFree = Arrays.copyOf(inFree, Math.max(row + 1, inFree.length * 2));
+		}
+		if (!inFree[row]) {
+			inFree[row] = true;
+			free.add(row);
+		}
+	}
+	
+	private void claim(int row) {
+		if (row < inFree.length && inFree[row]) {
+			inFree[row] = false;
+			free.remove(row);
+		}
+	}
+	
+	private boolean isReserved(int row, long start, long end) {
+		for (int i = 0; i < fixed.size(); i++) {
+			Entry f = fixed.get(i);
+			if (f.row == row && f.end > start && end > f.start) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	private static final Comparator<Entry> START_COMPARATOR = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry a, Entry b) {
+			if (a.start != b.start) {
+				return a.start < b.start ? -1 : 1;
+			}
+			if (a.order != b.order) {
+				return a.order < b.order ? -1 : 1;
+			}
+			return a.sequence < b.sequence ? -1 : (a.sequence > b.sequence ? 1 : 0);
+		}
+	};
+	
+	private static final Comparator<Entry> END_COMPARATOR = new Comparator<Entry>() {
+		@Override
+		public int compare(Entry a, Entry b) {
+			return a.end < b.end ? -1 : (a.end > b.end ? 1 : 0);
+		}
+	};
+	
+	/**
+	 * Get a key which sorts before every entry starting at the same 
+	 * time or later, for use with subsets of entries.
+	 * @param time the time, in milliseconds
+	 * @return a key for that time
+	 */
+	private static Entry at(long time) {
+		return new Probe(time);
+	}
+	
+	private static class Probe extends Entry {
+		private Probe(long time) {
+			order = Integer.MIN_VALUE;
+			super.sequence = Integer.MIN_VALUE;
+			super.start = time;
+		}
+		
+		@Override
+		long getStart() {
+			return super.start;
+		}
+
+		@Override
+		long getEnd() {
+			return super.start;
+		}
+	}
+}
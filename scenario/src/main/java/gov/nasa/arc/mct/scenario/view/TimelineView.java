@@ -24,10 +24,11 @@ package gov.nasa.arc.mct.scenario.view;
 import gov.nasa.arc.mct.components.AbstractComponent;
 import gov.nasa.arc.mct.gui.View;
 import gov.nasa.arc.mct.platform.spi.PlatformAccess;
-import gov.nasa.arc.mct.scenario.component.ActivityComponent;
+import gov.nasa.arc.mct.scenario.component.CostConflictDetector;
 import gov.nasa.arc.mct.scenario.component.CostFunctionCapability;
 import gov.nasa.arc.mct.scenario.component.DurationCapability;
 import gov.nasa.arc.mct.scenario.component.DurationConstraintSystem;
+import gov.nasa.arc.mct.scenario.util.DurationFormatter;
 import gov.nasa.arc.mct.scenario.view.TimelineLayout.TimelineContext;
 import gov.nasa.arc.mct.services.component.ViewInfo;
 import gov.nasa.arc.mct.services.component.ViewType;
@@ -36,21 +37,37 @@ import gov.nasa.arc.mct.services.internal.component.ComponentInitializer;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
+import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.ResourceBundle;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BoxLayout;
+import javax.swing.JComponent;
+import javax.swing.JLabel;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.AncestorEvent;
 import javax.swing.event.AncestorListener;
 import javax.swing.event.ChangeEvent;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
  * A view of an object showing time-based objects (Activities) laid out 
  * horizontally according to time, divided into rows. 
@@ -62,11 +79,37 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 	static final ViewInfo VIEW_INFO = new ViewInfo(TimelineView.class, "Timeline", ViewType.EMBEDDED);
 
 	private static final long serialVersionUID = -5039383350178424964L;
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
+	private static final Logger LOGGER = LoggerFactory.getLogger(TimelineView.class);
+	
+	// Beyond this many activities, draw activities directly instead of creating views for them
+	private static final int VIRTUALIZATION_THRESHOLD = 250;
 	
 	private JPanel upperPanel = new JPanel();
 	private Color backgroundColor = Color.WHITE;
 	private View  costGraph = null;
+	private CostConflictStrip conflictStrip = null;
 	private List<DurationConstraintSystem> constraints = new ArrayList<DurationConstraintSystem>();
+	private ConstraintWorker constraintWorker = null;
+	private RefreshWorker refreshWorker = null;
+	private boolean virtualized = false;
+	private JLabel placeholder = null;
+	private ActivityEntry hoveredEntry = null;
+	private ActivityEntry selectedEntry = null;
+	
+	// Views being dragged by the user, which keep their rows until released
+	private Set<Component> activeViews = new HashSet<Component>();
+	private final MouseAdapter activeViewTracker = new MouseAdapter() {
+		@Override
+		public void mousePressed(MouseEvent e) {
+			activeViews.add(e.getComponent());
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent e) {
+			activeViews.remove(e.getComponent());
+		}
+	};
 		
 	public TimelineView(AbstractComponent ac, ViewInfo vi) {
 		// When we are a non-embedded view, work with a fresh copy of the 
@@ -85,12 +128,13 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		upperPanel.setOpaque(false);
 		
 		getContentPane().setBackground(backgroundColor);
-				
-		buildUpperPanel();
-		
-		updateMasterDuration();
 		
-		refreshAll();
+		// Activities are loaded in the background; show a placeholder until then
+		placeholder = new JLabel(BUNDLE.getString("view_loading"));
+		placeholder.setAlignmentX(0.5f);
+		upperPanel.add(placeholder);
+		refreshWorker = new RefreshWorker(false);
+		refreshWorker.execute();
 		
 		// Refresh on any ancestor changes - these may change time scales
 		this.addAncestorListener(new AncestorListener() {
@@ -112,26 +156,28 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 	
 	@Override
 	public void viewPersisted() {
-		// Always get the fresh version from the database, if we're non-embedded
-		if (!getInfo().getViewType().equals(ViewType.EMBEDDED)) {
-			setManifestedComponent(PlatformAccess.getPlatform().getPersistenceProvider().getComponent(getManifestedComponent().getComponentId()));
+		// Load the updated component tree in the background; 
+		// only blocks which have changed will be rebuilt
+		cancelRefreshWorker();
+		refreshWorker = new RefreshWorker(true);
+		refreshWorker.execute();
+	}
+	
+	private void cancelRefreshWorker() {
+		if (refreshWorker != null) {
+			refreshWorker.cancel(true);
+			refreshWorker = null;
 		}
-
-		// Re-create everything; layout may be much different
-		rebuildUpperPanel();
-		
-		// Update cost graph
-		if (costGraph != null) {
-			costGraph.setManifestedComponent(getManifestedComponent());
-			costGraph.viewPersisted();
-		}		
-		
-		// Finally, ensure time settings are obeyed
-		refreshAll();
 	}
 	
 	private void rebuildUpperPanel() {
+		AbstractComponent ac = getManifestedComponent();
+		rebuildUpperPanel(loadBlocks(ac), new CostModel(ac));
+	}
+	
+	private void rebuildUpperPanel(List<BlockModel> models, CostModel costs) {
 		upperPanel.removeAll();
+		placeholder = null;
 
 		// Cache current selection to restore later
 		Collection<View> selected = getSelectionProvider().getSelectedManifestations();
@@ -142,10 +188,15 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		}
 		
 		// Clear all enforced constraints - these will be recreated
+		cancelRefreshWorker();
+		cancelConstraintWorker();
 		constraints.clear();
+		activeViews.clear();
+		hoveredEntry = null;
+		selectedEntry = null;
 		
 		// Rebuild the view
-		buildUpperPanel();
+		buildUpperPanel(models, costs);
 		
 		// Restore the selection
 		if (selectedId != null) {
@@ -153,7 +204,7 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		}		
 	}
 	
-	private void buildUpperPanel() {		
+	private void buildUpperPanel(List<BlockModel> models, CostModel costs) {		
 
 		if (getStaleListener() != null) {
 			removePropertyChangeListener(getStaleListener());
@@ -169,15 +220,186 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		}
 
 		// Add all children
-		for (AbstractComponent child : ac.getComponents()) {
-			addTopLevelActivity(child, new HashSet<String>());//addActivities(child, 0, new HashSet<String>());
+		List<TimelineBlock> blocks = new ArrayList<TimelineBlock>();
+		for (BlockModel model : models) {
+			TimelineBlock block = createBlock(model);
+			upperPanel.add(block);
+			blocks.add(block);
+			constraints.add(block.constraints);
 		}
 		
-		List<CostFunctionCapability> costs = ac.getCapabilities(CostFunctionCapability.class);
-		if (costs != null && !costs.isEmpty()) {
+		// Large timelines draw activities directly, only creating views as needed
+		virtualized = isVirtualized(models);
+		for (TimelineBlock block : blocks) {
+			block.populate(virtualized);
+		}
+		
+		// Poke all objects to resolve constraints, saving any that change
+		enforceConstraints(true);
+		
+		if (costs.present) {
+			// Mark any intervals where costs exceed their configured caps
+			if (costs.detector != null) {
+				upperPanel.add(conflictStrip = new CostConflictStrip(this, costs.detector));
+			} else {
+				conflictStrip = null;
+			}
 			upperPanel.add(new CollapsibleContainer(costGraph = GraphView.VIEW_INFO.createView(ac)));
+			costs.tabulate(costGraph);
+		} else {
+			conflictStrip = null;
+			costGraph = null;
+		}
+
+	}
+	
+	/**
+	 * Bring the view up to date with a newly-loaded component tree. 
+	 * Blocks whose activities are unchanged (same ids, versions, 
+	 * times, and structure) are kept, rebound to the new tree's 
+	 * copies of their activities; only the others are recreated.
+	 * @param models the blocks of activities in the new tree
+	 * @param costs the costs of the new tree
+	 */
+	private void updateUpperPanel(List<BlockModel> models, CostModel costs) {
+		AbstractComponent ac = getManifestedComponent();
+		
+		// Some changes affect the whole view
+		if (isVirtualized(models) != virtualized || costs.present != (costGraph != null) ||
+				(costs.detector != null) != (conflictStrip != null)) {
+			rebuildUpperPanel(models, costs);
+			return;
+		}
+		
+		if (!getInfo().getViewType().equals(ViewType.EMBEDDED)) { // If we're a clone, add a view manifestation of "this"
+			ac.addViewManifestation(this);
+		}
+		
+		// Index current blocks by the state of their activities
+		List<TimelineBlock> current = getBlocks();
+		TimelineBlockMatcher<List<ActivityState>, TimelineBlock> matcher = 
+				new TimelineBlockMatcher<List<ActivityState>, TimelineBlock>();
+		for (TimelineBlock block : current) {
+			matcher.add(block.state, block);
+		}
+		
+		// Keep unchanged blocks, replace the rest
+		List<TimelineBlock> blocks = new ArrayList<TimelineBlock>();
+		boolean changed = false;
+		boolean rebound = false;
+		for (BlockModel model : models) {
+			List<ActivityState> state = model.getState();
+			TimelineBlock block = matcher.take(state);
+			if (block != null) {
+				rebound |= block.rebind(model);
+				block.updateWorkUnitDelegates();
+			} else {
+				block = createBlock(model, state);
+				block.populate(virtualized);
+				changed = true;
+			}
+			blocks.add(block);
+		}
+		
+		if (!blocks.equals(current)) {
+			// Cache current selection to restore later, if its block is going away
+			Collection<View> selected = getSelectionProvider().getSelectedManifestations();
+			String selectedId = null;
+			if (!selected.isEmpty()) {
+				View selectedView = selected.iterator().next();
+				if (SwingUtilities.isDescendingFrom(selectedView, upperPanel) && 
+						!blocks.contains(SwingUtilities.getAncestorOfClass(TimelineBlock.class, selectedView))) {
+					selectedId = selectedView.getManifestedComponent().getComponentId();
+					select(null);
+				}
+			}
+			if (hoveredEntry != null && !blocks.contains(hoveredEntry.block)) {
+				hoveredEntry = null;
+			}
+			if (selectedEntry != null && !blocks.contains(selectedEntry.block)) {
+				selectedEntry = null;
+			}
+			
+			// Blocks precede the conflict strip and cost graph
+			for (TimelineBlock block : current) {
+				upperPanel.remove(block);
+			}
+			for (int i = 0; i < blocks.size(); i++) {
+				upperPanel.add(blocks.get(i), i);
+			}
+			
+			// Restore the selection
+			if (selectedId != null) {
+				selectComponent(selectedId);
+			}
+		}
+		
+		// Kept blocks may have new constraint systems, too
+		constraints.clear();
+		for (TimelineBlock block : blocks) {
+			constraints.add(block.constraints);
+		}
+		
+		// Costs may have moved even where blocks were kept
+		if (conflictStrip != null) {
+			conflictStrip.setDetector(costs.detector);
+		}
+		
+		// Poke all objects to resolve constraints, saving any that change
+		// (a pending job must also be restarted against rebound activities)
+		if (changed) {
+			enforceConstraints(true);
+		} else if (rebound && constraintWorker != null) {
+			enforceConstraints(false);
+		}
+	}
+	
+	@Override
+	public void durationsChanged(Collection<AbstractComponent> changed) {
+		if (conflictStrip != null) {
+			for (AbstractComponent c : changed) {
+				conflictStrip.getDetector().update(c);
+			}
+			conflictStrip.repaint();
 		}
+		costsChanged();
 
+		// Only reported changes are repacked into rows
+		List<DurationCapability> durations = new ArrayList<DurationCapability>(changed.size());
+		for (AbstractComponent c : changed) {
+			DurationCapability dc = c.getCapability(DurationCapability.class);
+			if (dc != null) {
+				durations.add(dc);
+			}
+		}
+		for (TimelineBlock block : getBlocks()) {
+			block.layout.durationsChanged(durations);
+		}
+		super.durationsChanged(changed);
+	}
+	
+	private void costsChanged() {
+		if (costGraph instanceof GraphView) {
+			((GraphView) costGraph).costsChanged();
+		}
+	}
+	
+	private List<TimelineBlock> getBlocks() {
+		List<TimelineBlock> blocks = new ArrayList<TimelineBlock>();
+		for (Component c : upperPanel.getComponents()) {
+			if (c instanceof TimelineBlock) {
+				blocks.add((TimelineBlock) c);
+			}
+		}
+		return blocks;
+	}
+	
+	private boolean isVirtualized(List<BlockModel> models) {
+		int activityCount = 0;
+		for (BlockModel model : models) {
+			activityCount += model.activities.size();
+		}
+		return activityCount > VIRTUALIZATION_THRESHOLD;
 	}
 
 	private void refreshAll() {
@@ -204,9 +426,11 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		
 		// Make sure constraints still apply
 		// (for instance, to reflect changes from Timeline Inspector)
-		for (DurationConstraintSystem constraint : constraints) {
-			constraint.changeAll();
-		}
+		enforceConstraints(false);
+		
+		// Costs may have been edited directly (conflicts are updated 
+		// incrementally, as the edited activity reports its changes)
+		costsChanged();
 		
 		// Expand visible bounds if necessary
 		updateMasterDuration();
@@ -215,93 +439,686 @@ public class TimelineView extends AbstractTimelineView implements TimelineContex
 		refreshAll();
 	}
 
-	private void addTopLevelActivity(AbstractComponent ac, Set<String> ignore) {
+	@Override
+	public void selectComponent(String componentId) {
+		// Activities drawn directly have no view to select, so create one
+		if (virtualized) {
+			for (Component c : upperPanel.getComponents()) {
+				if (c instanceof TimelineBlock) {
+					ActivityEntry entry = ((TimelineBlock) c).findEntry(componentId);
+					if (entry != null) {
+						entry.block.materialize(entry);
+						setSelectedEntry(entry);
+						break;
+					}
+				}
+			}
+		}
+		super.selectComponent(componentId);
+	}
+
+	private TimelineBlock createBlock(BlockModel model) {
+		return createBlock(model, model.getState());
+	}
+	
+	private TimelineBlock createBlock(BlockModel model, List<ActivityState> state) {
+		// Every top-level activity gets its own block
+		// Each top-level activity also has its own constraint system
+		// (for dealing with changes to child activities)
+		// Constraints are enforced later, in the background
+		TimelineBlock block = new TimelineBlock(state, new DurationConstraintSystem(model.root));
+		block.setOpaque(false);				
+		block.setAlignmentX(0.5f);
+		
+		// Populate the block with activities
+		for (AbstractComponent activity : model.activities) {
+			setWorkUnitDelegate(activity);
+			block.addActivity(activity, activity.getCapability(DurationCapability.class)); // Views are created later, if at all
+		}
+		return block;
+	}
+	
+	private void setWorkUnitDelegate(AbstractComponent ac) {
+		// Using workunitdelegate means these views will sync with inspector
+		// If we already have a delegate, use that; otherwise, use manifested component
+		// (this strategy permits parent views, like Scenario, to take over)
+		AbstractComponent manifestedComponent = getManifestedComponent();
+		AbstractComponent workDelegate = manifestedComponent.getWorkUnitDelegate();
+		ac.getCapability(ComponentInitializer.class).setWorkUnitDelegate(workDelegate != null ? workDelegate : manifestedComponent);
+	}
+
+	/**
+	 * Find the blocks of activities within a component. This does not 
+	 * modify any components, so may be called off of the Swing thread 
+	 * (for instance, to load children from persistence.)
+	 * @param ac the component whose children should be shown
+	 * @return the blocks of activities to display
+	 */
+	private static List<BlockModel> loadBlocks(AbstractComponent ac) {
+		List<BlockModel> blocks = new ArrayList<BlockModel>();
+		for (AbstractComponent child : ac.getComponents()) {
+			loadTopLevelActivity(child, new HashSet<String>(), blocks);
+		}
+		return blocks;
+	}
+	
+	private static void loadTopLevelActivity(AbstractComponent ac, Set<String> ignore, List<BlockModel> blocks) {
 		DurationCapability dc = ac.getCapability(DurationCapability.class);
 		if (dc != null) {
-			// Every top-level activity gets its own block
-			TimelineBlock block = new TimelineBlock();
-			block.setOpaque(false);				
-			block.setAlignmentX(0.5f);
-			upperPanel.add(block);
-						
-			// Each top-level activity also has its own constraint system
-			// (for dealing with changes to child activities)
-			DurationConstraintSystem constraint = new DurationConstraintSystem(ac);
-			constraints.add(constraint);
-			
-			// Poke all objects to resolve constraints
-			Set<AbstractComponent> changes = constraint.changeAll(ac);
-			
-			// Save any that were changed
-			for (AbstractComponent change : changes) {
-				change.save();
-			}
-			
-			// If there were changes, also save top-level timeline
-			if (!changes.isEmpty()) {
-				getManifestedComponent().save();
-			}
-			
-			// Populate the block with activities
-			addActivities(ac, null, 0, new HashSet<String>(), block, constraint);
+			BlockModel block = new BlockModel(ac);
+			loadActivities(ac, 0, new HashSet<String>(), block);
+			blocks.add(block);
 		} else if (!ignore.contains(ac.getComponentId())){  // Avoid cycles
 			ignore.add(ac.getComponentId());
 			
 			// Since there is no DurationCapability, must be collection 
 			// or similar, so probe down for other activities (treat as top-level)
 			for (AbstractComponent child : ac.getComponents()) {
-				addTopLevelActivity(child, ignore);
+				loadTopLevelActivity(child, ignore, blocks);
 			}
 		}
 	}
-
-	private void addActivities(AbstractComponent ac, AbstractComponent parent, int depth, Set<String> ids, TimelineBlock block, DurationConstraintSystem constraints) {
+	
+	private static void loadActivities(AbstractComponent ac, int depth, Set<String> ids, BlockModel block) {
 		DurationCapability dc = ac.getCapability(DurationCapability.class);		
 		if (dc != null && !ids.contains(ac.getComponentId())) {
-			// Using workunitdelegate means these views will sync with inspector
-			// If we already have a delegate, use that; otherwise, use manifested component
-			// (this strategy permits parent views, like Scenario, to take over)
-			AbstractComponent manifestedComponent = getManifestedComponent();
-			AbstractComponent workDelegate = manifestedComponent.getWorkUnitDelegate();
-			ac.getCapability(ComponentInitializer.class).setWorkUnitDelegate(workDelegate != null ? workDelegate : manifestedComponent);
-			addViewToRow(dc, ac, (ActivityComponent) (parent instanceof ActivityComponent ? parent : null), block, depth, constraints);
+			block.activities.add(ac);
+			block.depths.add(depth);
 			ids.add(ac.getComponentId()); // Prevent infinite loops in case of cycle
 			for (AbstractComponent child : ac.getComponents()) {
-				addActivities(child, ac, depth + 1, ids, block, constraints);
+				loadActivities(child, depth + 1, ids, block);
 			}			
 		}
 	}
+
+	/**
+	 * Enforce all constraint systems in this view. Constraints are 
+	 * resolved in the background against a snapshot of current 
+	 * durations; resulting changes are applied afterward, all at 
+	 * once. Any job still pending from an earlier call is superseded.
+	 * @param persist true if changed components should be saved
+	 */
+	private void enforceConstraints(boolean persist) {
+		if (constraintWorker != null) {
+			// A pending job may still owe a save; the new one inherits that
+			persist |= constraintWorker.persist;
+			cancelConstraintWorker();
+		}
+		if (!constraints.isEmpty()) {
+			List<DurationConstraintSystem> snapshots = new ArrayList<DurationConstraintSystem>();
+			for (DurationConstraintSystem constraint : constraints) {
+				snapshots.add(constraint.snapshot());
+			}
+			constraintWorker = new ConstraintWorker(snapshots, persist);
+			constraintWorker.execute();
+		}
+	}
 	
-	private void addViewToRow(DurationCapability dc, AbstractComponent ac, ActivityComponent parent, TimelineBlock block, int row, DurationConstraintSystem constraints) {
+	private void cancelConstraintWorker() {
+		if (constraintWorker != null) {
+			constraintWorker.cancel(true);
+			constraintWorker = null;
+		}
+	}
+	
+	/**
+	 * Change which activity is under the mouse. Views for activities 
+	 * which are neither hovered nor selected are released.
+	 */
+	private void setHoveredEntry(ActivityEntry entry) {
+		ActivityEntry previous = hoveredEntry;
+		hoveredEntry = entry;
+		releaseIfIdle(previous);
+	}
+	
+	private void setSelectedEntry(ActivityEntry entry) {
+		ActivityEntry previous = selectedEntry;
+		selectedEntry = entry;
+		releaseIfIdle(previous);
+	}
+	
+	private void releaseIfIdle(ActivityEntry entry) {
+		if (virtualized && entry != null && entry != hoveredEntry && entry != selectedEntry) {
+			entry.block.release(entry);
+		}
+	}
 
-		View activityView = ActivityView.VIEW_INFO.createView(ac);
+	
+	/**
+	 * Resolves constraint snapshots off of the Swing thread, then 
+	 * commits the results back to the timeline's activities.
+	 */
+	private class ConstraintWorker extends SwingWorker<Void, Void> {
+		private final List<DurationConstraintSystem> snapshots;
+		private final boolean persist;
 		
-		MouseAdapter controller = new TimelineDurationController(dc, this, constraints);
-		block.add(activityView, dc);
+		public ConstraintWorker(List<DurationConstraintSystem> snapshots, boolean persist) {
+			super();
+			this.snapshots = snapshots;
+			this.persist = persist;
+		}
+
+		@Override
+		protected Void doInBackground() throws Exception {
+			for (DurationConstraintSystem snapshot : snapshots) {
+				if (isCancelled()) {
+					break;
+				}
+				snapshot.changeAll();
+			}
+			return null;
+		}
 
-		activityView.addMouseListener(controller);
-		activityView.addMouseMotionListener(controller);
+		@Override
+		protected void done() {
+			// Superseded by newer edits, or the view was rebuilt
+			if (isCancelled() || constraintWorker != this) {
+				return;
+			}
+			constraintWorker = null;
+			
+			Set<AbstractComponent> changes = new HashSet<AbstractComponent>();
+			for (DurationConstraintSystem snapshot : snapshots) {
+				changes.addAll(snapshot.commit());
+			}
+			
+			if (persist && !changes.isEmpty()) {
+				// Save any that were changed
+				for (AbstractComponent change : changes) {
+					change.save();
+				}
+				// If there were changes, also save top-level timeline
+				getManifestedComponent().save();
+			}
+			
+			if (!changes.isEmpty()) {
+				// Update conflicts and cost graphs, here and in any parent view
+				durationsChanged(changes);
+				updateMasterDuration();
+				refreshAll();
+			}
+		}
+	}
+	
+	/**
+	 * Loads the timeline's component tree off of the Swing thread, 
+	 * then builds or updates the view to match. The whole tree is 
+	 * loaded (concurrently) up front, and costs are aggregated here 
+	 * too, leaving only the creation of widgets to the Swing thread.
+	 */
+	private class RefreshWorker extends SwingWorker<List<BlockModel>, Void> {
+		private final AbstractComponent current = getManifestedComponent();
+		private final boolean embedded = getInfo().getViewType().equals(ViewType.EMBEDDED);
+		private final boolean reload;
+		private AbstractComponent loaded = null;
+		private CostModel costs = null;
+		
+		/**
+		 * @param reload true if a fresh version of the component should be 
+		 *        retrieved from persistence (ignored for embedded views)
+		 */
+		public RefreshWorker(boolean reload) {
+			super();
+			this.reload = reload && !embedded;
+		}
 		
-		activityView.addPropertyChangeListener(VIEW_STALE_PROPERTY, getStaleListener());
+		@Override
+		protected List<BlockModel> doInBackground() throws Exception {
+			// Get the fresh version from the database, if we're non-embedded
+			loaded = !reload ? current : 
+				PlatformAccess.getPlatform().getPersistenceProvider().getComponent(current.getComponentId());
+			SubtreePrefetcher.prefetch(loaded);
+			costs = new CostModel(loaded);
+			return loadBlocks(loaded);
+		}
+		
+		@Override
+		protected void done() {
+			// Superseded by a newer refresh, or the view was rebuilt
+			if (isCancelled() || refreshWorker != this) {
+				return;
+			}
+			refreshWorker = null;
+			
+			List<BlockModel> models = null;
+			try {
+				models = get();
+			} catch (InterruptedException e) { // Fall back to loading here
+				LOGGER.warn("Interrupted while loading timeline; loading on the Swing thread instead", e);
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {   // Fall back to loading here
+				LOGGER.warn("Could not load timeline in the background; loading on the Swing thread instead", e.getCause());
+			}
+			
+			boolean initial = placeholder != null;
+			if (models == null) {
+				if (reload) {
+					setManifestedComponent(PlatformAccess.getPlatform().getPersistenceProvider().getComponent(current.getComponentId()));
+				}
+				rebuildUpperPanel();
+			} else {
+				if (reload) {
+					setManifestedComponent(loaded);
+				}
+				if (initial) {
+					rebuildUpperPanel(models, costs);
+				} else {
+					updateUpperPanel(models, costs);
+				}
+			}
+			
+			// Update cost graph (unless it was just created)
+			if (costGraph != null && !initial) {
+				costGraph.setManifestedComponent(getManifestedComponent());
+				costGraph.viewPersisted();
+				if (models != null) {
+					costs.tabulate(costGraph);
+				}
+			}		
+			
+			// Finally, ensure time settings are obeyed
+			if (initial) {
+				updateMasterDuration();
+			}
+			refreshAll();
+		}
 	}
+	
+	/**
+	 * Whether a timeline has costs, and any intervals where they 
+	 * exceed their caps. This may be determined off of the Swing thread.
+	 */
+	private static class CostModel {
+		private final boolean present;
+		private final CostConflictDetector detector;
+		private final List<CostTable> tables = new ArrayList<CostTable>();
+		
+		public CostModel(AbstractComponent ac) {
+			List<CostFunctionCapability> costs = ac.getCapabilities(CostFunctionCapability.class);
+			present = costs != null && !costs.isEmpty();
+			// Without caps (the default) there can be no conflicts, so skip the sweep
+			Map<String, Double> caps = present ? CostConflictDetector.getConfiguredCaps() : null;
+			detector = caps != null && !caps.isEmpty() ? new CostConflictDetector(ac, caps) : null;
+			if (present) {
+				for (CostFunctionCapability cost : costs) {
+					tables.add(new CostTable(cost));
+				}
+			}
+		}
+		
+		/**
+		 * Let a cost graph use the costs tabulated here, rather 
+		 * than evaluating them again when first painted.
+		 */
+		public void tabulate(View costGraph) {
+			if (costGraph instanceof GraphView) {
+				((GraphView) costGraph).setCostTables(tables);
+			}
+		}
+	}
+	
+	/**
+	 * The activities which make up one block of the timeline, 
+	 * in the order they were found in the component tree.
+	 */
+	private static class BlockModel {
+		private final AbstractComponent root;
+		private final List<AbstractComponent> activities = new ArrayList<AbstractComponent>();
+		private final List<Integer> depths = new ArrayList<Integer>();
+		
+		public BlockModel(AbstractComponent root) {
+			super();
+			this.root = root;
+		}
+		
+		/**
+		 * Get the current state of this block's activities; blocks with 
+		 * equal states can be displayed identically.
+		 * @return the state of each activity in the block
+		 */
+		public List<ActivityState> getState() {
+			List<ActivityState> state = new ArrayList<ActivityState>(activities.size());
+			for (int i = 0; i < activities.size(); i++) {
+				state.add(new ActivityState(activities.get(i), depths.get(i)));
+			}
+			return state;
+		}
+	}
+	
+	/**
+	 * The displayed state of an activity at some point in time.
+	 * Version covers changes to names, types, et cetera once saved; 
+	 * start and end cover unsaved changes as well. The depth of each 
+	 * activity (in tree order) captures changes to children.
+	 */
+	private static final class ActivityState {
+		private final String id;
+		private final int version;
+		private final long start;
+		private final long end;
+		private final int depth;
+		
+		public ActivityState(AbstractComponent ac, int depth) {
+			DurationCapability dc = ac.getCapability(DurationCapability.class);
+			this.id = ac.getComponentId();
+			this.version = ac.getVersion();
+			this.start = dc.getStart();
+			this.end = dc.getEnd();
+			this.depth = depth;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof ActivityState)) {
+				return false;
+			}
+			ActivityState other = (ActivityState) obj;
+			return (id == null ? other.id == null : id.equals(other.id)) && 
+					version == other.version && start == other.start && 
+					end == other.end && depth == other.depth;
+		}
 
+		@Override
+		public int hashCode() {
+			int hash = id != null ? id.hashCode() : 0;
+			hash = 31 * hash + version;
+			hash = 31 * hash + (int) (start ^ (start >>> 32));
+			hash = 31 * hash + (int) (end ^ (end >>> 32));
+			return 31 * hash + depth;
+		}
+	}
+	
+	/**
+	 * An activity shown in a block of the timeline. Its view is created 
+	 * up front for ordinary timelines, but only on demand when the 
+	 * timeline is virtualized.
+	 */
+	private static class ActivityEntry {
+		private AbstractComponent component;
+		private DurationCapability durationCapability;
+		private final TimelineBlock block;
+		private ActivityView.Appearance appearance = null;
+		private View view = null;
+		private TimelineDurationController controller = null;
+		private boolean pressed = false;
+		
+		public ActivityEntry(AbstractComponent component,
+				DurationCapability durationCapability, TimelineBlock block) {
+			super();
+			this.component = component;
+			this.durationCapability = durationCapability;
+			this.block = block;
+		}
+		
+		public void paint(Graphics2D g, int w, int h, Color foreground) {
+			if (appearance == null) {
+				appearance = new ActivityView.Appearance(component);
+			}
+			String duration = DurationFormatter.formatDuration(
+					durationCapability.getEnd() - durationCapability.getStart());
+			appearance.paint(g, component.getDisplayName(), duration, w, h, foreground);
+		}
+	}
 	
-	private class TimelineBlock extends JPanel {
+	private class TimelineBlock extends JPanel implements CostOverlayIndex.Contributor {
 		private static final long serialVersionUID = 3461668344855752107L;
 		
-		public TimelineBlock() {
-			super(new TimelineLayout(TimelineView.this));
+		private final TimelineLayout layout;
+		private final List<ActivityState> state;
+		private DurationConstraintSystem constraints;
+		private Map<DurationCapability, ActivityEntry> entries = 
+				new LinkedHashMap<DurationCapability, ActivityEntry>();
+		private boolean virtual = false;
+		
+		public TimelineBlock(List<ActivityState> state, DurationConstraintSystem constraints) {
+			this(new TimelineLayout(TimelineView.this), state, constraints);
+		}
+		
+		private TimelineBlock(TimelineLayout layout, List<ActivityState> state, DurationConstraintSystem constraints) {
+			super(layout);
+			this.layout = layout;
+			this.state = state;
+			this.constraints = constraints;
+		}
+		
+		public void addActivity(AbstractComponent ac, DurationCapability dc) {
+			entries.put(dc, new ActivityEntry(ac, dc, this));
+		}
+		
+		/**
+		 * Rebind this block to the given copies of its activities, which 
+		 * must be in the same state as those it was built from. Views and 
+		 * constraints refer to specific instances, so a block left showing 
+		 * other copies would no longer be edited along with the rest of 
+		 * the timeline. Rows, entries, and views are kept.
+		 * @param model the activities to show, in the same order as before
+		 * @return true if any activity was replaced by another instance
+		 */
+		public boolean rebind(BlockModel model) {
+			Map<DurationCapability, DurationCapability> replacements = 
+					new HashMap<DurationCapability, DurationCapability>();
+			Map<DurationCapability, ActivityEntry> rebound = 
+					new LinkedHashMap<DurationCapability, ActivityEntry>();
+			int i = 0;
+			for (ActivityEntry entry : entries.values()) {
+				AbstractComponent ac = model.activities.get(i++);
+				if (ac != entry.component) {
+					DurationCapability dc = ac.getCapability(DurationCapability.class);
+					replacements.put(entry.durationCapability, dc);
+					entry.component = ac;
+					entry.durationCapability = dc;
+					entry.appearance = null;
+				}
+				rebound.put(entry.durationCapability, entry);
+			}
+			if (replacements.isEmpty()) {
+				return false;
+			}
+			
+			entries = rebound;
+			layout.replaceDurations(replacements);
+			constraints = new DurationConstraintSystem(model.root);
+			for (ActivityEntry entry : entries.values()) {
+				if (entry.view != null) {
+					entry.view.setManifestedComponent(entry.component);
+					entry.controller.rebind(entry.durationCapability, constraints);
+				}
+			}
+			return true;
+		}
+		
+		/**
+		 * Point activities at the current manifested component's work 
+		 * unit, which may have been replaced since this block was built.
+		 */
+		public void updateWorkUnitDelegates() {
+			for (ActivityEntry entry : entries.values()) {
+				setWorkUnitDelegate(entry.component);
+			}
+		}
+		
+		/**
+		 * Populate this block with its activities, either as views or 
+		 * (if virtual) as entries to be drawn directly.
+		 * @param virtual true if views should only be created on demand
+		 */
+		public void populate(boolean virtual) {
+			this.virtual = virtual;
+			if (virtual) {
+				for (DurationCapability dc : entries.keySet()) {
+					layout.addVirtualEntry(dc);
+				}
+				MouseAdapter controller = new VirtualActivityController();
+				addMouseListener(controller);
+				addMouseMotionListener(controller);
+			} else {
+				for (ActivityEntry entry : entries.values()) {
+					materialize(entry);
+				}
+			}
+		}
+		
+		public ActivityEntry findEntry(String componentId) {
+			for (ActivityEntry entry : entries.values()) {
+				if (componentId.equals(entry.component.getComponentId())) {
+					return entry;
+				}
+			}
+			return null;
+		}
+		
+		public View materialize(ActivityEntry entry) {
+			if (entry.view == null) {
+				View activityView = ActivityView.VIEW_INFO.createView(entry.component);
+				
+				TimelineDurationController controller = new TimelineDurationController(entry.durationCapability, TimelineView.this, constraints);
+				add(activityView, entry.durationCapability);
+		
+				// Track drags first, so the row is held before anything moves
+				activityView.addMouseListener(activeViewTracker);
+				activityView.addMouseListener(controller);
+				activityView.addMouseMotionListener(controller);
+				
+				activityView.addPropertyChangeListener(VIEW_STALE_PROPERTY, getStaleListener());
+				
+				if (virtual) {
+					activityView.addMouseListener(new MaterializedActivityController(entry));
+					revalidate();
+					repaint();
+				}
+				entry.view = activityView;
+				entry.controller = controller;
+			}
+			return entry.view;
+		}
+		
+		public void release(ActivityEntry entry) {
+			if (entry.view != null && !entry.pressed) {
+				entry.view.removePropertyChangeListener(VIEW_STALE_PROPERTY, getStaleListener());
+				activeViews.remove(entry.view);
+				remove(entry.view);
+				entry.view = null;
+				entry.controller = null;
+				revalidate();
+				repaint();
+			}
 		}
 		
 		public void paintComponent(Graphics g) {
 			super.paintComponent(g);
 			g.drawLine(getPixelPosition(getStart()), getHeight()-1, getPixelPosition(getEnd()), getHeight()-1);
+			
+			if (virtual && g instanceof Graphics2D) {
+				// Only draw activities in the visible area
+				Rectangle clip = g.getClipBounds();
+				if (clip == null) {
+					clip = new Rectangle(0, 0, getWidth(), getHeight());
+				}
+				double pixelScale = getPixelScale();
+				long start = getTimeOffset() + (long) ((clip.x - getLeftPadding()) / pixelScale);
+				long end = getTimeOffset() + (long) ((clip.x + clip.width - getLeftPadding()) / pixelScale) + 1;
+				Rectangle bounds = new Rectangle();
+				for (DurationCapability dc : layout.getVirtualEntries(start, end)) {
+					ActivityEntry entry = entries.get(dc);
+					if (entry != null && layout.getBounds(dc, bounds) && bounds.intersects(clip)) {
+						Graphics2D g2 = (Graphics2D) g.create(bounds.x, bounds.y, bounds.width, bounds.height);
+						entry.paint(g2, bounds.width, bounds.height, getForeground());
+						g2.dispose();
+					}
+				}
+			}
+		}
+		
+		@Override
+		public void contributeTo(CostOverlayIndex index, int x, int y) {
+			// Activities with views are found by the index directly
+			if (virtual) {
+				Rectangle bounds = new Rectangle();
+				for (ActivityEntry entry : entries.values()) {
+					if (entry.view == null && layout.getBounds(entry.durationCapability, bounds)) {
+						index.add(x + bounds.x, y + bounds.y, bounds.width, bounds.height, 
+								ActivityView.getCostFunctions(entry.component));
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Creates views for activities as the mouse moves over them
+		 */
+		private class VirtualActivityController extends MouseAdapter {
+			private ActivityEntry findEntry(MouseEvent e) {
+				DurationCapability dc = layout.getVirtualEntryAt(e.getX(), e.getY());
+				return dc != null ? entries.get(dc) : null;
+			}
+			
+			@Override
+			public void mouseMoved(MouseEvent e) {
+				ActivityEntry entry = findEntry(e);
+				if (entry != null) {
+					materialize(entry);
+					setHoveredEntry(entry);
+				}
+			}
+			
+			@Override
+			public void mousePressed(MouseEvent e) {
+				ActivityEntry entry = findEntry(e);
+				if (entry != null) {
+					View view = materialize(entry);
+					setHoveredEntry(entry);
+					setSelectedEntry(entry);
+					select(null);
+					select(view);
+				}
+			}
+			
+			@Override
+			public void mouseClicked(MouseEvent e) {
+				if (findEntry(e) == null) {
+					setSelectedEntry(null);
+					select(null); // Would otherwise be handled by the timeline view
+				}
+			}
+		}
+		
+		/**
+		 * Releases a view created on demand once it is no longer in use
+		 */
+		private class MaterializedActivityController extends MouseAdapter {
+			private final ActivityEntry entry;
+			
+			public MaterializedActivityController(ActivityEntry entry) {
+				super();
+				this.entry = entry;
+			}
+
+			@Override
+			public void mousePressed(MouseEvent e) {
+				entry.pressed = true;
+				setSelectedEntry(entry);
+			}
+
+			@Override
+			public void mouseReleased(MouseEvent e) {
+				entry.pressed = false;
+				if (!e.getComponent().contains(e.getPoint()) && hoveredEntry == entry) {
+					setHoveredEntry(null);
+				}
+			}
+
+			@Override
+			public void mouseExited(MouseEvent e) {
+				if (!entry.pressed && hoveredEntry == entry) {
+					setHoveredEntry(null);
+				}
+			}
 		}
 	}
 
 	@Override
 	public Set<Component> getActiveViews() {		
-		return Collections.emptySet();
+		return Collections.unmodifiableSet(activeViews);
 	}
 
 	@Override
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ActivityModelPersistenceTest {
+
+	@Test
+	public void testRoundTripWithoutDates() {
+		ActivityModelRole role = new ActivityModelRole();
+		role.getData().setPower(5);
+		role.getData().setActivityType("Science");
+		
+		String xml = new ActivityModelPersistence(new AtomicReference<ActivityModelRole>(role)).getModelState();
+		
+		// Unset dates are omitted, as JAXB omits null Dates
+		Assert.assertFalse(xml.contains("startDate"), xml);
+		Assert.assertFalse(xml.contains("endDate"), xml);
+		
+		AtomicReference<ActivityModelRole> loaded = new AtomicReference<ActivityModelRole>();
+		new ActivityModelPersistence(loaded).setModelState(xml);
+		ActivityData data = loaded.get().getData();
+		Assert.assertNull(data.getStartTime());
+		Assert.assertNull(data.getEndTime());
+		Assert.assertFalse(data.hasStart());
+		Assert.assertFalse(data.hasEnd());
+		Assert.assertEquals(data.getPower(), 5.0);
+		Assert.assertEquals(data.getActivityType(), "Science");
+	}
+	
+	@Test
+	public void testRoundTripWithDates() {
+		ActivityModelRole role = new ActivityModelRole();
+		role.getData().setStart(0);
+		role.getData().setEnd(3600000L);
+		
+		String xml = new ActivityModelPersistence(new AtomicReference<ActivityModelRole>(role)).getModelState();
+		Assert.assertTrue(xml.contains("<startDate>"), xml);
+		Assert.assertTrue(xml.contains("<endDate>"), xml);
+		
+		AtomicReference<ActivityModelRole> loaded = new AtomicReference<ActivityModelRole>();
+		new ActivityModelPersistence(loaded).setModelState(xml);
+		ActivityData data = loaded.get().getData();
+		Assert.assertEquals(data.getStartTime(), new Date(0));
+		Assert.assertEquals(data.getEndTime(), new Date(3600000L));
+		Assert.assertEquals(data.getDurationTime(), 3600000L);
+	}
+	
+	@Test
+	public void testClearedDatesAreUnset() {
+		ActivityData data = new ActivityData();
+		data.setStartDate(new Date(1000));
+		data.setEndDate(new Date(2000));
+		data.setStartDate(null);
+		data.setEndDate(null);
+		Assert.assertNull(data.getStartTime());
+		Assert.assertNull(data.getEndTime());
+	}
+}
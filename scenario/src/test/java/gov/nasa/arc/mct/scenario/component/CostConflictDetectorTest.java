@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.component;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class CostConflictDetectorTest {
+	private static final String POWER_CAP = CostConflictDetector.CAP_PREFIX + "Power";
+
+	@AfterMethod
+	public void teardown() {
+		System.clearProperty(POWER_CAP);
+	}
+
+	@Test
+	public void testCapsFromSystemProperties() {
+		Assert.assertFalse(CostConflictDetector.getConfiguredCaps().containsKey("Power"));
+
+		System.setProperty(POWER_CAP, "5");
+		Map<String, Double> caps = CostConflictDetector.getConfiguredCaps();
+		Assert.assertEquals(caps.get("Power"), 5.0);
+
+		System.setProperty(POWER_CAP, "five");
+		Assert.assertFalse(CostConflictDetector.getConfiguredCaps().containsKey("Power"));
+	}
+
+	@Test
+	public void testConfiguredCapsFindConflicts() {
+		System.setProperty(POWER_CAP, "5");
+		CostConflictDetector detector = new CostConflictDetector(new TestCostComponent(1000, 5000, 10));
+		Assert.assertTrue(detector.hasCaps());
+
+		List<CostConflictDetector.Conflict> conflicts = detector.getConflicts();
+		Assert.assertEquals(conflicts.size(), 1);
+		Assert.assertEquals(conflicts.get(0).getName(), "Power");
+		Assert.assertEquals(conflicts.get(0).getStart(), 1000);
+		Assert.assertEquals(conflicts.get(0).getEnd(), 5000);
+		Assert.assertEquals(conflicts.get(0).getPeak(), 10.0);
+	}
+
+	/**
+	 * A component which draws a constant amount of power over some span of time.
+	 */
+	public static class TestCostComponent extends CostFunctionComponent {
+		private final CostFunctionCapability cost;
+
+		public TestCostComponent(final long start, final long end, final double value) {
+			cost = new CostFunctionCapability() {
+				@Override
+				public String getName() {
+					return "Power";
+				}
+
+				@Override
+				public String getUnits() {
+					return "Watts";
+				}
+
+				@Override
+				public double getValue(long time) {
+					return (time >= start && time < end) ? value : 0;
+				}
+
+				@Override
+				public Collection<Long> getChangeTimes() {
+					return Arrays.asList(start, end);
+				}
+			};
+		}
+
+		@Override
+		public List<CostFunctionCapability> getInternalCostFunctions() {
+			return Collections.singletonList(cost);
+		}
+
+		@Override
+		public synchronized List<AbstractComponent> getComponents() {
+			return Collections.emptyList();
+		}
+	}
+}
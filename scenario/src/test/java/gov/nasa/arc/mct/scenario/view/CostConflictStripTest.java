@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.scenario.component.CostConflictDetector;
+import gov.nasa.arc.mct.scenario.component.CostConflictDetectorTest.TestCostComponent;
+import gov.nasa.arc.mct.services.component.ViewInfo;
+import gov.nasa.arc.mct.services.component.ViewType;
+
+import java.awt.Graphics;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CostConflictStripTest {
+	@Test
+	public void testConflictsAreMarked() {
+		// Power exceeds its cap of 5 from 1s to 5s; the strip shows one second per pixel
+		CostConflictDetector detector = new CostConflictDetector(new TestCostComponent(1000, 5000, 10),
+				Collections.singletonMap("Power", 5.0));
+		CostConflictStrip strip = new CostConflictStrip(new TestTimelineView(), detector);
+		strip.setSize(10, strip.getPreferredSize().height);
+
+		BufferedImage image = new BufferedImage(10, strip.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		Graphics g = image.createGraphics();
+		strip.paint(g);
+		g.dispose();
+
+		int y = strip.getHeight() / 2;
+		Assert.assertEquals(alpha(image.getRGB(0, y)), 0);
+		Assert.assertTrue(alpha(image.getRGB(1, y)) > 0);
+		Assert.assertTrue(alpha(image.getRGB(4, y)) > 0);
+		Assert.assertEquals(alpha(image.getRGB(6, y)), 0);
+
+		Assert.assertNotNull(strip.getToolTipText(mouseAt(strip, 3)));
+		Assert.assertNull(strip.getToolTipText(mouseAt(strip, 7)));
+	}
+
+	private static int alpha(int argb) {
+		return argb >>> 24;
+	}
+
+	private MouseEvent mouseAt(CostConflictStrip strip, int x) {
+		return new MouseEvent(strip, MouseEvent.MOUSE_MOVED, 0, 0, x, 1, 0, false);
+	}
+
+	private static class TestTimelineView extends AbstractTimelineView {
+		private static final long serialVersionUID = 1L;
+
+		public TestTimelineView() {
+			super(new TestCostComponent(0, 0, 0), new ViewInfo(TestTimelineView.class, "Test", ViewType.EMBEDDED));
+		}
+
+		@Override
+		public double getPixelScale() {
+			return 0.001;
+		}
+
+		@Override
+		public long getTimeOffset() {
+			return 0;
+		}
+
+		@Override
+		public int getLeftPadding() {
+			return 0;
+		}
+
+		@Override
+		protected void rebuild() {
+		}
+	}
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import gov.nasa.arc.mct.scenario.component.CostFunctionCapability;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class CostTableTest {
+	@Test
+	public void testTabulatedValues() {
+		CountingCost cost = new CountingCost();
+		CostTable table = new CostTable(cost);
+		int evaluations = cost.evaluations;
+
+		Assert.assertEquals(table.getName(), "Power");
+		Assert.assertEquals(table.getUnits(), "Watts");
+		Assert.assertEquals(table.getChangeTimes(), Arrays.asList(100L, 200L, 300L));
+		Assert.assertEquals(table.getInitialValue(), 0.0);
+		for (long t = 0; t < 400; t += 25) {
+			Assert.assertEquals(table.getValue(t), cost.getValue(t), "at " + t);
+		}
+		
+		// Tables are reused rather than tabulated again
+		cost.evaluations = evaluations;
+		Assert.assertSame(CostTable.of(table), table);
+		for (long t = 0; t < 400; t += 25) {
+			table.getValue(t);
+		}
+		Assert.assertEquals(cost.evaluations, evaluations);
+	}
+
+	private static class CountingCost implements CostFunctionCapability {
+		private int evaluations = 0;
+
+		@Override
+		public String getName() {
+			return "Power";
+		}
+
+		@Override
+		public String getUnits() {
+			return "Watts";
+		}
+
+		@Override
+		public double getValue(long time) {
+			evaluations++;
+			return time < 100 ? 0 : (time < 200 ? 5 : (time < 300 ? 2 : 0));
+		}
+
+		@Override
+		public Collection<Long> getChangeTimes() {
+			// Unordered, with duplicates, as aggregates may report them
+			return Arrays.asList(300L, 100L, 200L, 100L);
+		}
+	}
+}
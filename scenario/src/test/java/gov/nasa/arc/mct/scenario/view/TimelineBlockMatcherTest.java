@@ -0,0 +1,93 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TimelineBlockMatcherTest {
+
+	@Test
+	public void testSaveRebuildsOnlyChangedBlock() {
+		// Each block is described by the states of its activities
+		List<List<String>> before = Arrays.asList(
+				states("a:1:0:10", "a1:1:0:5"),
+				states("b:1:10:20"),
+				states("c:3:20:30", "c1:1:20:25", "c2:1:25:30"));
+		
+		TimelineBlockMatcher<List<String>, String> matcher = 
+				new TimelineBlockMatcher<List<String>, String>();
+		String[] blocks = { "A", "B", "C" };
+		for (int i = 0; i < blocks.length; i++) {
+			matcher.add(before.get(i), blocks[i]);
+		}
+		
+		// After a save, every component is a fresh copy; only c1 has changed
+		List<List<String>> after = Arrays.asList(
+				states("a:1:0:10", "a1:1:0:5"),
+				states("b:1:10:20"),
+				states("c:3:20:30", "c1:2:20:26", "c2:1:25:30"));
+		
+		List<String> kept = new ArrayList<String>();
+		for (List<String> state : after) {
+			kept.add(matcher.take(state));
+		}
+		Assert.assertEquals(kept, Arrays.asList("A", "B", null));
+	}
+	
+	@Test
+	public void testEqualBlocksMatchedOnce() {
+		TimelineBlockMatcher<List<String>, String> matcher = 
+				new TimelineBlockMatcher<List<String>, String>();
+		matcher.add(states("a:1:0:10"), "first");
+		matcher.add(states("a:1:0:10"), "second");
+		
+		Assert.assertEquals(matcher.take(states("a:1:0:10")), "first");
+		Assert.assertEquals(matcher.take(states("a:1:0:10")), "second");
+		Assert.assertNull(matcher.take(states("a:1:0:10")));
+		Assert.assertNull(matcher.take(states("b:1:0:10")));
+	}
+	
+	@Test
+	public void testReorderedBlocksMatched() {
+		TimelineBlockMatcher<List<String>, String> matcher = 
+				new TimelineBlockMatcher<List<String>, String>();
+		matcher.add(states("a:1:0:10"), "A");
+		matcher.add(states("b:1:0:10"), "B");
+		
+		Assert.assertEquals(matcher.take(states("b:1:0:10")), "B");
+		Assert.assertEquals(matcher.take(states("a:1:0:10")), "A");
+	}
+	
+	private static List<String> states(String... states) {
+		// Copy each state, so that matches cannot rely on identity
+		List<String> copies = new ArrayList<String>();
+		for (String state : states) {
+			copies.add(new String(state));
+		}
+		return copies;
+	}
+}
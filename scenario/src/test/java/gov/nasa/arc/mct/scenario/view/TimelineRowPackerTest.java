@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Mission Control Technologies, Copyright (c) 2009-2012, United States Government
+ * as represented by the Administrator of the National Aeronautics and Space 
+ * Administration. All rights reserved.
+ *
+ * The MCT platform is licensed under the Apache License, Version 2.0 (the 
+ * "License"); you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * http://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT 
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the 
+ * License for the specific language governing permissions and limitations under 
+ * the License.
+ *
+ * MCT includes source code licensed under additional open source licenses. See 
+ * the MCT Open Source Licenses file included with this distribution or the About 
+ * MCT Licenses dialog available at runtime from the MCT Help menu for additional 
+ * information. 
+ *******************************************************************************/
+package gov.nasa.arc.mct.scenario.view;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TimelineRowPackerTest {
+	private static final int ENTRIES = 200;
+	private static final int ROUNDS = 50;
+	
+	private static class Span extends TimelineRowPacker.Entry {
+		long start, end;
+		
+		Span(long start, long end, int order) {
+			this.start = start;
+			this.end = end;
+			this.order = order;
+		}
+		
+		@Override
+		long getStart() {
+			return start;
+		}
+
+		@Override
+		long getEnd() {
+			return end;
+		}
+	}
+	
+	@Test
+	public void testOverlappingFixedEntries() {
+		TimelineRowPacker packer = new TimelineRowPacker();
+		Span a = new Span(0, 10, 0);
+		Span b = new Span(20, 30, 1);
+		Span c = new Span(25, 40, 2);
+		Span d = new Span(26, 35, 3);
+		List<Span> spans = Arrays.asList(a, b, c, d);
+		for (Span s : spans) {
+			packer.add(s);
+		}
+		packer.pack(Collections.<Span>emptySet());
+		checkRows(spans, Collections.<Span>emptySet());
+		
+		// Drag b back over a, in the same row; both are fixed
+		Assert.assertEquals(a.row, b.row);
+		Set<Span> fixed = new HashSet<Span>(Arrays.asList(a, b));
+		b.start = 5;
+		b.end = 20;
+		packer.pack(fixed);
+		Assert.assertEquals(a.row, 0);
+		Assert.assertEquals(b.row, 0);
+		checkRows(spans, fixed);
+	}
+	
+	@Test
+	public void testRandomFixedEntries() {
+		Random random = new Random(0);
+		TimelineRowPacker packer = new TimelineRowPacker();
+		List<Span> spans = new ArrayList<Span>();
+		for (int i = 0; i < ENTRIES; i++) {
+			long start = random.nextInt(10000);
+			Span s = new Span(start, start + 1 + random.nextInt(500), i);
+			spans.add(s);
+			packer.add(s);
+		}
+		packer.pack(Collections.<Span>emptySet());
+		checkRows(spans, Collections.<Span>emptySet());
+		
+		for (int round = 0; round < ROUNDS; round++) {
+			// Fix a few entries from one row where they are, then drag them 
+			// around (so that they come to overlap one another)
+			int row = spans.get(random.nextInt(spans.size())).row;
+			Set<Span> fixed = new HashSet<Span>();
+			for (Span s : spans) {
+				if (s.row == row && fixed.size() < 5) {
+					fixed.add(s);
+				}
+			}
+			int[] rows = new int[spans.size()];
+			for (int i = 0; i < spans.size(); i++) {
+				rows[i] = spans.get(i).row;
+			}
+			for (int step = 0; step < 5; step++) {
+				for (Span s : fixed) {
+					long delta = random.nextInt(2000) - 1000;
+					s.start += delta;
+					s.end += delta;
+				}
+				packer.pack(fixed);
+				for (int i = 0; i < spans.size(); i++) {
+					if (fixed.contains(spans.get(i))) {
+						Assert.assertEquals(spans.get(i).row, rows[i]);
+					}
+				}
+				checkRows(spans, fixed);
+			}
+			
+			// Sometimes add or remove an entry, too
+			if (random.nextBoolean()) {
+				Span s = spans.remove(random.nextInt(spans.size()));
+				packer.remove(s);
+			} else {
+				long start = random.nextInt(10000);
+				Span s = new Span(start, start + 1 + random.nextInt(500), ENTRIES + round);
+				spans.add(s);
+				packer.add(s);
+			}
+			
+			// Then let go of them
+			packer.pack(Collections.<Span>emptySet());
+			checkRows(spans, Collections.<Span>emptySet());
+		}
+	}
+	
+	@Test
+	public void testIncrementalMatchesFreshPack() {
+		Random random = new Random(1);
+		TimelineRowPacker packer = new TimelineRowPacker();
+		List<Span> spans = new ArrayList<Span>();
+		for (int i = 0; i < ENTRIES; i++) {
+			long start = random.nextInt(10000);
+			Span s = new Span(start, start + 1 + random.nextInt(500), i);
+			spans.add(s);
+			packer.add(s);
+		}
+		packer.pack(Collections.<Span>emptySet());
+		
+		for (int round = 0; round < ROUNDS; round++) {
+			// Move a few entries, reporting each move
+			for (int i = 0; i < 3; i++) {
+				Span s = spans.get(random.nextInt(spans.size()));
+				long delta = random.nextInt(2000) - 1000;
+				s.start += delta;
+				s.end += delta;
+				packer.moved(s);
+			}
+			if (random.nextBoolean()) {
+				packer.remove(spans.remove(random.nextInt(spans.size())));
+			}
+			packer.pack(Collections.<Span>emptySet());
+			checkRows(spans, Collections.<Span>emptySet());
+			
+			// Without fixed entries, only the order of entries determines rows
+			TimelineRowPacker fresh = new TimelineRowPacker();
+			List<Span> copies = new ArrayList<Span>();
+			for (Span s : spans) {
+				Span copy = new Span(s.start, s.end, s.order);
+				copies.add(copy);
+				fresh.add(copy);
+			}
+			fresh.pack(Collections.<Span>emptySet());
+			for (int i = 0; i < spans.size(); i++) {
+				Assert.assertEquals(spans.get(i).row, copies.get(i).row);
+			}
+			Assert.assertEquals(packer.getRowCount(), fresh.getRowCount());
+		}
+	}
+	
+	@Test
+	public void testFindOverlapping() {
+		Random random = new Random(2);
+		TimelineRowPacker packer = new TimelineRowPacker();
+		List<Span> spans = new ArrayList<Span>();
+		for (int i = 0; i < ENTRIES; i++) {
+			long start = random.nextInt(10000);
+			Span s = new Span(start, start + random.nextInt(500), i);
+			spans.add(s);
+			packer.add(s);
+		}
+		for (int query = 0; query < ROUNDS; query++) {
+			Span s = spans.get(random.nextInt(spans.size()));
+			s.start = random.nextInt(10000);
+			s.end = s.start + random.nextInt(1000);
+			packer.moved(s);
+			
+			long start = random.nextInt(10000);
+			long end = start + random.nextInt(200);
+			Set<TimelineRowPacker.Entry> found = new HashSet<TimelineRowPacker.Entry>();
+			packer.findOverlapping(start, end, found);
+			for (Span t : spans) {
+				Assert.assertEquals(found.contains(t), t.start <= end && t.end >= start);
+			}
+		}
+	}
+	
+	/**
+	 * Check every pair of entries; only fixed entries may overlap 
+	 * in the same row (the user has put them there.)
+	 */
+	private void checkRows(List<Span> spans, Set<Span> fixed) {
+		for (Span s : spans) {
+			Assert.assertTrue(s.row >= 0);
+		}
+		for (int i = 0; i < spans.size(); i++) {
+			for (int j = i + 1; j < spans.size(); j++) {
+				Span a = spans.get(i);
+				Span b = spans.get(j);
+				if (a.row == b.row && a.start < b.end && b.start < a.end) {
+					Assert.assertTrue(fixed.contains(a) && fixed.contains(b), 
+							"Overlap in row " + a.row + ": [" + a.start + "," + a.end + 
+							") and [" + b.start + "," + b.end + ")");
+				}
+			}
+		}
+	}
+}
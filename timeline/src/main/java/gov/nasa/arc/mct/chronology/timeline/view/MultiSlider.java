@@ -84,6 +84,18 @@ public class MultiSlider extends JPanel {
 		return highSliderPosition;
 	}
 	
+	/**
+	 * Move both sliders, without notifying action listeners (for instance, 
+	 * to reflect a change made elsewhere)
+	 * @param low the position of the low slider (between 0.0 and 1.0)
+	 * @param high the position of the high slider (between 0.0 and 1.0)
+	 */
+	public void setProportions(float low, float high) {
+		lowSliderPosition  = low;
+		highSliderPosition = high;
+		repaint();
+	}
+	
 	/**
 	 * Inform action listeners that some action has occurred
 	 * @param actionEvent the action to broadcast to this component's listeners
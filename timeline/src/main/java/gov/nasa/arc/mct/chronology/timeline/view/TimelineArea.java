@@ -1,24 +1,39 @@
 package gov.nasa.arc.mct.chronology.timeline.view;
 
 import gov.nasa.arc.mct.chronology.Chronology;
+import gov.nasa.arc.mct.chronology.ChronologyDomain;
+import gov.nasa.arc.mct.chronology.ChronologySummary;
 import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
 import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
 
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.datatransfer.Transferable;
 import java.awt.dnd.DropTarget;
 import java.awt.dnd.DropTargetDropEvent;
+import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.MouseMotionListener;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.ResourceBundle;
 
 import javax.swing.BorderFactory;
-import javax.swing.BoxLayout;
+import javax.swing.CellRendererPane;
 import javax.swing.JComponent;
 import javax.swing.JPanel;
+import javax.swing.SwingUtilities;
 import javax.swing.TransferHandler;
 import javax.swing.border.Border;
 
@@ -27,24 +42,81 @@ import org.slf4j.LoggerFactory;
 
 /**
  * A TimelineArea describes chronological sequence as a displayable component.
- *  
+ *
+ * Events are not added as child components; rather, events are assigned to
+ * rows up front, and the area paints those which are visible using each
+ * event's representation as a rubber stamp (much as a JList paints its cells).
+ * Representations are only created for events wide enough to show them, and
+ * only a limited number are kept. Mouse input is directed to the event under
+ * the mouse, found by position and then by row.
+ *
+ * When events are moved into or out of the chronology, only those events are
+ * placed in (or taken from) the index, rows, and summary; other events keep
+ * their rows.
+ *
  * @author vwoeltje
  *
- * @param <T> the type of object which describes a specific instant in the appropriate chronology  
+ * @param <T> the type of object which describes a specific instant in the appropriate chronology
  */
 public class TimelineArea<T extends ChronologicalInstant> extends JPanel {
 	private static final long serialVersionUID = 939210548797405463L;
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
 	private final static Logger LOGGER = LoggerFactory.getLogger(TimelineArea.class);
-	
+
 	private final Border HARD_BORDER = BorderFactory.createLineBorder(new Color(128, 120, 64), 2); //new CapsuleBorder(20, 3, false);
-	
+
 	private static final int LINE_HEIGHT = 60;
+	private static final int POINT_WIDTH = 300;      // Widest that an instantaneous event is drawn
+	private static final int MIN_DETAIL_WIDTH = 12;  // Narrower events are drawn as plain bars
+	private static final int MAX_REPRESENTATIONS = 256;
+	private static final double POINT_EXTENT = 0.25; // Row space reserved after an instantaneous event
+	private static final double EPSILON = 0.000001;  // Allow a small epsilon of error when packing
+	private static final int MAX_EVENTS_PER_PIXEL = 2; // Denser views show a summary instead of events
+	private static final int MIN_BUCKET_WIDTH = 3;     // Narrowest that a summary bucket is drawn
+
+	private static final Color ROW_BACKGROUND   = Color.GRAY.darker();
+	private static final Color ROW_SEPARATOR    = Color.DARK_GRAY;
+	private static final Color EVENT_BACKGROUND = new Color(230, 230, 200);
+	private static final Color EVENT_BORDER     = new Color(128, 120, 64);
+	private static final Color SELECTION_COLOR  = new Color(168, 220, 250);
+
+	// Summary buckets with more events (by powers of two) are drawn more opaque
+	private static final Color[] BUCKET_COLORS = new Color[8];
+	static {
+		for (int i = 0; i < BUCKET_COLORS.length; i++) {
+			BUCKET_COLORS[i] = new Color(230, 230, 200, 80 + 24 * i);
+		}
+	}
 
     private Chronology<T>            chronology;
     private TimelineInterval<T>      timelineInterval;
 	private TimelineView             view;
-	private List<TimelineRow> rows = new ArrayList<TimelineRow>();
-	
+
+	private TimelineEventIndex<T> index;
+	private int[]   rows      = {};       // Row of each event in the index
+	private int[]   rowCounts = {};       // Number of events in each row
+	private int     rowCount  = 0;
+	private ChronologySummary<T> summary; // Positions relative to boundary
+
+	private final CellRendererPane rendererPane = new CellRendererPane();
+	private final Map<Integer, JComponent> representations =
+			new LinkedHashMap<Integer, JComponent>(16, 0.75f, true) {
+				private static final long serialVersionUID = -2181049738155939871L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<Integer, JComponent> eldest) {
+					if (size() > MAX_REPRESENTATIONS) {
+						rendererPane.remove(eldest.getValue());
+						return true;
+					}
+					return false;
+				}
+			};
+
+	private int selected = -1; // Index of selected event
+	private int pressed  = -1; // Index of event under a mouse press, until dragged
+	private int dragged  = -1; // Index of event being dragged
+
 	/**
 	 * Create a new timeline representation of some sequence of events
 	 * @param chrono the sequence of events to display
@@ -52,147 +124,670 @@ public class TimelineArea<T extends ChronologicalInstant> extends JPanel {
 	 * @param extent the interval of time for which to prepare data (may extend off-screen)
 	 * @param layout a TimelineLayout responsible for managing the layout of this view
 	 */
-	public TimelineArea (Chronology<T> chrono, 
+	public TimelineArea (Chronology<T> chrono,
 			  TimelineInterval<T> ti,
 			  TimelineView        view) {
-		this.chronology = chrono;		
+		this.chronology = chrono;
 		this.timelineInterval = ti;
 		this.view     = view;
-		
-		setLayout(new BoxLayout(this, BoxLayout.Y_AXIS));
-		
+
+		setLayout(null);
+		add(rendererPane);
+
 		buildArea();
-		
+
 		setOpaque(false);
 		setBackground(Color.CYAN);
-		
+		setToolTipText(""); // Register with tooltip manager
+
+		MouseAdapter mouseHandler = new EventMouseHandler();
+		addMouseListener(mouseHandler);
+		addMouseMotionListener(mouseHandler);
+
 		// Mutable chronologies should accept dragged events
 		if (chrono.isMutable()) {
+			setTransferHandler(new EventTransferHandler());
 			setDropTarget(new TimelineAreaDropTarget());
 		}
 	}
-	
+
 	private void buildArea() {
-		rows = new ArrayList<TimelineRow>();
-		removeAll();
+		List<ChronologicalEvent<T>> events = new ArrayList<ChronologicalEvent<T>>();
 		for (ChronologicalEvent<T> event : chronology.getEvents()) {
 			if (timelineInterval.getDomain().contains(timelineInterval.getBoundary(), event)) {
-				addEvent(event);
+				events.add(event);
 			}
 		}
+		index = new TimelineEventIndex<T>(events, timelineInterval.getDomain(), timelineInterval.getBoundary());
+		packRows();
+		buildSummary();
 	}
-	
-	private void addEvent(final ChronologicalEvent<T> event) {
 
-		double start = timelineInterval.getDomain().locateBetween(event.getStart(), 
-				timelineInterval.getBoundary().getStart(), timelineInterval.getBoundary().getEnd());
-		double end   = timelineInterval.getDomain().locateBetween(event.getEnd(), 
-				timelineInterval.getBoundary().getStart(), timelineInterval.getBoundary().getEnd());
+	private void buildSummary() {
+		summary = new ChronologySummary<T>(timelineInterval.getDomain(), timelineInterval.getBoundary(), getSummaryDepth());
+		for (ChronologicalEvent<T> event : index.getEvents()) {
+			summary.add(event);
+		}
+	}
 
-		final JComponent representation = event.getRepresentation(new Dimension(300, LINE_HEIGHT));
-		
-		representation.setFont(representation.getFont().deriveFont(10.0f));
-		representation.setBackground(new Color(230, 230, 200));
-		representation.setBorder(HARD_BORDER);
-		if (chronology.isMutable()) {
-			representation.setTransferHandler(new TransferHandler() {
-				private static final long serialVersionUID = -7101095680976605761L;
+	/* About one event per bucket at the finest level */
+	private int getSummaryDepth() {
+		return Math.min(ChronologySummary.DEFAULT_DEPTH, 32 - Integer.numberOfLeadingZeros(index.size()));
+	}
 
-				@Override
-				public int getSourceActions(JComponent c) {
-					return COPY;
+	/**
+	 * Place each event in the first row where it does not overlap
+	 * any other. Events are visited in order of start, so a row
+	 * which has room for one event has room for every later one;
+	 * rows are therefore moved from a queue ordered by end (busy)
+	 * to a queue ordered by number (free) as events are placed.
+	 */
+	private void packRows() {
+		int n = index.size();
+		rows = new int[n];
+
+		PriorityQueue<RowEnd> busy = new PriorityQueue<RowEnd>();
+		PriorityQueue<Integer> free = new PriorityQueue<Integer>();
+		rowCount = 0;
+		for (int i = 0; i < n; i++) {
+			while (!busy.isEmpty() && index.getStart(i) >= busy.peek().end - EPSILON) {
+				free.add(busy.poll().row);
+			}
+			int row = free.isEmpty() ? rowCount++ : free.poll();
+			rows[i] = row;
+			busy.add(new RowEnd(row, getReservedEnd(i)));
+		}
+
+		rowCounts = new int[rowCount];
+		for (int row : rows) {
+			rowCounts[row]++;
+		}
+	}
+
+	/* The end of the row space used by an event; instantaneous events need room to be drawn */
+	private double getReservedEnd(int i) {
+		return (index.getStart(i) != index.getEnd(i)) ? index.getEnd(i) : index.getEnd(i) + POINT_EXTENT;
+	}
+
+	/**
+	 * Find the first row in which an event overlaps no other, as packRows
+	 * would have placed it had it been visited after every other event.
+	 */
+	private int findFreeRow(final int i) {
+		final double low  = index.getStart(i);
+		final double high = getReservedEnd(i);
+		final BitSet busy = new BitSet(rowCount);
+		index.findOverlapping(low - POINT_EXTENT, high, new TimelineEventIndex.Visitor() {
+			@Override
+			public void visit(int j) {
+				if (j != i && index.getStart(j) < high - EPSILON && low < getReservedEnd(j) - EPSILON) {
+					busy.set(rows[j]);
 				}
+			}
+		});
+		return busy.nextClearBit(0);
+	}
 
-				@Override
-				protected Transferable createTransferable(JComponent c) {
-					return new TimelineTransferable<T>(chronology, event);
-				}			
-			});
-			representation.addMouseMotionListener( new MouseMotionListener() {
-				public void mouseDragged(MouseEvent evt) {
-					if (true) { //mouse pressed 
-						representation.getTransferHandler().exportAsDrag(representation, evt, TransferHandler.COPY);
+	/**
+	 * Check whether this area shows the given chronology.
+	 * @param chrono the chronology to check
+	 * @return true if this area displays that chronology's events
+	 */
+	boolean shows(Chronology<?> chrono) {
+		return chronology == chrono;
+	}
+
+	/**
+	 * Bring this area up to date after events have been moved into or out of its
+	 * chronology. Only those events are placed in or taken from the index, rows,
+	 * and summary, and only their spans are marked for repainting, unless the
+	 * number of rows has changed (in which case the area is laid out anew.)
+	 * @param added events now held by the chronology (as the chronology holds them)
+	 * @param removed events no longer held by the chronology
+	 */
+	void chronologyChanged(List<? extends ChronologicalEvent<?>> added, List<? extends ChronologicalEvent<?>> removed) {
+		Window window = new Window(view.getLayout());
+		boolean wasSummarized = isSummarized(window);
+		int before = rowCount;
+		Rectangle dirty = null;
+
+		pressed = dragged = -1;
+		for (ChronologicalEvent<?> event : removed) {
+			int i = index.indexOf(cast(event));
+			if (i >= 0) {
+				dirty = union(dirty, getEventBounds(i, window));
+				removeEvent(i);
+			}
+		}
+		for (ChronologicalEvent<?> event : added) {
+			if (timelineInterval.getDomain().contains(timelineInterval.getBoundary(), cast(event))) {
+				dirty = union(dirty, getEventBounds(addEvent(cast(event)), window));
+			}
+		}
+
+		TimelineRepaintScheduler scheduler = view.getRepaintScheduler();
+		if (rowCount != before) {
+			scheduler.markLayoutDirty(this);
+			scheduler.markDirty(this);
+			return;
+		}
+		if (window.span <= 0 || window.width <= 0) {
+			scheduler.markDirty(this);
+			return;
+		}
+
+		// Summaries span every row, and their buckets are wider than events
+		if (dirty != null && (wasSummarized || isSummarized(window))) {
+			int level = summary.getLevel(window.span, window.width, MIN_BUCKET_WIDTH);
+			Rectangle first = getBucketBounds(level, summary.getBucket(level, window.toPosition(dirty.x)), window);
+			Rectangle last  = getBucketBounds(level, summary.getBucket(level, window.toPosition(dirty.x + dirty.width)), window);
+			dirty = first.union(last);
+		}
+		if (dirty != null) {
+			scheduler.markDirty(this, dirty);
+		}
+	}
+
+	/**
+	 * Rebuild this area after its chronology has changed in some unknown way.
+	 */
+	void chronologyChanged() {
+		rendererPane.removeAll();
+		representations.clear();
+		selected = pressed = dragged = -1;
+		buildArea();
+
+		TimelineRepaintScheduler scheduler = view.getRepaintScheduler();
+		scheduler.markLayoutDirty(this);
+		scheduler.markDirty(this);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ChronologicalEvent<T> cast(ChronologicalEvent<?> event) {
+		return (ChronologicalEvent<T>) event; // Events of a chronology share its domain
+	}
+
+	private int addEvent(ChronologicalEvent<T> event) {
+		int i = index.add(event);
+		int n = index.size();
+		if (rows.length < n) {
+			rows = Arrays.copyOf(rows, n + (n >> 1) + 1);
+		}
+		System.arraycopy(rows, i, rows, i + 1, n - i - 1);
+		renumber(i, 1);
+
+		int row = findFreeRow(i);
+		if (row >= rowCounts.length) {
+			rowCounts = Arrays.copyOf(rowCounts, row + 1);
+		}
+		rows[i] = row;
+		rowCounts[row]++;
+		rowCount = Math.max(rowCount, row + 1);
+
+		updateSummary(event, true);
+		return i;
+	}
+
+	private void removeEvent(int i) {
+		int row = rows[i];
+		System.arraycopy(rows, i + 1, rows, i, index.size() - i - 1);
+		ChronologicalEvent<T> event = index.remove(i);
+		renumber(i, -1);
+
+		// Rows emptied at the bottom are dropped; others are kept, so that no event moves
+		rowCounts[row]--;
+		while (rowCount > 0 && rowCounts[rowCount - 1] == 0) {
+			rowCount--;
+		}
+
+		updateSummary(event, false);
+	}
+
+	/**
+	 * Renumber references to events after one has been added or removed at
+	 * the given index.
+	 */
+	private void renumber(int from, int delta) {
+		if (selected >= from) {
+			selected = (delta < 0 && selected == from) ? -1 : selected + delta;
+		}
+		List<Integer>    keys   = new ArrayList<Integer>(representations.keySet());
+		List<JComponent> values = new ArrayList<JComponent>(representations.values());
+		representations.clear();
+		for (int k = 0; k < keys.size(); k++) { // In order of use, which is kept
+			int i = keys.get(k);
+			if (i < from) {
+				representations.put(i, values.get(k));
+			} else if (delta < 0 && i == from) {
+				rendererPane.remove(values.get(k));
+			} else {
+				representations.put(i + delta, values.get(k));
+			}
+		}
+	}
+
+	private void updateSummary(ChronologicalEvent<T> event, boolean added) {
+		// Rebuild only when the depth is too shallow, or two levels too deep (so that
+		// adding and removing an event around a power of two does not rebuild each time)
+		int depth = getSummaryDepth();
+		if (depth > summary.getDepth() || depth < summary.getDepth() - 1) {
+			buildSummary();
+		} else if (added) {
+			summary.add(event);
+		} else {
+			summary.remove(event);
+		}
+	}
+
+	/**
+	 * Find the event which this area's chronology holds for one just added
+	 * at the given instant, since chronologies need not retain the event
+	 * objects they are given.
+	 * @return the event held by the chronology, or null if it cannot be found
+	 */
+	private ChronologicalEvent<T> findAdded(ChronologicalEvent<?> event, T start) {
+		ChronologyDomain<T>      domain   = timelineInterval.getDomain();
+		ChronologicalInterval<T> boundary = timelineInterval.getBoundary();
+		ChronologicalEvent<T>    moved    = cast(event);
+
+		// The end is found by way of positions, so allow a little for rounding
+		double length = domain.locateBetween(moved.getEnd(),   boundary.getStart(), boundary.getEnd()) -
+		                domain.locateBetween(moved.getStart(), boundary.getStart(), boundary.getEnd());
+		double end = domain.locateBetween(start, boundary.getStart(), boundary.getEnd()) + length + EPSILON;
+		ChronologicalInterval<T> span = new ChronologicalInterval<T>(start, domain.instantAt(boundary, end));
+		for (ChronologicalEvent<T> candidate : chronology.getEvents(span)) {
+			if (candidate.getEventInfo() == moved.getEventInfo() &&
+					domain.getComparator().compare(candidate.getStart(), start) == 0) {
+				return candidate;
+			}
+		}
+		return null;
+	}
+
+	private static Rectangle union(Rectangle a, Rectangle b) {
+		return (a == null) ? b : (b == null) ? a : a.union(b);
+	}
+
+	@Override
+	public Dimension getPreferredSize() {
+		return new Dimension(view.getLayout().getWidth(), rowCount * LINE_HEIGHT);
+	}
+
+	@Override
+	protected void paintComponent(Graphics g) {
+		super.paintComponent(g);
+
+		Rectangle clip = g.getClipBounds();
+		if (clip == null) {
+			clip = new Rectangle(0, 0, getWidth(), getHeight());
+		}
+		int width = view.getLayout().getWidth();
+
+		// Row backgrounds
+		int firstRow = Math.max(0, clip.y / LINE_HEIGHT);
+		int lastRow  = Math.min(rowCount - 1, (clip.y + clip.height) / LINE_HEIGHT);
+		for (int row = firstRow; row <= lastRow; row++) {
+			g.setColor(ROW_BACKGROUND);
+			g.fillRect(0, row * LINE_HEIGHT, width, LINE_HEIGHT - 1);
+			g.setColor(ROW_SEPARATOR);
+			g.drawLine(0, (row + 1) * LINE_HEIGHT - 1, width, (row + 1) * LINE_HEIGHT - 1);
+		}
+
+		// Events overlapping the clip (including instantaneous events drawn into it)
+		Window window = new Window(view.getLayout());
+		if (isSummarized(window)) {
+			paintSummary(g, clip, window);
+		} else if (window.span > 0 && width > 0 && lastRow >= firstRow) {
+			index.findOverlapping(
+					window.toPosition(clip.x - window.getPointWidth(0)),
+					window.toPosition(clip.x + clip.width),
+					new EventPainter(g, clip, window));
+		}
+	}
+
+	/**
+	 * Determine whether there are too many events in view to draw individually.
+	 */
+	private boolean isSummarized(Window window) {
+		return window.span > 0 && window.width > 0 &&
+		       summary.getCount(window.low, window.low + window.span) > window.width * MAX_EVENTS_PER_PIXEL;
+	}
+
+	/**
+	 * Draw the number of events over time, rather than the events themselves.
+	 */
+	private void paintSummary(Graphics g, Rectangle clip, Window window) {
+		int level = summary.getLevel(window.span, window.width, MIN_BUCKET_WIDTH);
+		int first = summary.getBucket(level, window.toPosition(clip.x));
+		int last  = summary.getBucket(level, window.toPosition(clip.x + clip.width));
+		int height = rowCount * LINE_HEIGHT;
+		for (int bucket = first; bucket <= last; bucket++) {
+			int count = summary.getCount(level, bucket);
+			if (count > 0) {
+				Rectangle r = getBucketBounds(level, bucket, window);
+				int shade = Math.min(BUCKET_COLORS.length - 1, 31 - Integer.numberOfLeadingZeros(count));
+				g.setColor(BUCKET_COLORS[shade]);
+				g.fillRect(r.x, 0, Math.max(r.width - 1, 1), height);
+			}
+		}
+	}
+
+	private Rectangle getBucketBounds(int level, int bucket, Window window) {
+		double size = 1.0 / summary.getBucketCount(level);
+		int x1 = (int) (window.width * (bucket * size - window.low) / window.span);
+		int x2 = (int) (window.width * ((bucket + 1) * size - window.low) / window.span);
+		return new Rectangle(x1, 0, x2 - x1, rowCount * LINE_HEIGHT);
+	}
+
+	/**
+	 * Get the on-screen bounds of an event.
+	 * @return the event's bounds, or null if it is out of view
+	 */
+	private Rectangle getEventBounds(int i, Window window) {
+		return getBounds(index.getStart(i), index.getEnd(i), rows[i], window);
+	}
+
+	private Rectangle getBounds(double low, double high, int row, Window window) {
+		double start = (low  - window.low) / window.span;
+		double end   = (high - window.low) / window.span;
+		if (end < 0.0 || start > 1.0) {
+			return null;
+		}
+		int x1 = (int) (window.width * Math.max(0.0, start));
+		int x2 = (int) (window.width * Math.min(1.0, end));
+		int w  = (low != high) ? x2 - x1 : window.getPointWidth(x1);
+		return new Rectangle(x1, row * LINE_HEIGHT, w, LINE_HEIGHT - 1);
+	}
+
+	/**
+	 * Find the event at a given point, if any. Events overlapping the
+	 * point's position are found from the index; at most one per row
+	 * does, besides instantaneous events drawn past their end.
+	 * @return the index of the event at that point, or -1 if there is none
+	 */
+	private int getEventAt(final Point p) {
+		final int row = p.y / LINE_HEIGHT;
+		if (p.y < 0 || row >= rowCount) {
+			return -1;
+		}
+		final Window window = new Window(view.getLayout());
+		if (window.span <= 0 || window.width <= 0 || isSummarized(window)) {
+			return -1;
+		}
+
+		// Instantaneous events may be drawn over the next few, so look back a little;
+		// where events are drawn over one another, the last drawn is the one found
+		final int[] found = { -1 };
+		index.findOverlapping(window.toPosition(p.x - window.getPointWidth(0)), window.toPosition(p.x + 1),
+				new TimelineEventIndex.Visitor() {
+					@Override
+					public void visit(int i) {
+						if (rows[i] == row) {
+							Rectangle r = getEventBounds(i, window);
+							if (r != null && r.contains(p)) {
+								found[0] = i;
+							}
+						}
 					}
-				}
+				});
+		return found[0];
+	}
 
-				@Override
-				public void mouseMoved(MouseEvent arg0) {
+	private JComponent getRepresentation(int i) {
+		JComponent representation = representations.get(i);
+		if (representation == null) {
+			representation = index.getEvent(i).getRepresentation(new Dimension(POINT_WIDTH, LINE_HEIGHT));
+			Font font = representation.getFont();
+			if (font != null) {
+				representation.setFont(font.deriveFont(10.0f));
+			}
+			representation.setBackground(EVENT_BACKGROUND);
+			representation.setBorder(HARD_BORDER);
+			representations.put(i, representation);
+		}
+		return representation;
+	}
+
+	/**
+	 * Find the component which would be under the given point, within
+	 * an event's representation.
+	 */
+	private Component getComponentAt(int i, Point p) {
+		Rectangle r = getEventBounds(i, new Window(view.getLayout()));
+		JComponent representation = getRepresentation(i);
+		if (r == null) {
+			return representation;
+		}
+		if (representation.getParent() != rendererPane) {
+			rendererPane.add(representation);
+		}
+		representation.setBounds(r);
+		representation.validate();
+		Component c = SwingUtilities.getDeepestComponentAt(representation, p.x - r.x, p.y - r.y);
+		return c != null ? c : representation;
+	}
+
+	private void forward(MouseEvent e, int i) {
+		Component target = getComponentAt(i, e.getPoint());
+		Point p = SwingUtilities.convertPoint(this, e.getPoint(), target);
+		target.dispatchEvent(new MouseEvent(target, e.getID(), e.getWhen(), e.getModifiers(),
+				p.x, p.y, e.getXOnScreen(), e.getYOnScreen(),
+				e.getClickCount(), e.isPopupTrigger(), e.getButton()));
+	}
+
+	private void select(int i) {
+		if (selected != i) {
+			Window window = new Window(view.getLayout());
+			repaintEvent(selected, window);
+			selected = i;
+			repaintEvent(selected, window);
+		}
+	}
+
+	private void repaintEvent(int i, Window window) {
+		Rectangle r = (i >= 0) ? getEventBounds(i, window) : null;
+		if (r != null) {
+			repaint(r);
+		}
+	}
+
+	@Override
+	public String getToolTipText(MouseEvent e) {
+		Window window = new Window(view.getLayout());
+		if (isSummarized(window)) {
+			int level = summary.getLevel(window.span, window.width, MIN_BUCKET_WIDTH);
+			int bucket = summary.getBucket(level, window.toPosition(e.getX()));
+			int count = summary.getCount(level, bucket);
+			return (count == 0) ? null : String.format(BUNDLE.getString("summary_description"), count,
+					summary.getFirst(level, bucket).getStart(), summary.getLast(level, bucket).getStart());
+		}
+		int i = getEventAt(e.getPoint());
+		if (i < 0) {
+			return null;
+		}
+		Component c = getComponentAt(i, e.getPoint());
+		return (c instanceof JComponent) ? ((JComponent) c).getToolTipText() : null;
+	}
+
+	/**
+	 * The visible window, expressed in positions relative to the boundary.
+	 */
+	private class Window {
+		private final int    width;
+		private final double low;
+		private final double span;
+
+		public Window(TimelineLayout layout) {
+			this.width = layout.getWidth();
+			this.low   = layout.getWindowLow();
+			this.span  = layout.getWindowHigh() - low;
+		}
+
+		public double toPosition(int x) {
+			return low + span * x / width;
+		}
+
+		public int getPointWidth(int x) {
+			return Math.min(width / 5, Math.min(POINT_WIDTH, width - x));
+		}
+	}
+
+	/**
+	 * Paints each event found in the index. Events too narrow to show their
+	 * representation are drawn as plain bars, skipping any which would only
+	 * cover pixels already painted in the same row.
+	 */
+	private class EventPainter implements TimelineEventIndex.Visitor {
+		private final Graphics  g;
+		private final Rectangle clip;
+		private final Window    window;
+		private final int[]     covered = new int[rowCount];
+
+		public EventPainter(Graphics g, Rectangle clip, Window window) {
+			this.g = g;
+			this.clip = clip;
+			this.window = window;
+			Arrays.fill(covered, Integer.MIN_VALUE);
+		}
+
+		@Override
+		public void visit(int i) {
+			Rectangle r = getEventBounds(i, window);
+			if (r == null || !r.intersects(clip)) {
+				return;
+			}
+			if (r.width < MIN_DETAIL_WIDTH) {
+				int row = rows[i];
+				int right = r.x + Math.max(r.width, 1);
+				if (right <= covered[row] && i != selected) {
+					return;
 				}
+				g.setColor(EVENT_BACKGROUND);
+				g.fillRect(r.x, r.y, right - r.x, r.height);
+				g.setColor(EVENT_BORDER);
+				g.drawLine(r.x, r.y, r.x, r.y + r.height - 1);
+				covered[row] = Math.max(covered[row], right);
+			} else {
+				rendererPane.paintComponent(g, getRepresentation(i), TimelineArea.this,
+						r.x, r.y, r.width, r.height, true);
+			}
+			if (i == selected) {
+				g.setColor(SELECTION_COLOR);
+				g.drawRect(r.x, r.y, Math.max(r.width, 1) - 1, r.height - 1);
+				g.drawRect(r.x + 1, r.y + 1, Math.max(r.width, 3) - 3, r.height - 3);
+			}
+		}
+	}
+
+	private static class RowEnd implements Comparable<RowEnd> {
+		private final int    row;
+		private final double end;
 
-			});
+		public RowEnd(int row, double end) {
+			this.row = row;
+			this.end = end;
 		}
-				
-		boolean placed = false;
-		for (TimelineRow row : rows) {
-			placed = row.addComponentAt(representation, start, end);
-			if (placed) break;
+
+		@Override
+		public int compareTo(RowEnd other) {
+			int c = Double.compare(end, other.end);
+			return c != 0 ? c : (row < other.row ? -1 : (row == other.row ? 0 : 1));
 		}
-		if (!placed) {
-			TimelineRow row = new TimelineRow();
-			row.addComponentAt(representation, start, end);
-			rows.add(row);
-			add(row, Component.TOP_ALIGNMENT);
+	}
+
+	private class EventMouseHandler extends MouseAdapter {
+		@Override
+		public void mousePressed(MouseEvent e) {
+			pressed = getEventAt(e.getPoint());
+			select(pressed);
+			if (pressed >= 0) {
+				forward(e, pressed);
+			}
 		}
-		for (TimelineRow row : rows) row.validate();
-		representation.validate();
-		for (TimelineRow row : rows) row.validate();
-		
-	}
-	
-	private class TimelineRow extends JPanel {
-		private static final long serialVersionUID = -3967481096524053400L;
-
-		private double maximumX;
-		private TimelineLayout timelineLayout = view.getLayout();
-
-		TimelineRow() {
-			maximumX = Double.MIN_VALUE;
-			setLayout(timelineLayout);
-			setBackground(Color.GRAY.darker());
-			setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, Color.DARK_GRAY));
-		}
-		
-		public boolean addComponentAt(JComponent comp, double low, double high) {
-			if (low < maximumX - 0.000001) return false; // Allow a small epsilon of error
-			if (low != high) maximumX = Math.max(maximumX, high);
-			else             maximumX = Math.max(maximumX, high + 0.25);
-			add(comp, timelineLayout.makeWeight(low, high));
-            
-			return true;
-		}
-				
-	}
-	
+
+		@Override
+		public void mouseReleased(MouseEvent e) {
+			int i = getEventAt(e.getPoint());
+			if (i >= 0) {
+				forward(e, i);
+			}
+			pressed = -1;
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			int i = getEventAt(e.getPoint());
+			if (i >= 0) {
+				forward(e, i);
+			}
+		}
+
+		@Override
+		public void mouseDragged(MouseEvent e) {
+			if (pressed >= 0 && chronology.isMutable()) {
+				dragged = pressed;
+				pressed = -1;
+				getTransferHandler().exportAsDrag(TimelineArea.this, e, TransferHandler.COPY);
+			}
+		}
+	}
+
+	private class EventTransferHandler extends TransferHandler {
+		private static final long serialVersionUID = -7101095680976605761L;
+
+		@Override
+		public int getSourceActions(JComponent c) {
+			return COPY;
+		}
+
+		@Override
+		protected Transferable createTransferable(JComponent c) {
+			return (dragged >= 0) ? new TimelineTransferable<T>(chronology, index.getEvent(dragged)) : null;
+		}
+	}
+
 	private class TimelineAreaDropTarget extends DropTarget {
 		private static final long serialVersionUID = 778939854728776289L;
-		
+
 		public void drop (DropTargetDropEvent event) {
 			if (event.getTransferable().isDataFlavorSupported(TimelineTransferable.EVENT_FLAVOR)) {
-				
+
 				try {
 					TimelineTransferable<?> transferable =
 						(TimelineTransferable<?>) event.getTransferable().getTransferData(TimelineTransferable.EVENT_FLAVOR);
-					
+
 					double proportion = event.getLocation().getX() / TimelineArea.this.getWidth();
 					T instant = timelineInterval.getDomain().instantAt(timelineInterval.getInterval(), proportion);
-					
-					if (!handleTransfer(transferable, instant)) {
+
+					if (handleTransfer(transferable, instant)) {
+						// Only the areas showing either chronology have changed, and only by the moved event
+						List<ChronologicalEvent<?>> none  = Collections.emptyList();
+						List<ChronologicalEvent<?>> moved = Collections.<ChronologicalEvent<?>>singletonList(transferable.getEvent());
+						boolean within = transferable.getChronology() == chronology;
+						ChronologicalEvent<T> added = findAdded(transferable.getEvent(), instant);
+						if (added != null) {
+							view.chronologyChanged(chronology, Collections.singletonList(added), within ? moved : none);
+						} else {
+							view.chronologyChanged(chronology);
+						}
+						if (!within) {
+							view.chronologyChanged(transferable.getChronology(), none, moved);
+						}
+					} else {
 						event.rejectDrop();
 					}
 
-					view.updateMonitoredGUI();
-					
 				} catch (Exception ioe) {
 					event.rejectDrop();
 					LOGGER.warn("Drop event appeared valid but could not be completed due to unexpected exception.", ioe);
-					return; 
+					return;
 				}
 			} else {
 				event.rejectDrop();
 				return;
 			}
 		}
-		
+
 		@SuppressWarnings("unchecked")
 		private <I extends ChronologicalInstant> boolean handleTransfer(TimelineTransferable<I> transferable, T instant) {
 			if (chronology.getDomain().equals(transferable.getChronology().getDomain())) {
@@ -202,13 +797,13 @@ public class TimelineArea<T extends ChronologicalInstant> extends JPanel {
 				if (destination.add(transferable.getEvent(), inst)) {
 					if (!source.remove(transferable.getEvent())) {
 						LOGGER.warn("Could not remove source event from its original chronology when moving.");
-					} 
+					}
 					return true;
 				}
 			}
 			return false;
 		}
-		
+
 	}
-	
+
 }
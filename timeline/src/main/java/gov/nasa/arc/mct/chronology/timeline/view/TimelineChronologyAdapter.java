@@ -7,8 +7,11 @@ import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
 import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
 
 import java.awt.Dimension;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.RandomAccess;
 
 import javax.swing.JComponent;
 
@@ -16,6 +19,15 @@ import javax.swing.JComponent;
  * Serves as a proxy which maps events from one chronological domain to another
  * (for instance, may be used to convert outline steps - "1, 1.1, 1.2, 2, 2.1" - 
  * to the UNIX time domain). This conversion is linear.
+ * 
+ * Events are converted as they are requested, rather than all at once; the 
+ * list of all events is a view of the source's list. Conversions are cached 
+ * by position in the source, and reused for as long as the source holds the 
+ * same event at that position (source events are immutable.) 
+ * 
+ * When the source chronology's events are ordered by start, as is usual, 
+ * events within an interval are found by binary search, since the conversion 
+ * preserves order; otherwise, all events are scanned.
  * @author vwoeltje
  *
  * @param <T> the class of object which represents a moment in the output domain
@@ -27,7 +39,10 @@ public class TimelineChronologyAdapter<T extends ChronologicalInstant, S extends
     private ChronologicalInterval<T> targetInterval;
     private ChronologicalInterval<S> sourceInterval;
     private Chronology<S>  sourceChronology;
-    private List<ChronologicalEvent<T>> events;
+    
+    // Conversions of the source's events, by position in the source
+    private List<ChronologicalEvent<S>> convertedFrom = new ArrayList<ChronologicalEvent<S>>();
+    private List<ChronologicalEvent<T>> converted = new ArrayList<ChronologicalEvent<T>>();
 	
     /**
      * Create a new chronology adapter. Points at the start of the source interval will be mapped to the 
@@ -47,11 +62,6 @@ public class TimelineChronologyAdapter<T extends ChronologicalInstant, S extends
 		this.sourceDomain     = sourceChronology.getDomain();
 		this.targetInterval   = targetInterval;
 		this.sourceInterval   = sourceInterval;
-		
-		this.events = new ArrayList<ChronologicalEvent<T>>();
-		for (ChronologicalEvent<S> event : sourceChronology.getEvents()) {
-			events.add(new ConvertedEvent(event));
-		}
 	}
 	
 	@Override
@@ -61,16 +71,85 @@ public class TimelineChronologyAdapter<T extends ChronologicalInstant, S extends
 
 	@Override
 	public List<ChronologicalEvent<T>> getEvents() {
-		return events;
+		List<ChronologicalEvent<S>> source = getSourceEvents();
+		synchronized (this) {
+			// Forget conversions of events the source no longer holds
+			if (converted.size() > source.size()) {
+				convertedFrom.subList(source.size(), convertedFrom.size()).clear();
+				converted.subList(source.size(), converted.size()).clear();
+			}
+		}
+		return new ConvertedList(source);
 	}
 
 	@Override
 	public List<ChronologicalEvent<T>> getEvents(
 			ChronologicalInterval<T> interval) {
-		// TODO: Trim some events
+		List<ChronologicalEvent<S>> source = getSourceEvents();
+		Comparator<T> cmp = targetDomain.getComparator();
+		
+		// Find the first event which starts within the interval...
+		int low  = 0;
+		boolean ordered = isOrdered(source);
+		if (ordered) {
+			int high = source.size();
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (cmp.compare(convertInsant(source.get(mid).getStart()), interval.getStart()) < 0) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+		}
+		
+		// ...and convert events from there until they start after it
+		List<ChronologicalEvent<T>> events = new ArrayList<ChronologicalEvent<T>>();
+		for (int i = low; i < source.size(); i++) {
+			ChronologicalEvent<S> event = source.get(i);
+			T start = convertInsant(event.getStart());
+			if (cmp.compare(start, interval.getEnd()) > 0) {
+				if (ordered) {
+					break;
+				}
+				continue;
+			}
+			if (cmp.compare(start, interval.getStart()) >= 0 && 
+					cmp.compare(convertInsant(event.getEnd()), interval.getEnd()) <= 0) {
+				events.add(convertEvent(i, event));
+			}
+		}
 		return events;
 	}
 	
+	private List<ChronologicalEvent<S>> getSourceEvents() {
+		List<ChronologicalEvent<S>> source = sourceChronology.getEvents();
+		return (source instanceof RandomAccess) ? source : new ArrayList<ChronologicalEvent<S>>(source);
+	}
+	
+	/* Check that events are ordered by start; comparing source instants is far cheaper than converting them */
+	private boolean isOrdered(List<ChronologicalEvent<S>> source) {
+		Comparator<S> cmp = sourceDomain.getComparator();
+		for (int i = 1; i < source.size(); i++) {
+			if (cmp.compare(source.get(i - 1).getStart(), source.get(i).getStart()) > 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	private synchronized ChronologicalEvent<T> convertEvent(int index, ChronologicalEvent<S> event) {
+		while (converted.size() <= index) {
+			convertedFrom.add(null);
+			converted.add(null);
+		}
+		if (convertedFrom.get(index) != event) {
+			convertedFrom.set(index, event);
+			converted.set(index, new ConvertedEvent(event));
+		}
+		return converted.get(index);
+	}
+	
 	@Override
 	public boolean isMutable() {
 		return false; // Adapted chronologies cannot support changes
@@ -99,6 +178,27 @@ public class TimelineChronologyAdapter<T extends ChronologicalInstant, S extends
 		return targetDomain.instantAt(targetInterval, v);
 	}
 	
+	/**
+	 * A view of the source's events, converted as they are retrieved.
+	 */
+	private class ConvertedList extends AbstractList<ChronologicalEvent<T>> implements RandomAccess {
+		private final List<ChronologicalEvent<S>> source;
+		
+		public ConvertedList(List<ChronologicalEvent<S>> source) {
+			this.source = source;
+		}
+
+		@Override
+		public ChronologicalEvent<T> get(int index) {
+			return convertEvent(index, source.get(index));
+		}
+
+		@Override
+		public int size() {
+			return source.size();
+		}
+	}
+	
 	private class ConvertedEvent extends ChronologicalEvent<T> {
 
 		private ChronologicalEvent<S> event;
@@ -0,0 +1,304 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import gov.nasa.arc.mct.chronology.ChronologyDomain;
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * An index of events by position along a time line, used to find the events
+ * which fall within some (typically visible) span without visiting the others.
+ *
+ * Positions are expressed as proportions of a reference interval, as given by
+ * {@link ChronologyDomain#locateBetween}; since these are linear, positions
+ * within any other interval are easily derived from them.
+ *
+ * Events are kept sorted by start position, so events starting within a span
+ * are found by binary search. To find events which merely overlap a span, the
+ * maximum end position of each range of events is kept in a tree, so that
+ * ranges ending before the span can be skipped.
+ *
+ * Events may be added and removed after the index is created. Later events
+ * shift along by one, as in an ArrayList, and only the part of the tree
+ * covering them is updated; the index is never sorted or located anew.
+ *
+ * @param <T> the type of object which describes a specific instant in the appropriate chronology
+ */
+public class TimelineEventIndex<T extends ChronologicalInstant> {
+	private final ChronologyDomain<T>      domain;
+	private final ChronologicalInterval<T> reference;
+	private final List<ChronologicalEvent<T>> events;
+	private double[] starts;
+	private double[] ends;
+	private double[] maxEnds; // Tree of maximum ends; node i has children 2i, 2i+1, and event i is at leaves + i
+	private int      leaves;  // Number of leaves in the tree (a power of two)
+
+	/**
+	 * Create an index of the given events.
+	 * @param events the events to index
+	 * @param domain the domain in which events reside
+	 * @param reference the interval used to express positions;
+	 *        its start lies at 0.0, and its end at 1.0
+	 */
+	public TimelineEventIndex(List<ChronologicalEvent<T>> events,
+			ChronologyDomain<T> domain, ChronologicalInterval<T> reference) {
+		this.domain    = domain;
+		this.reference = reference;
+
+		int n = events.size();
+		final double[] s = new double[n];
+		final double[] e = new double[n];
+		boolean sorted = true;
+		for (int i = 0; i < n; i++) {
+			ChronologicalEvent<T> event = events.get(i);
+			s[i] = locate(event.getStart());
+			e[i] = Math.max(s[i], locate(event.getEnd()));
+			sorted &= (i == 0 || s[i - 1] <= s[i]);
+		}
+
+		if (sorted) { // Chronologies are usually in order already
+			this.events = new ArrayList<ChronologicalEvent<T>>(events);
+			this.starts = s;
+			this.ends = e;
+		} else {
+			Integer[] order = new Integer[n];
+			for (int i = 0; i < n; i++) {
+				order[i] = i;
+			}
+			Arrays.sort(order, new Comparator<Integer>() {
+				@Override
+				public int compare(Integer a, Integer b) {
+					return Double.compare(s[a], s[b]);
+				}
+			});
+			this.events = new ArrayList<ChronologicalEvent<T>>(n);
+			this.starts = new double[n];
+			this.ends = new double[n];
+			for (int i = 0; i < n; i++) {
+				this.events.add(events.get(order[i]));
+				this.starts[i] = s[order[i]];
+				this.ends[i] = e[order[i]];
+			}
+		}
+
+		build(n);
+	}
+
+	private double locate(T instant) {
+		return domain.locateBetween(instant, reference.getStart(), reference.getEnd());
+	}
+
+	/* Build the tree of maximum ends, with room for the given number of events */
+	private void build(int capacity) {
+		leaves = Integer.highestOneBit(Math.max(1, capacity));
+		if (leaves < capacity) {
+			leaves <<= 1;
+		}
+		maxEnds = new double[2 * leaves];
+		Arrays.fill(maxEnds, Double.NEGATIVE_INFINITY);
+		update(0, size());
+	}
+
+	/* Bring the tree up to date for events from one position up to (but not including) another */
+	private void update(int from, int to) {
+		if (from >= to) {
+			return;
+		}
+		for (int i = from; i < to; i++) {
+			maxEnds[leaves + i] = (i < size()) ? ends[i] : Double.NEGATIVE_INFINITY;
+		}
+		for (int low = (leaves + from) >>> 1, high = (leaves + to - 1) >>> 1; low > 0; low >>>= 1, high >>>= 1) {
+			for (int node = low; node <= high; node++) {
+				maxEnds[node] = Math.max(maxEnds[2 * node], maxEnds[2 * node + 1]);
+			}
+		}
+	}
+
+	/**
+	 * Add an event to the index.
+	 * @param event the event to add
+	 * @return the index at which the event was placed (after any events starting at the same position)
+	 */
+	public int add(ChronologicalEvent<T> event) {
+		double start = locate(event.getStart());
+		double end   = Math.max(start, locate(event.getEnd()));
+		int n = size();
+		if (n == starts.length) {
+			int capacity = n + (n >> 1) + 1;
+			starts = Arrays.copyOf(starts, capacity);
+			ends   = Arrays.copyOf(ends,   capacity);
+		}
+		int index = firstStartingAfter(start);
+		System.arraycopy(starts, index, starts, index + 1, n - index);
+		System.arraycopy(ends,   index, ends,   index + 1, n - index);
+		starts[index] = start;
+		ends[index]   = end;
+		events.add(index, event);
+
+		if (n + 1 > leaves) {
+			build(starts.length);
+		} else {
+			update(index, n + 1);
+		}
+		return index;
+	}
+
+	/**
+	 * Remove an event from the index. Later events move back by one.
+	 * @param index the index of the event to remove
+	 * @return the event removed
+	 */
+	public ChronologicalEvent<T> remove(int index) {
+		int n = size();
+		System.arraycopy(starts, index + 1, starts, index, n - index - 1);
+		System.arraycopy(ends,   index + 1, ends,   index, n - index - 1);
+		ChronologicalEvent<T> event = events.remove(index);
+		update(index, n);
+		return event;
+	}
+
+	/**
+	 * Find an indexed event. The same event object is preferred; otherwise, an event
+	 * which starts and ends at the same positions, with the same event info, is found.
+	 * @param event the event to look for
+	 * @return the index of the event, or -1 if it is not in the index
+	 */
+	public int indexOf(ChronologicalEvent<T> event) {
+		double start = locate(event.getStart());
+		double end   = Math.max(start, locate(event.getEnd()));
+		int found = -1;
+		for (int i = firstStartingFrom(start); i < size() && starts[i] == start; i++) {
+			if (events.get(i) == event) {
+				return i;
+			}
+			if (found < 0 && ends[i] == end && events.get(i).getEventInfo() == event.getEventInfo()) {
+				found = i;
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Get the number of indexed events.
+	 * @return the number of events
+	 */
+	public int size() {
+		return events.size();
+	}
+
+	/**
+	 * Get an indexed event. Events are ordered by start position.
+	 * @param index the index of the event
+	 * @return the event
+	 */
+	public ChronologicalEvent<T> getEvent(int index) {
+		return events.get(index);
+	}
+
+	/**
+	 * Get all indexed events, ordered by start position.
+	 * @return all indexed events
+	 */
+	public List<ChronologicalEvent<T>> getEvents() {
+		return Collections.unmodifiableList(events);
+	}
+
+	/**
+	 * Get the position of the start of an indexed event.
+	 * @param index the index of the event
+	 * @return the position at which the event starts
+	 */
+	public double getStart(int index) {
+		return starts[index];
+	}
+
+	/**
+	 * Get the position of the end of an indexed event.
+	 * @param index the index of the event
+	 * @return the position at which the event ends
+	 */
+	public double getEnd(int index) {
+		return ends[index];
+	}
+
+	/**
+	 * Find the first event which starts at or after a given position.
+	 * @param position the position to search from
+	 * @return the index of the first such event, or {@link #size()} if there is none
+	 */
+	public int firstStartingFrom(double position) {
+		int low = 0;
+		int high = size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] < position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Find the first event which starts after a given position.
+	 * @param position the position to search from
+	 * @return the index of the first such event, or {@link #size()} if there is none
+	 */
+	public int firstStartingAfter(double position) {
+		int low = 0;
+		int high = size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (starts[mid] <= position) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Visit every event which overlaps the given span, in order of start position.
+	 * @param low the start of the span
+	 * @param high the end of the span
+	 * @param visitor notified of the index of each overlapping event
+	 */
+	public void findOverlapping(double low, double high, Visitor visitor) {
+		int count = firstStartingAfter(high); // Later events start too late
+		if (count > 0) {
+			findOverlapping(1, 0, leaves, count, low, visitor);
+		}
+	}
+
+	private void findOverlapping(int node, int from, int to, int count, double low, Visitor visitor) {
+		if (from >= count || maxEnds[node] < low) {
+			return; // Nothing here can overlap
+		}
+		if (to - from == 1) {
+			visitor.visit(from);
+		} else {
+			int mid = (from + to) >>> 1;
+			findOverlapping(2 * node, from, mid, count, low, visitor);
+			findOverlapping(2 * node + 1, mid, to, count, low, visitor);
+		}
+	}
+
+	/**
+	 * Notified of events found in the index.
+	 */
+	public interface Visitor {
+		/**
+		 * Called for each event found.
+		 * @param index the index of the event
+		 */
+		public void visit(int index);
+	}
+}
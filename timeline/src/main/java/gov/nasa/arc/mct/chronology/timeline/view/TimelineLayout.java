@@ -36,6 +36,10 @@ public class TimelineLayout implements LayoutManager2 {
 		/* Do nothing - strings indicate nothing in this layout */
 	}
 
+	public int getWidth() {
+		return width;
+	}
+	
 	public void setWidth(int w) {
 		width = w;
 		
@@ -124,6 +128,14 @@ public class TimelineLayout implements LayoutManager2 {
 		for (Container p : parents)          { p.invalidate(); p.validate(); p.repaint(); }
 	}
 	
+	public double getWindowLow() {
+		return window.start;
+	}
+	
+	public double getWindowHigh() {
+		return window.end;
+	}
+	
 	@Override
 	public Dimension maximumLayoutSize(Container arg0) {		 
 		return new Dimension(arg0.getParent().getWidth(), (heights.containsKey(arg0) ? heights.get(arg0) : height));
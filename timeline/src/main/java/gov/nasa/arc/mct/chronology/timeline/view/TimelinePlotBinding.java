@@ -0,0 +1,94 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.components.ExtendedProperties;
+import gov.nasa.arc.mct.gui.View;
+import gov.nasa.arc.mct.services.component.ViewInfo;
+import gov.nasa.arc.mct.services.internal.component.ComponentInitializer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Binds a feed to the plot shown in its lane of a timeline. The plot's
+ * configuration (time axis, line style, et cetera) is held here, as view
+ * state only: plots are shown for an unsaved copy of the feed, which is
+ * never persisted, so opening a timeline writes nothing.
+ */
+class TimelinePlotBinding {
+	private final AbstractComponent feed;
+	private final ViewInfo          viewInfo;
+	private final Map<String, String> settings = new LinkedHashMap<String, String>();
+	private AbstractComponent plotted = null; // Created when first plotted
+
+	/**
+	 * Create a new binding between a feed and its plot.
+	 * @param feed the component providing the feed
+	 * @param viewInfo the plot view to show for the feed
+	 */
+	public TimelinePlotBinding(AbstractComponent feed, ViewInfo viewInfo) {
+		this.feed     = feed;
+		this.viewInfo = viewInfo;
+
+		settings.put("PinTimeAxis", "true");
+		settings.put("PlotTimeAxisSubsequentSetting", "FIXED");
+		settings.put("PlotTimeAxisSetting", "X_AXIS_AS_TIME");
+		settings.put("PlotXAxisMaximumLocation", "MAXIMUM_AT_RIGHT");
+		settings.put("PlotYAxisMaximumLocation", "MAXIMUM_AT_TOP");
+		settings.put("PlotNonTimeAxisSubsequentMinSetting", "AUTO");
+		settings.put("PlotNonTimeAxisSubsequentMaxSetting", "AUTO");
+		settings.put("TimeSystem", "GMT");
+		settings.put("TimeFormat", "DDD/HH:mm:ss");
+		settings.put("NonTimeMin", "0.0");
+		settings.put("NonTimeMax", "1.0");
+		settings.put("TimePadding", "1.0");
+		settings.put("NonTimeMinPadding", "1.0");
+		settings.put("NonTimeMaxPadding", "1.0");
+		settings.put("GroupByOrdinalPosition", "true");
+		settings.put("PlotLineConnectionType", "STEP_X_THEN_Y");
+		settings.put("PlotLineDrawLines", "true");
+		settings.put("PlotLineDrawMarkers", "false");
+	}
+
+	/**
+	 * Set the span of time to plot.
+	 * @param min the earliest time to plot, in milliseconds since UNIX epoch
+	 * @param max the latest time to plot, in milliseconds since UNIX epoch
+	 */
+	public void setTimeRange(long min, long max) {
+		settings.put("TimeMin", Long.toString(min));
+		settings.put("TimeMax", Long.toString(max));
+	}
+
+	/**
+	 * Get the configuration applied to plots of this feed.
+	 * @return plot settings, as view property names and values
+	 */
+	public Map<String, String> getSettings() {
+		return Collections.unmodifiableMap(settings);
+	}
+
+	/**
+	 * Create a plot of the feed, using the current settings.
+	 * @return a new plot view
+	 */
+	public View createPlot() {
+		if (plotted == null) {
+			plotted = feed.clone();
+			plotted.setDisplayName("*");
+		}
+		
+		// Plots read their settings when created, so apply them to the copy first
+		ComponentInitializer initializer = plotted.getCapability(ComponentInitializer.class);
+		ExtendedProperties properties = initializer.getViewRoleProperties(viewInfo.getType());
+		if (properties == null) {
+			properties = new ExtendedProperties();
+			initializer.setViewRoleProperty(viewInfo.getType(), properties);
+		}
+		for (Map.Entry<String, String> setting : settings.entrySet()) {
+			properties.setProperty(setting.getKey(), setting.getValue());
+		}
+		return viewInfo.createView(plotted);
+	}
+}
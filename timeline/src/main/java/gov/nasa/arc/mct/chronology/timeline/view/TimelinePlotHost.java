@@ -0,0 +1,26 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import java.awt.Component;
+
+/**
+ * Implemented by views which host plots, so that a timeline can align
+ * their time axes with its own. Views which do not implement this are
+ * aligned by searching for their plot area, which is slower and depends
+ * upon the plot's internal structure.
+ */
+public interface TimelinePlotHost {
+	/**
+	 * Get the area in which data is plotted. Its right edge is taken to
+	 * be aligned with the right edge of the view; its width is the width
+	 * of the time axis.
+	 * @return the area in which data is plotted, or null if not yet available
+	 */
+	public Component getPlotArea();
+
+	/**
+	 * Set the span of time shown along the time axis.
+	 * @param min the earliest time to show, in milliseconds since UNIX epoch
+	 * @param max the latest time to show, in milliseconds since UNIX epoch
+	 */
+	public void setTimeAxis(long min, long max);
+}
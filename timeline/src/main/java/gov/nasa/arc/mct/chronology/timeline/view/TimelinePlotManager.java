@@ -4,54 +4,63 @@ import gov.nasa.arc.mct.gui.View;
 import gov.nasa.arc.mct.roles.events.PropertyChangeEvent;
 
 import java.awt.Component;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
 
 import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
 
 public class TimelinePlotManager {
 	private TimelineInterval<UNIXTimeInstant> interval;
-	private List<PlotInfo>   plots = new ArrayList<PlotInfo>();
+	private Map<View, PlotInfo> plots = new LinkedHashMap<View, PlotInfo>();
+	private TimelineRepaintScheduler repaintScheduler = null;
 	
 	public TimelinePlotManager(TimelineInterval<UNIXTimeInstant> interval) {
 		this.interval = interval;
 	}
 	
+	/**
+	 * Create a plot manager which repaints updated plots by way of 
+	 * a timeline's repaint scheduler, marking each plot's lane dirty.
+	 */
+	TimelinePlotManager(TimelineInterval<UNIXTimeInstant> interval, TimelineRepaintScheduler repaintScheduler) {
+		this(interval);
+		this.repaintScheduler = repaintScheduler;
+	}
+	
 	public void addPlot(View plot) {
-		plots.add(new PlotInfo(plot));
+		TimelinePlotHost host = (plot instanceof TimelinePlotHost) ?
+				(TimelinePlotHost) plot : new PropertyPlotHost(plot);
+		plots.put(plot, new PlotInfo(plot, host));
 	}
 	
 	public void removePlot(View plot) {
-		PlotInfo target = null;
-		for (PlotInfo info : plots) {
-			if (info.plot == plot) target = info;
-		}
-		if (target != null) plots.remove(target);
+		plots.remove(plot);
 	}
 	
 	public void update() {
-		for (PlotInfo p : plots) p.update();
+		for (PlotInfo p : plots.values()) p.update();
 	}
 	
 	private class PlotInfo {
 		View      plot;
-		Component contents;
+		TimelinePlotHost host;
 		int       width = 0;
 		int       observations = 0;
 		UNIXTimeInstant start, end;
 		static final int TOLERANCE = 4;
 		
-		public PlotInfo(View plot) {
+		public PlotInfo(View plot, TimelinePlotHost host) {
 			this.plot = plot;
-			this.contents = findContents(plot);
+			this.host = host;
 			
 			start = interval.getInterval().getStart();
 			end   = interval.getInterval().getEnd();
 		}
 		
-		public void update() {	
+		public void update() {
 			// Definitely update if start & end have changed
 			if (UNIXTimeInstant.DOMAIN.getComparator().compare(start, interval.getInterval().getStart()) != 0 ||
 				UNIXTimeInstant.DOMAIN.getComparator().compare(end,   interval.getInterval().getEnd()  ) != 0) {
@@ -59,8 +68,7 @@ public class TimelinePlotManager {
 				return;
 			}
 			
-			if (contents == null) return;
-			if (!contents.isValid()) contents = findContents(plot);
+			Component contents = host.getPlotArea();
 			if (contents == null) return;
 			if (contents.getWidth() == width) return; // Already up-to-date
 			
@@ -71,7 +79,8 @@ public class TimelinePlotManager {
 		}
 		
 		private void performUpdate() {
-			width = contents.getWidth();
+			Component contents = host.getPlotArea();
+			if (contents != null) width = contents.getWidth();
 			double offset = 1.0 - (double) width / (double) plot.getWidth();
 			
 			start = interval.getInterval().getStart();
@@ -83,11 +92,41 @@ public class TimelinePlotManager {
 				adjustedStart = new UNIXTimeInstant(end.getTimeMillis() - 1);
 			}
 			
-			plot.getViewProperties().setProperty("TimeMin", 
-					Long.toString(adjustedStart.getTimeMillis()));
-			plot.getViewProperties().setProperty("TimeMax", 
-					Long.toString(end.getTimeMillis()));
-			plot.updateMonitoredGUI(new PropertyChangeEvent(plot.getManifestedComponent()));			
+			host.setTimeAxis(adjustedStart.getTimeMillis(), end.getTimeMillis());
+			if (repaintScheduler != null) {
+				repaintScheduler.markDirty(plot);
+			}
+		}
+	}
+	
+	/**
+	 * Aligns plots which do not implement TimelinePlotHost, by way of
+	 * their view properties. The plot area is found by searching the
+	 * view's children once, and then only again if it is removed from
+	 * the view (rather than whenever the view is laid out).
+	 */
+	private static class PropertyPlotHost implements TimelinePlotHost {
+		private View      plot;
+		private Component contents;
+		
+		public PropertyPlotHost(View plot) {
+			this.plot = plot;
+			this.contents = findContents(plot);
+		}
+		
+		@Override
+		public Component getPlotArea() {
+			if (contents != null && !SwingUtilities.isDescendingFrom(contents, plot)) {
+				contents = findContents(plot);
+			}
+			return contents;
+		}
+		
+		@Override
+		public void setTimeAxis(long min, long max) {
+			plot.getViewProperties().setProperty("TimeMin", Long.toString(min));
+			plot.getViewProperties().setProperty("TimeMax", Long.toString(max));
+			plot.updateMonitoredGUI(new PropertyChangeEvent(plot.getManifestedComponent()));
 		}
 		
 		private Component findContents(JComponent comp) {
@@ -101,10 +140,9 @@ public class TimelinePlotManager {
 			return null;
 		}
 		
-		private boolean isContents(JComponent comp) { 
+		private boolean isContents(JComponent comp) {
 			// TODO: Is there a better way to achieve this?
 			return comp.getClass().getSimpleName().contains("PlotContents");
 		}
-		
 	}
 }
@@ -0,0 +1,172 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import java.awt.Rectangle;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.ComponentEvent;
+import java.awt.event.ComponentListener;
+import java.awt.event.HierarchyBoundsListener;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.HierarchyListener;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+/**
+ * Schedules repaints for a timeline view. Changes mark only the affected
+ * region of a component as dirty; all dirty regions are then repainted
+ * together, at most once per frame.
+ *
+ * A periodic tick (used to advance the time cursor) runs only while the
+ * view is showing on screen. While the view is hidden, dirty regions are
+ * dropped, since Swing paints the whole view once it is shown again.
+ */
+class TimelineRepaintScheduler {
+	private static final int FRAME_DELAY = 1000 / 60;
+
+	private final JComponent host;
+	private final Timer frameTimer;
+	private final Timer tickTimer;
+	private final Map<JComponent, Rectangle> dirtyRegions = new LinkedHashMap<JComponent, Rectangle>();
+	private final Set<JComponent> dirtyLayouts = new LinkedHashSet<JComponent>();
+
+	/**
+	 * Create a repaint scheduler for a view.
+	 * @param host the view whose visibility determines whether to tick
+	 * @param tickDelay the time between ticks, in milliseconds
+	 * @param tick notified at each tick
+	 */
+	public TimelineRepaintScheduler(JComponent host, int tickDelay, ActionListener tick) {
+		this.host = host;
+
+		frameTimer = new Timer(FRAME_DELAY, new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				flush();
+			}
+		});
+		frameTimer.setRepeats(false);
+
+		tickTimer = new Timer(tickDelay, tick);
+		tickTimer.setInitialDelay(0); // Catch up as soon as we are shown
+
+		VisibilityListener listener = new VisibilityListener();
+		host.addHierarchyListener(listener);
+		host.addHierarchyBoundsListener(listener);
+		host.addComponentListener(listener);
+	}
+
+	/**
+	 * Mark a region of a component as needing to be repainted.
+	 * @param component the component to repaint
+	 * @param region the region to repaint, in the component's coordinates
+	 */
+	public void markDirty(JComponent component, Rectangle region) {
+		if (region.isEmpty() || !isOnScreen()) {
+			return;
+		}
+		Rectangle dirty = dirtyRegions.get(component);
+		if (dirty == null) {
+			dirtyRegions.put(component, new Rectangle(region));
+		} else {
+			dirty.add(region);
+		}
+		scheduleFrame();
+	}
+
+	/**
+	 * Mark all of a component as needing to be repainted.
+	 * @param component the component to repaint
+	 */
+	public void markDirty(JComponent component) {
+		markDirty(component, new Rectangle(0, 0, component.getWidth(), component.getHeight()));
+	}
+
+	/**
+	 * Mark a component as needing to be laid out again.
+	 * @param component the component to revalidate
+	 */
+	public void markLayoutDirty(JComponent component) {
+		dirtyLayouts.add(component);
+		scheduleFrame();
+	}
+
+	private void scheduleFrame() {
+		if (isOnScreen() && !frameTimer.isRunning()) {
+			frameTimer.start();
+		}
+	}
+
+	private void flush() {
+		for (JComponent component : dirtyLayouts) {
+			component.revalidate();
+		}
+		dirtyLayouts.clear();
+		for (Map.Entry<JComponent, Rectangle> entry : dirtyRegions.entrySet()) {
+			entry.getKey().repaint(entry.getValue());
+		}
+		dirtyRegions.clear();
+	}
+
+	private boolean isOnScreen() {
+		return host.isShowing() && !host.getVisibleRect().isEmpty();
+	}
+
+	private void updateTicking() {
+		if (isOnScreen()) {
+			if (!tickTimer.isRunning()) {
+				tickTimer.start();
+			}
+			if (!dirtyLayouts.isEmpty()) {
+				scheduleFrame();
+			}
+		} else {
+			tickTimer.stop();
+			frameTimer.stop();
+			dirtyRegions.clear();
+		}
+	}
+
+	private class VisibilityListener implements HierarchyListener, HierarchyBoundsListener, ComponentListener {
+		@Override
+		public void hierarchyChanged(HierarchyEvent e) {
+			if ((e.getChangeFlags() & HierarchyEvent.SHOWING_CHANGED) != 0) {
+				updateTicking();
+			}
+		}
+
+		@Override
+		public void ancestorMoved(HierarchyEvent e) {
+			updateTicking();
+		}
+
+		@Override
+		public void ancestorResized(HierarchyEvent e) {
+			updateTicking();
+		}
+
+		@Override
+		public void componentResized(ComponentEvent e) {
+			updateTicking();
+		}
+
+		@Override
+		public void componentMoved(ComponentEvent e) {
+			updateTicking();
+		}
+
+		@Override
+		public void componentShown(ComponentEvent e) {
+			updateTicking();
+		}
+
+		@Override
+		public void componentHidden(ComponentEvent e) {
+			updateTicking();
+		}
+	}
+}
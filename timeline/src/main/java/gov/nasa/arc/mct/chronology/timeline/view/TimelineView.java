@@ -2,6 +2,8 @@ package gov.nasa.arc.mct.chronology.timeline.view;
 
 import gov.nasa.arc.mct.chronology.Chronology;
 import gov.nasa.arc.mct.chronology.ChronologyDomain;
+import gov.nasa.arc.mct.chronology.TimeAxisBus;
+import gov.nasa.arc.mct.chronology.TimeAxisListener;
 import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
 import gov.nasa.arc.mct.chronology.event.ChronologicalInstant;
 import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
@@ -31,6 +33,7 @@ import java.awt.GridBagLayout;
 import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.Window;
 import java.awt.dnd.DropTarget;
 import java.awt.dnd.DropTargetDropEvent;
@@ -41,9 +44,13 @@ import java.awt.event.MouseListener;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
@@ -58,7 +65,6 @@ import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.SpringLayout;
 import javax.swing.SwingUtilities;
-import javax.swing.Timer;
 import javax.swing.border.BevelBorder;
 
 /**
@@ -69,10 +75,20 @@ import javax.swing.border.BevelBorder;
  */
 public class TimelineView extends View {
 	private static final long serialVersionUID = 5371168814927341472L;
+	private static final ResourceBundle BUNDLE = ResourceBundle.getBundle("Bundle");
 
 	public static final String VIEW_ROLE_NAME = "Timeline";
 	private static final int DAY = 24*60*60*1000;
 	private static final int MIN = 60*1000;
+	private static final int CLOCK_INTERVAL = 1000; // Current time is shown to the second
+	
+	// Event lines representing more events (by powers of two) are drawn more opaque
+	private static final Color[] EVENT_LINE_COLORS = new Color[6];
+	static {
+		for (int i = 0; i < EVENT_LINE_COLORS.length; i++) {
+			EVENT_LINE_COLORS[i] = new Color(240, 200, 120, 80 + 32 * i);
+		}
+	}
 
 	private ChronologyInfo<?>        chronologyInfo;
 
@@ -89,6 +105,8 @@ public class TimelineView extends View {
     private List<View> references = new ArrayList<View>();
     private TimelinePlotManager plotManager = null;
     private Map<AbstractComponent, JComponent> timelineAreas = new HashMap<AbstractComponent, JComponent>();
+    private Map<String, TimelinePlotBinding> plotBindings = new HashMap<String, TimelinePlotBinding>();
+    private Set<String> plotted = new HashSet<String>(); // Bindings used by the current view
     
     private TimelineSettings settings = new TimelineSettings(this);
     
@@ -96,6 +114,18 @@ public class TimelineView extends View {
     final private JPanel lowerArea = new JPanel();
 	final private JScrollPane scrollPane = new JScrollPane();
 	final private JCheckBox   eventLineCheckBox = new JCheckBox();
+	final private JCheckBox   linkCheckBox = new JCheckBox(BUNDLE.getString("link_label"));
+	private MultiSlider slider;
+	
+	// Repaints only what has changed, and only while on screen
+	final private TimelineRepaintScheduler repaintScheduler = 
+			new TimelineRepaintScheduler(this, CLOCK_INTERVAL, new ActionListener() {
+				@Override
+				public void actionPerformed(ActionEvent e) {
+					tick();
+				}
+			});
+	private int nowPosition = -1; // Where the time cursor was last painted
 	
 	private JComponent currentTimeMarker = new JComponent() {
 		private static final long serialVersionUID = 8531222304365948260L;
@@ -104,11 +134,7 @@ public class TimelineView extends View {
 			setOpaque(false);
 			super.paint(g);
 			if (chronologyInfo.domain == UNIXTimeInstant.DOMAIN) {
-				double now = UNIXTimeInstant.DOMAIN.locateBetween(
-						getTimeRelativeToNow(0),
-						(UNIXTimeInstant) chronologyInfo.interval.getStart(), 
-						(UNIXTimeInstant) chronologyInfo.interval.getEnd());
-				int x = (int) (now * timelineWidth);
+				int x = nowPosition = getNowPosition();
 				g.setColor(new Color(120, 240, 200, 80));
 				g.fillRect(x-1, 0, 3, getHeight());
 				g.drawLine(x,   0, x, getHeight());
@@ -118,17 +144,36 @@ public class TimelineView extends View {
 			}
 		}
 		
-		@SuppressWarnings("unchecked")
+		/**
+		 * Paint a line at the start of each event which starts within the clip. 
+		 * Events which share a column of pixels are drawn as a single line, 
+		 * which is denser the more events it represents; this way, painting 
+		 * visits at most one event per visible column.
+		 */
 		private <T extends ChronologicalInstant> void paintChronologyLines(ChronologyInfo<T> info, Graphics g) {
-			for (ChronologicalInterval<?> i : chronologyInfo.primary.getEvents()) {
-				double when = ((ChronologyDomain<T>)chronologyInfo.domain).locateBetween(
-						(T) i.getStart(), 
-						(T) chronologyInfo.interval.getStart(), 
-						(T) chronologyInfo.interval.getEnd());
-				int x = (int) (when * timelineWidth);
-				g.setColor(new Color(240, 200, 120, 80));
+			TimelineEventIndex<T> index = info.getEventIndex();
+			double low  = info.getWindowLow();
+			double span = info.getWindowHigh() - low;
+			if (index.size() == 0 || span <= 0 || timelineWidth <= 0) {
+				return;
+			}
+			
+			// Find events starting within the clip (allowing for the width of lines)
+			Rectangle clip = g.getClipBounds();
+			int clipStart = (clip != null) ? clip.x - 1 : 0;
+			int clipEnd   = (clip != null) ? clip.x + clip.width + 1 : getWidth();
+			int i   = index.firstStartingFrom (low + span * clipStart / timelineWidth);
+			int end = index.firstStartingAfter(low + span * clipEnd   / timelineWidth);
+			
+			while (i < end) {
+				int x = (int) ((index.getStart(i) - low) / span * timelineWidth);
+				int next = Math.max(i + 1, index.firstStartingFrom(low + span * (x + 1) / timelineWidth));
+				int count = Math.min(next, end) - i;
+				g.setColor(EVENT_LINE_COLORS[Math.min(EVENT_LINE_COLORS.length - 1, 
+						31 - Integer.numberOfLeadingZeros(count))]);
 				g.fillRect(x-1, 0, 3, getHeight());
 				g.drawLine(x,   0, x, getHeight());
+				i = next;
 			}
 		}
 
@@ -162,6 +207,13 @@ public class TimelineView extends View {
 		
 		initializeFromSettings();
 		
+		linkCheckBox.addActionListener(new ActionListener() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				chronologyInfo.setLinked(linkCheckBox.isSelected());
+			}
+		});
+		
 		setLayout (new GridLayout());
 		mainPanel = new JPanel() {
 			private static final long serialVersionUID = -3912477546455018951L;
@@ -230,21 +282,32 @@ public class TimelineView extends View {
 		mainPanel.setDoubleBuffered(true);
 		mainPanel.setBackground(Color.GRAY); //TODO: Don't hardcode colors!		
 		add(mainPanel);
-
-		new Timer(100, new ActionListener() {
-			@Override
-			public void actionPerformed(ActionEvent arg0) {
-				if (chronologyInfo.domain.equals(UNIXTimeInstant.DOMAIN)) {
-					nowLabel.setTime(getTimeRelativeToNow(0));
-					if (plotManager != null) plotManager.update();
-				} else {
-					nowLabel.setText("");
-				}
-				layout.setWidth(timelineWidth);
-				revalidate();
-				repaint();
+	}
+	
+	/**
+	 * Advance the current time; called periodically while the view is on screen. 
+	 * Only the columns which the time cursor leaves and enters are repainted.
+	 */
+	private void tick() {
+		if (chronologyInfo.domain.equals(UNIXTimeInstant.DOMAIN)) {
+			nowLabel.setTime(getTimeRelativeToNow(0));
+			if (plotManager != null) plotManager.update();
+			int x = getNowPosition();
+			if (x != nowPosition) {
+				repaintScheduler.markDirty(currentTimeMarker, new Rectangle(nowPosition - 1, 0, 3, currentTimeMarker.getHeight()));
+				repaintScheduler.markDirty(currentTimeMarker, new Rectangle(x - 1, 0, 3, currentTimeMarker.getHeight()));
 			}
-		}).start();
+		} else {
+			nowLabel.setText("");
+		}
+	}
+	
+	private int getNowPosition() {
+		double now = UNIXTimeInstant.DOMAIN.locateBetween(
+				getTimeRelativeToNow(0),
+				(UNIXTimeInstant) chronologyInfo.interval.getStart(), 
+				(UNIXTimeInstant) chronologyInfo.interval.getEnd());
+		return (int) (now * timelineWidth);
 	}
 
 	/**
@@ -371,12 +434,14 @@ public class TimelineView extends View {
 
 		// Pull in time lines and plots from the MCT component graph
 		references.clear();
+		plotted.clear();
 		if (chronologyInfo.getDomain().equals(UNIXTimeInstant.DOMAIN)) {
-			plotManager = new TimelinePlotManager((TimelineInterval<UNIXTimeInstant>) chronologyInfo);
+			plotManager = new TimelinePlotManager((TimelineInterval<UNIXTimeInstant>) chronologyInfo, repaintScheduler);
 		} else {
 			plotManager = null;
 		}
 		populateFrom(getManifestedComponent(), 0);
+		plotBindings.keySet().retainAll(plotted); // Forget feeds no longer shown
 		updateView();
 		
 		gridConstraints.gridy++;
@@ -398,7 +463,7 @@ public class TimelineView extends View {
 	 * Set up the lower area, including the interval window slider & lower ticks.
 	 */
 	private void setupSlider() {
-		final MultiSlider slider = new MultiSlider((float) chronologyInfo.getWindowLow(), (float) chronologyInfo.getWindowHigh());
+		slider = new MultiSlider((float) chronologyInfo.getWindowLow(), (float) chronologyInfo.getWindowHigh());
 		slider.setPreferredSize(new Dimension(timelineWidth, 24));
 		slider.setBackground(Color.GRAY);
 		slider.setForeground(new Color(168, 220, 250));
@@ -411,7 +476,6 @@ public class TimelineView extends View {
 				chronologyInfo.setSubInterval(low, high);
 				layout.setWindow(chronologyInfo.getWindowLow(), chronologyInfo.getWindowHigh());
 				updateView();			
-				mainPanel.repaint();
 			}
 		});
 		
@@ -434,6 +498,7 @@ public class TimelineView extends View {
 	 */
 	private void rebuildView() {
 		chronologyInfo.markers.clear();
+		chronologyInfo.eventIndex = null; // Events may have changed
 		setupMarkers();
 		setupView();
 		setupSlider();
@@ -448,12 +513,52 @@ public class TimelineView extends View {
 	private void updateView() {
 		if (plotManager != null) plotManager.update();
 		chronologyInfo.updateMarkers();
-		revalidate();
-		repaint(); // Schedule a repaint
+		// Everything moves along the time axis, so repaint it all (once, in the next frame)
+		repaintScheduler.markLayoutDirty(this);
+		repaintScheduler.markDirty(this);
 	}
 	
 	
 	
+	/**
+	 * Update the areas showing a chronology whose events have been added 
+	 * or removed, repainting only where events have changed.
+	 * @param chronology the chronology which has changed
+	 * @param added events added to the chronology (as the chronology holds them)
+	 * @param removed events removed from the chronology
+	 */
+	void chronologyChanged(Chronology<?> chronology, 
+			List<? extends ChronologicalEvent<?>> added, List<? extends ChronologicalEvent<?>> removed) {
+		for (JComponent area : timelineAreas.values()) {
+			if (area instanceof TimelineArea && ((TimelineArea<?>) area).shows(chronology)) {
+				((TimelineArea<?>) area).chronologyChanged(added, removed);
+			}
+		}
+		if (chronologyInfo.primary == chronology) {
+			chronologyInfo.eventsChanged(added, removed);
+		}
+	}
+	
+	/**
+	 * Rebuild the areas showing a chronology which has changed in some 
+	 * unknown way.
+	 * @param chronology the chronology which has changed
+	 */
+	void chronologyChanged(Chronology<?> chronology) {
+		for (JComponent area : timelineAreas.values()) {
+			if (area instanceof TimelineArea && ((TimelineArea<?>) area).shows(chronology)) {
+				((TimelineArea<?>) area).chronologyChanged();
+			}
+		}
+		if (chronologyInfo.primary == chronology) {
+			chronologyInfo.eventIndex = null;
+		}
+	}
+	
+	TimelineRepaintScheduler getRepaintScheduler() {
+		return repaintScheduler;
+	}
+	
 	@Override
 	public void updateMonitoredGUI() {
 		rebuildView();
@@ -510,38 +615,13 @@ public class TimelineView extends View {
 			// Plots for feed providers
 			for (ViewInfo vi : ac.getViewInfos(ViewType.EMBEDDED)) {
 				if (vi.getViewName().toLowerCase().contains("plot")) {
-					AbstractComponent clone = ac.clone();
-					clone.setDisplayName("*");
-					View v = vi.createView(clone);
 					@SuppressWarnings("unchecked")
 					ChronologicalInterval<UNIXTimeInstant> unixInterval = 
 						(ChronologicalInterval<UNIXTimeInstant>) chronologyInfo.interval;
-					//TODO : Move this to TimelinePlotManager?
-					v.getViewProperties().setProperty("TimeMin", 
-							Long.toString(unixInterval.getStart().getTimeMillis()));
-					v.getViewProperties().setProperty("TimeMax", 
-							Long.toString(unixInterval.getEnd().getTimeMillis()));
-					v.getViewProperties().setProperty("PinTimeAxis", "true");
-					v.getViewProperties().setProperty("PlotTimeAxisSubsequentSetting", "FIXED");
-					v.getViewProperties().setProperty("PlotTimeAxisSetting", "X_AXIS_AS_TIME");
-					v.getViewProperties().setProperty("PlotXAxisMaximumLocation", "MAXIMUM_AT_RIGHT");
-					v.getViewProperties().setProperty("PlotYAxisMaximumLocation", "MAXIMUM_AT_TOP");
-					v.getViewProperties().setProperty("PlotNonTimeAxisSubsequentMinSetting", "AUTO");
-					v.getViewProperties().setProperty("PlotNonTimeAxisSubsequentMaxSetting", "AUTO");
-					v.getViewProperties().setProperty("TimeSystem", "GMT");
-					v.getViewProperties().setProperty("TimeFormat", "DDD/HH:mm:ss");
-					v.getViewProperties().setProperty("NonTimeMin", "0.0");
-					v.getViewProperties().setProperty("NonTimeMax", "1.0");
-					v.getViewProperties().setProperty("TimePadding", "1.0");
-					v.getViewProperties().setProperty("NonTimeMinPadding", "1.0");
-					v.getViewProperties().setProperty("NonTimeMaxPadding", "1.0");
-					v.getViewProperties().setProperty("GroupByOrdinalPosition", "true");
-					v.getViewProperties().setProperty("PinTimeAxis", "true");
-					v.getViewProperties().setProperty("PlotLineConnectionType", "STEP_X_THEN_Y");
-					v.getViewProperties().setProperty("PlotLineDrawLines", "true");
-					v.getViewProperties().setProperty("PlotLineDrawMarkers", "false");
-					clone.save();
-					v = vi.createView(clone);
+					TimelinePlotBinding binding = getPlotBinding(ac, vi);
+					binding.setTimeRange(unixInterval.getStart().getTimeMillis(), 
+							unixInterval.getEnd().getTimeMillis());
+					View v = binding.createPlot();
 					plotManager.addPlot(v);
 					timelineArea = v;
 				}
@@ -575,6 +655,17 @@ public class TimelineView extends View {
 		// Potentially add more labeling info to indicate children?
 	}
 	
+	private TimelinePlotBinding getPlotBinding(AbstractComponent feed, ViewInfo vi) {
+		String key = feed.getComponentId() + "/" + vi.getViewName();
+		TimelinePlotBinding binding = plotBindings.get(key);
+		if (binding == null) {
+			binding = new TimelinePlotBinding(feed, vi);
+			plotBindings.put(key, binding);
+		}
+		plotted.add(key);
+		return binding;
+	}
+	
 	private <T extends ChronologicalInstant> JPanel makeTimelineAreaFor(Chronology<?> chrono, ChronologyInfo<T> info) {
 		//TODO: Detect exceptions here (should have already been prepared for?)
 		return new TimelineArea<T>(info.castChronology(chrono), info, this);
@@ -635,6 +726,13 @@ public class TimelineView extends View {
 		eventLineCheckBox.setBackground(p.getBackground());
 		//p.add(eventLineCheckBox, BorderLayout.EAST);
 		
+		// Linked timelines scroll together
+		linkCheckBox.setBackground(p.getBackground());
+		linkCheckBox.setForeground(nowLabel.getForeground());
+		linkCheckBox.setSelected(chronologyInfo.isLinked());
+		linkCheckBox.setToolTipText(BUNDLE.getString("link_tooltip"));
+		p.add(linkCheckBox, BorderLayout.EAST);
+		
 		p.setBorder(BorderFactory.createCompoundBorder(
 				BorderFactory.createMatteBorder(0, 0, 1, 0, new Color(96,96,128)),
 				BorderFactory.createEmptyBorder(4, 4, 4, 4) 
@@ -800,13 +898,15 @@ public class TimelineView extends View {
 		}
 	}
 	
-	private class ChronologyInfo<T extends ChronologicalInstant> implements TimelineInterval<T> {
+	private class ChronologyInfo<T extends ChronologicalInstant> implements TimelineInterval<T>, TimeAxisListener<T> {
 		Chronology<T>            primary = null;
 		ChronologyDomain<T>      domain;
 		ChronologicalInterval<T> interval;
 		ChronologicalInterval<T> boundary;
 		
 		List<TimelineMarker<T>> markers = new ArrayList<TimelineMarker<T>>();
+		TimelineEventIndex<T>   eventIndex = null; // Positions relative to boundary
+		TimeAxisBus<T>          bus = null;        // Shared with linked views, while linked
 		
 		public ChronologyInfo () {
 			
@@ -847,10 +947,34 @@ public class TimelineView extends View {
 			for (TimelineMarker<T> m : markers) m.changeInterval(this, timelineWidth);
 		}
 		
+		public TimelineEventIndex<T> getEventIndex() {
+			if (eventIndex == null) {
+				eventIndex = new TimelineEventIndex<T>(primary.getEvents(), domain, boundary);
+			}
+			return eventIndex;
+		}
+		
+		@SuppressWarnings("unchecked")
+		public void eventsChanged(List<? extends ChronologicalEvent<?>> added, List<? extends ChronologicalEvent<?>> removed) {
+			if (eventIndex == null) {
+				return; // Built when next painted
+			}
+			for (ChronologicalEvent<?> event : removed) {
+				int i = eventIndex.indexOf((ChronologicalEvent<T>) event);
+				if (i >= 0) {
+					eventIndex.remove(i);
+				}
+			}
+			for (ChronologicalEvent<?> event : added) {
+				eventIndex.add((ChronologicalEvent<T>) event);
+			}
+		}
+		
 		public boolean setInterval(String start, String end) {
 			try {
 				interval = new ChronologicalInterval<T>(domain.convertToInstant(start), 
 						domain.convertToInstant(end));
+				publishSpan();
 				rebuildView();
 				return true;
 			} catch (ParseException parseEx) {
@@ -860,6 +984,7 @@ public class TimelineView extends View {
 		
 		public void setInterval(double start, double end) {
 			interval = domain.getSubInterval(boundary, start, end);
+			publishSpan();
 		}
 		
 		public void shiftBounds(double proportion) {
@@ -870,6 +995,8 @@ public class TimelineView extends View {
 			double shift = (i2-i1) * proportion;
 			interval = domain.getSubInterval(boundary, i1 + shift, i2 + shift);
 			boundary = domain.getSubInterval(boundary, b1 + shift, b2 + shift); // shift, 1.0 + shift?
+			eventIndex = null;
+			publishSpan();
 			rebuildView();
 		}
 		
@@ -884,11 +1011,64 @@ public class TimelineView extends View {
 		
 		public void setBoundaryAndInterval(T start, T end) {
 			interval = boundary = new ChronologicalInterval<T>(start, end);
+			eventIndex = null;
+			publishSpan();
 			rebuildView();			
 		}
 		
 		public void setSubInterval(float low, float high) {
 			interval = domain.getSubInterval(boundary, low, high);
+			publishSpan();
+		}
+		
+		public boolean isLinked() {
+			return bus != null;
+		}
+		
+		public void setLinked(boolean linked) {
+			if (linked && bus == null) {
+				bus = TimeAxisBus.getBus(domain);
+				bus.subscribe(this);
+				if (bus.getSpan() != null) {
+					spanChanged(bus.getSpan()); // Join the others
+				} else {
+					publishSpan();
+				}
+			} else if (!linked && bus != null) {
+				bus.unsubscribe(this);
+				bus = null;
+			}
+		}
+		
+		private void publishSpan() {
+			if (bus != null) bus.publishSpan(this, interval);
+		}
+		
+		@Override
+		public void spanChanged(ChronologicalInterval<T> span) {
+			if (chronologyInfo != this) { // View has since been reset
+				setLinked(false);
+				return;
+			}
+			interval = span;
+			if (!domain.contains(boundary, span)) {
+				// Extend bounds to include the new span
+				Comparator<T> cmp = domain.getComparator();
+				boundary = new ChronologicalInterval<T>(
+						cmp.compare(span.getStart(), boundary.getStart()) < 0 ? span.getStart() : boundary.getStart(),
+						cmp.compare(span.getEnd(),   boundary.getEnd())   > 0 ? span.getEnd()   : boundary.getEnd());
+				eventIndex = null;
+				rebuildView();
+			} else {
+				layout.setWindow(getWindowLow(), getWindowHigh());
+				if (slider != null) slider.setProportions((float) getWindowLow(), (float) getWindowHigh());
+				updateView();
+			}
+		}
+		
+		@Override
+		public void cursorChanged(T cursor) {
+			// The time cursor always shows the current time
 		}
 		
 		public double getWindowLow() {
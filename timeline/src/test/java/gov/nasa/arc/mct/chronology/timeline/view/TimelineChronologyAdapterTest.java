@@ -0,0 +1,228 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import gov.nasa.arc.mct.chronology.Chronology;
+import gov.nasa.arc.mct.chronology.ChronologyDomain;
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.JComponent;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TimelineChronologyAdapterTest {
+	private static final ChronologyDomain<UNIXTimeInstant> DOMAIN = UNIXTimeInstant.DOMAIN;
+	
+	private static final ChronologicalInterval<UNIXTimeInstant> SOURCE_INTERVAL = 
+		makeInterval(0, 1000000);
+	private static final ChronologicalInterval<UNIXTimeInstant> TARGET_INTERVAL = 
+		makeInterval(384584400000l, 384584400000l + 3333333);
+
+	@Test
+	public void testWindowedMatchesFullConversion() {
+		Random random = new Random(1969);
+		for (int trial = 0; trial < 50; trial++) {
+			TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = 
+				makeAdapter(makeChronology(random, random.nextInt(500), trial % 2 == 0));
+			List<ChronologicalEvent<UNIXTimeInstant>> all = adapter.getEvents();
+			
+			for (int query = 0; query < 50; query++) {
+				long a = TARGET_INTERVAL.getStart().getTimeMillis() + random.nextInt(3600000) - 100000;
+				long b = TARGET_INTERVAL.getStart().getTimeMillis() + random.nextInt(3600000) - 100000;
+				ChronologicalInterval<UNIXTimeInstant> interval = makeInterval(Math.min(a, b), Math.max(a, b));
+				
+				List<ChronologicalEvent<UNIXTimeInstant>> expected = new ArrayList<ChronologicalEvent<UNIXTimeInstant>>();
+				for (ChronologicalEvent<UNIXTimeInstant> event : all) {
+					if (DOMAIN.contains(interval, event)) {
+						expected.add(event);
+					}
+				}
+				assertSameEvents(adapter.getEvents(interval), expected);
+			}
+		}
+	}
+	
+	@Test
+	public void testBoundaries() {
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = 
+			makeAdapter(makeChronology(new Random(42), 200, true));
+		List<ChronologicalEvent<UNIXTimeInstant>> all = adapter.getEvents();
+		
+		// Intervals exactly matching converted events should include them
+		for (ChronologicalEvent<UNIXTimeInstant> event : all) {
+			List<ChronologicalEvent<UNIXTimeInstant>> found = adapter.getEvents(event);
+			boolean included = false;
+			for (ChronologicalEvent<UNIXTimeInstant> e : found) {
+				included |= e.getEventInfo().equals(event.getEventInfo());
+			}
+			Assert.assertTrue(included);
+		}
+		
+		// Everything is within the full target interval
+		assertSameEvents(adapter.getEvents(makeInterval(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2)), all);
+	}
+	
+	@Test
+	public void testEmpty() {
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = 
+			makeAdapter(makeChronology(new Random(7), 0, true));
+		Assert.assertTrue(adapter.getEvents().isEmpty());
+		Assert.assertTrue(adapter.getEvents(TARGET_INTERVAL).isEmpty());
+	}
+	
+	@Test
+	public void testCachedConversion() {
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = 
+			makeAdapter(makeChronology(new Random(11), 100, true));
+		List<ChronologicalEvent<UNIXTimeInstant>> first  = adapter.getEvents(TARGET_INTERVAL);
+		List<ChronologicalEvent<UNIXTimeInstant>> second = adapter.getEvents(TARGET_INTERVAL);
+		Assert.assertEquals(second.size(), first.size());
+		for (int i = 0; i < first.size(); i++) {
+			Assert.assertSame(second.get(i), first.get(i));
+		}
+	}
+	
+	@Test
+	public void testSourceChanges() {
+		TestChronology source = makeChronology(new Random(13), 100, true);
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = makeAdapter(source);
+		int before = adapter.getEvents(TARGET_INTERVAL).size();
+		
+		source.events.remove(source.events.size() / 2);
+		Assert.assertEquals(adapter.getEvents(TARGET_INTERVAL).size(), before - 1);
+		Assert.assertEquals(adapter.getEvents().size(), source.events.size());
+	}
+	
+	@Test
+	public void testUnsortedSource() {
+		TestChronology source = makeChronology(new Random(17), 100, false);
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = makeAdapter(source);
+		
+		// An event moved to the front of the source must still be found
+		ChronologicalEvent<UNIXTimeInstant> last = adapter.getEvents().get(source.events.size() - 1);
+		source.events.add(0, source.events.remove(source.events.size() - 1));
+		boolean found = false;
+		for (ChronologicalEvent<UNIXTimeInstant> e : adapter.getEvents(last)) {
+			found |= e.getEventInfo().equals(last.getEventInfo());
+		}
+		Assert.assertTrue(found);
+		assertSameEvents(adapter.getEvents(makeInterval(Long.MIN_VALUE / 2, Long.MAX_VALUE / 2)), adapter.getEvents());
+	}
+	
+	@Test
+	public void testFullListTracksSource() {
+		TestChronology source = makeChronology(new Random(19), 100, true);
+		TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> adapter = makeAdapter(source);
+		List<ChronologicalEvent<UNIXTimeInstant>> first  = adapter.getEvents();
+		List<ChronologicalEvent<UNIXTimeInstant>> second = adapter.getEvents();
+		for (int i = 0; i < first.size(); i++) {
+			Assert.assertSame(second.get(i), first.get(i));
+		}
+		
+		// Replaced events are converted anew; others are kept
+		source.events.set(0, new TestEvent(0, 0, -1));
+		List<ChronologicalEvent<UNIXTimeInstant>> third = adapter.getEvents();
+		Assert.assertEquals(third.get(0).getEventInfo(), -1);
+		Assert.assertSame(third.get(1), first.get(1));
+	}
+	
+	private void assertSameEvents(List<ChronologicalEvent<UNIXTimeInstant>> actual, 
+			List<ChronologicalEvent<UNIXTimeInstant>> expected) {
+		Assert.assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < actual.size(); i++) {
+			Assert.assertEquals(actual.get(i).getEventInfo(), expected.get(i).getEventInfo());
+			Assert.assertEquals(actual.get(i).getStart().getTimeMillis(), expected.get(i).getStart().getTimeMillis());
+			Assert.assertEquals(actual.get(i).getEnd().getTimeMillis(), expected.get(i).getEnd().getTimeMillis());
+		}
+	}
+	
+	private TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant> makeAdapter(Chronology<UNIXTimeInstant> source) {
+		return new TimelineChronologyAdapter<UNIXTimeInstant, UNIXTimeInstant>(
+				DOMAIN, source, TARGET_INTERVAL, SOURCE_INTERVAL);
+	}
+	
+	private TestChronology makeChronology(Random random, int size, boolean sorted) {
+		TestChronology chronology = new TestChronology();
+		for (int i = 0; i < size; i++) {
+			long start = random.nextInt(1000000);
+			long end   = start + (random.nextBoolean() ? 0 : random.nextInt(50000));
+			chronology.events.add(new TestEvent(start, end, i));
+		}
+		if (!sorted) {
+			return chronology;
+		}
+		Collections.sort(chronology.events, new Comparator<ChronologicalEvent<UNIXTimeInstant>>() {
+			@Override
+			public int compare(ChronologicalEvent<UNIXTimeInstant> a, ChronologicalEvent<UNIXTimeInstant> b) {
+				return DOMAIN.getComparator().compare(a.getStart(), b.getStart());
+			}
+		});
+		return chronology;
+	}
+	
+	private static ChronologicalInterval<UNIXTimeInstant> makeInterval(long start, long end) {
+		return new ChronologicalInterval<UNIXTimeInstant>(new UNIXTimeInstant(start), new UNIXTimeInstant(end));
+	}
+	
+	private static class TestChronology implements Chronology<UNIXTimeInstant> {
+		private List<ChronologicalEvent<UNIXTimeInstant>> events = 
+			new ArrayList<ChronologicalEvent<UNIXTimeInstant>>();
+
+		@Override
+		public ChronologyDomain<UNIXTimeInstant> getDomain() {
+			return DOMAIN;
+		}
+
+		@Override
+		public List<ChronologicalEvent<UNIXTimeInstant>> getEvents() {
+			return events;
+		}
+
+		@Override
+		public List<ChronologicalEvent<UNIXTimeInstant>> getEvents(ChronologicalInterval<UNIXTimeInstant> interval) {
+			return events;
+		}
+
+		@Override
+		public boolean isMutable() {
+			return false;
+		}
+
+		@Override
+		public boolean add(ChronologicalEvent<UNIXTimeInstant> event, UNIXTimeInstant start) {
+			return false;
+		}
+
+		@Override
+		public boolean remove(ChronologicalEvent<UNIXTimeInstant> event) {
+			return false;
+		}
+	}
+	
+	private static class TestEvent extends ChronologicalEvent<UNIXTimeInstant> {
+		private Integer id;
+		
+		public TestEvent(long start, long end, int id) {
+			super(new UNIXTimeInstant(start), new UNIXTimeInstant(end));
+			this.id = id;
+		}
+
+		@Override
+		public Object getEventInfo() {
+			return id;
+		}
+
+		@Override
+		public JComponent getRepresentation(Dimension preferredSize) {
+			return null;
+		}
+	}
+}
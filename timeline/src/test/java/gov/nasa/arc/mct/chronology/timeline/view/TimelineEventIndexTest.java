@@ -0,0 +1,134 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import gov.nasa.arc.mct.chronology.ChronologyDomain;
+import gov.nasa.arc.mct.chronology.event.ChronologicalEvent;
+import gov.nasa.arc.mct.chronology.event.ChronologicalInterval;
+import gov.nasa.arc.mct.chronology.event.UNIXTimeInstant;
+
+import java.awt.Dimension;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import javax.swing.JComponent;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TimelineEventIndexTest {
+	private static final ChronologyDomain<UNIXTimeInstant> DOMAIN = UNIXTimeInstant.DOMAIN;
+
+	private static final ChronologicalInterval<UNIXTimeInstant> REFERENCE =
+		new ChronologicalInterval<UNIXTimeInstant>(new UNIXTimeInstant(0), new UNIXTimeInstant(1000000));
+
+	@Test
+	public void testChangesMatchNewIndex() {
+		Random random = new Random(1969);
+		List<ChronologicalEvent<UNIXTimeInstant>> events = new ArrayList<ChronologicalEvent<UNIXTimeInstant>>();
+		for (int i = 0; i < 100; i++) {
+			events.add(makeEvent(random, i));
+		}
+		TimelineEventIndex<UNIXTimeInstant> index =
+			new TimelineEventIndex<UNIXTimeInstant>(events, DOMAIN, REFERENCE);
+
+		for (int change = 0; change < 500; change++) {
+			if (events.isEmpty() || random.nextBoolean()) {
+				ChronologicalEvent<UNIXTimeInstant> event = makeEvent(random, 100 + change);
+				int i = index.add(event);
+				Assert.assertSame(index.getEvent(i), event);
+				events.add(event);
+			} else {
+				ChronologicalEvent<UNIXTimeInstant> event = events.remove(random.nextInt(events.size()));
+				int i = index.indexOf(event);
+				Assert.assertTrue(i >= 0);
+				Assert.assertSame(index.remove(i), event);
+				Assert.assertEquals(index.indexOf(event), -1);
+			}
+			assertSameIndex(index, new TimelineEventIndex<UNIXTimeInstant>(events, DOMAIN, REFERENCE), random);
+		}
+	}
+
+	@Test
+	public void testIndexOfEqualEvent() {
+		List<ChronologicalEvent<UNIXTimeInstant>> events = new ArrayList<ChronologicalEvent<UNIXTimeInstant>>();
+		Integer info = 7;
+		events.add(new TestEvent(100, 200, info));
+		TimelineEventIndex<UNIXTimeInstant> index =
+			new TimelineEventIndex<UNIXTimeInstant>(events, DOMAIN, REFERENCE);
+
+		// Chronologies may give out new event objects for the same event
+		Assert.assertEquals(index.indexOf(new TestEvent(100, 200, info)), 0);
+		Assert.assertEquals(index.indexOf(new TestEvent(100, 300, info)), -1);
+		Assert.assertEquals(index.indexOf(new TestEvent(100, 200, new Integer(7000))), -1);
+	}
+
+	@Test
+	public void testEmpty() {
+		TimelineEventIndex<UNIXTimeInstant> index = new TimelineEventIndex<UNIXTimeInstant>(
+				new ArrayList<ChronologicalEvent<UNIXTimeInstant>>(), DOMAIN, REFERENCE);
+		ChronologicalEvent<UNIXTimeInstant> event = new TestEvent(100, 200, 1);
+		Assert.assertEquals(index.add(event), 0);
+		Assert.assertEquals(findOverlapping(index, 0.0, 1.0).size(), 1);
+		index.remove(0);
+		Assert.assertEquals(index.size(), 0);
+		Assert.assertTrue(findOverlapping(index, 0.0, 1.0).isEmpty());
+	}
+
+	private void assertSameIndex(TimelineEventIndex<UNIXTimeInstant> actual,
+			TimelineEventIndex<UNIXTimeInstant> expected, Random random) {
+		Assert.assertEquals(actual.size(), expected.size());
+		for (int i = 0; i < actual.size(); i++) {
+			Assert.assertEquals(actual.getStart(i), expected.getStart(i));
+			Assert.assertEquals(actual.getEnd(i), expected.getEnd(i));
+		}
+		for (int query = 0; query < 5; query++) {
+			double a = random.nextDouble();
+			double b = random.nextDouble();
+			List<Double> found = new ArrayList<Double>();
+			for (int i : findOverlapping(actual, Math.min(a, b), Math.max(a, b))) {
+				found.add(actual.getStart(i));
+			}
+			List<Double> wanted = new ArrayList<Double>();
+			for (int i : findOverlapping(expected, Math.min(a, b), Math.max(a, b))) {
+				wanted.add(expected.getStart(i));
+			}
+			Assert.assertEquals(found, wanted);
+		}
+	}
+
+	private List<Integer> findOverlapping(TimelineEventIndex<UNIXTimeInstant> index, double low, double high) {
+		final List<Integer> found = new ArrayList<Integer>();
+		index.findOverlapping(low, high, new TimelineEventIndex.Visitor() {
+			@Override
+			public void visit(int i) {
+				found.add(i);
+			}
+		});
+		return found;
+	}
+
+	private ChronologicalEvent<UNIXTimeInstant> makeEvent(Random random, int id) {
+		long start = random.nextInt(1000000);
+		long end   = start + (random.nextBoolean() ? 0 : random.nextInt(50000));
+		return new TestEvent(start, end, id);
+	}
+
+	private static class TestEvent extends ChronologicalEvent<UNIXTimeInstant> {
+		private Integer id;
+
+		public TestEvent(long start, long end, Integer id) {
+			super(new UNIXTimeInstant(start), new UNIXTimeInstant(end));
+			this.id = id;
+		}
+
+		@Override
+		public Object getEventInfo() {
+			return id;
+		}
+
+		@Override
+		public JComponent getRepresentation(Dimension preferredSize) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,204 @@
+package gov.nasa.arc.mct.chronology.timeline.view;
+
+import gov.nasa.arc.mct.chronology.timeline.component.TimelineComponent;
+import gov.nasa.arc.mct.components.AbstractComponent;
+import gov.nasa.arc.mct.components.FeedProvider;
+import gov.nasa.arc.mct.gui.View;
+import gov.nasa.arc.mct.platform.spi.PersistenceProvider;
+import gov.nasa.arc.mct.platform.spi.Platform;
+import gov.nasa.arc.mct.platform.spi.PlatformAccess;
+import gov.nasa.arc.mct.services.component.ViewInfo;
+import gov.nasa.arc.mct.services.component.ViewType;
+
+import java.awt.GraphicsEnvironment;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TimelinePlotBindingTest {
+	private static final Set<String> WRITES = 
+		new HashSet<String>(Arrays.asList("persist", "delete", "tagComponents"));
+	
+	private int writes;
+	private int clones;
+	private PlatformAccess access = new PlatformAccess();
+	
+	@BeforeMethod
+	public void setup() {
+		writes = 0;
+		clones = 0;
+		final PersistenceProvider persistence = (PersistenceProvider) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { PersistenceProvider.class }, 
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (WRITES.contains(method.getName())) {
+							writes++;
+						}
+						return null;
+					}					
+				});
+		Platform platform = (Platform) Proxy.newProxyInstance(
+				getClass().getClassLoader(), new Class<?>[] { Platform.class }, 
+				new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						return method.getName().equals("getPersistenceProvider") ? persistence : null;
+					}					
+				});
+		access.setPlatform(platform);
+	}
+	
+	@AfterMethod
+	public void teardown() {
+		access.releasePlatform();
+	}
+	
+	@Test
+	public void testPlottingWritesNothing() {
+		TimelinePlotBinding binding = new TimelinePlotBinding(new TestFeed(), new TestPlotInfo());
+		binding.setTimeRange(1000, 2000);
+		Assert.assertNotNull(binding.createPlot());
+		
+		// Plotting again, as when the timeline is rebuilt, should not write either
+		binding.setTimeRange(1500, 2500);
+		Assert.assertNotNull(binding.createPlot());
+		
+		Assert.assertEquals(writes, 0);
+	}
+	
+	@Test
+	public void testSettingsHeldByBinding() {
+		TimelinePlotBinding binding = new TimelinePlotBinding(new TestFeed(), new TestPlotInfo());
+		binding.setTimeRange(1000, 2000);
+		Assert.assertEquals(binding.getSettings().get("TimeMin"), "1000");
+		Assert.assertEquals(binding.getSettings().get("TimeMax"), "2000");
+		Assert.assertEquals(binding.getSettings().get("PinTimeAxis"), "true");
+		
+		binding.createPlot();
+		binding.createPlot();
+		Assert.assertEquals(clones, 1); // The feed's unsaved copy is reused
+	}
+	
+	@Test
+	public void testSettingsAppliedToPlot() {
+		TimelinePlotBinding binding = new TimelinePlotBinding(new TestFeed(), new TestPlotInfo());
+		binding.setTimeRange(1000, 2000);
+		assertSettingsApplied(binding);
+		
+		// Changed settings should reach plots created later
+		binding.setTimeRange(1500, 2500);
+		assertSettingsApplied(binding);
+	}
+	
+	@Test
+	public void testOpeningTimelineWritesNothing() {
+		if (GraphicsEnvironment.isHeadless()) {
+			throw new SkipException("Timeline views accept drops, which requires a display");
+		}
+		TestPlotInfo.created = 0;
+		TestCollection collection = new TestCollection(new TestFeed());
+		TimelineView view = new TimelineView(collection, 
+				new ViewInfo(TimelineView.class, TimelineView.VIEW_ROLE_NAME, ViewType.EMBEDDED));
+		Assert.assertEquals(TestPlotInfo.created, 1);
+		
+		// Rebuilding, as when children change, plots again from the same unsaved copy
+		view.updateMonitoredGUI();
+		Assert.assertEquals(TestPlotInfo.created, 2);
+		Assert.assertEquals(clones, 1);
+		
+		Assert.assertEquals(writes, 0);
+	}
+	
+	private void assertSettingsApplied(TimelinePlotBinding binding) {
+		TestPlotInfo.created = 0;
+		View plot = binding.createPlot();
+		Assert.assertEquals(TestPlotInfo.created, 1); // Only one view is created per plot
+		for (Map.Entry<String, String> setting : binding.getSettings().entrySet()) {
+			Assert.assertEquals(plot.getViewProperties().getProperty(setting.getKey(), String.class), setting.getValue());
+		}
+	}
+	
+	private class TestFeed extends AbstractComponent {
+		public TestFeed() {
+			setDisplayName("Test Feed");
+		}
+		
+		@Override
+		public AbstractComponent clone() {
+			clones++;
+			return new TestFeed();
+		}
+		
+		@Override
+		protected <T> T handleGetCapability(Class<T> capability) {
+			if (capability.equals(FeedProvider.class)) {
+				return capability.cast(Proxy.newProxyInstance(getClass().getClassLoader(), 
+						new Class<?>[] { FeedProvider.class }, new InvocationHandler() {
+							@Override
+							public Object invoke(Object proxy, Method method, Object[] args) {
+								return null;
+							}
+						}));
+			}
+			return super.handleGetCapability(capability);
+		}
+		
+		@Override
+		public Set<ViewInfo> getViewInfos(ViewType type) {
+			return Collections.<ViewInfo>singleton(new TestPlotInfo());
+		}
+		
+		@Override
+		public boolean isLeaf() {
+			return true;
+		}
+	}
+	
+	private static class TestCollection extends TimelineComponent {
+		private final List<AbstractComponent> children;
+		
+		public TestCollection(AbstractComponent... children) {
+			this.children = Arrays.asList(children);
+		}
+		
+		@Override
+		public synchronized List<AbstractComponent> getComponents() {
+			return children;
+		}
+	}
+	
+	private static class TestPlotInfo extends ViewInfo {
+		private static int created = 0;
+		
+		public TestPlotInfo() {
+			super(TestPlot.class, "Test Plot", ViewType.EMBEDDED);
+		}
+
+		@Override
+		public View createView(AbstractComponent component) {
+			created++;
+			return new TestPlot(component, this);
+		}
+	}
+	
+	public static class TestPlot extends View {
+		private static final long serialVersionUID = -2930162526520434470L;
+
+		public TestPlot(AbstractComponent component, ViewInfo info) {
+			super(component, info);
+		}
+	}
+}